@@ -0,0 +1,135 @@
+import java.util.ArrayList;
+
+
+/*
+ * Anti-cycling of the simplex steps. A degenerate pivot (on a zero B row) doesn't improve the objective,
+ * and a long run of them may be a cycle, where the same bases return forever.
+ * The engines count the consecutive degenerate pivots, and when they reach the limit the mode is switched on
+ * until a pivot improves the objective again :
+ *  NONE - no switch.
+ *  BLAND - Bland's rule, the first improving column enters and the ratio ties leave by the smallest basis variable.
+ *  LEXICOGRAPHIC - the pricing rule still chooses, and the ratio ties are broken by the lexicographic order of
+ *                  their rows divided by the pivot column (the columns of the initial basis first, so no rows tie).
+ * The floating point engines switch to Bland's rule in both modes, their ratio ties are within the tolerance.
+ * With perturbation the exact engine (EXACT) also adds small distinct amounts to the zero B's when switching,
+ * bounded below the smallest non zero B, the amounts are kept aside and removed when the steps end.
+ */
+public class AntiCycling {
+
+	enum Mode {
+		NONE,
+		BLAND,
+		LEXICOGRAPHIC
+	}
+
+	/*
+	 * The constraints rows of an exact engine, as seen by the lexicographic ratio test.
+	 */
+	interface Rows {
+		Rational entry(int rI, int cI);
+	}
+
+	/*
+	 * Consecutive degenerate pivots that switch the mode on by default.
+	 */
+	public static final int DEFAULT_LIMIT = 50;
+
+	private Mode mode;
+	private int limit;
+	private boolean perturbation;
+
+	/*
+	 * The consecutive degenerate pivots, and indication that the mode is on.
+	 */
+	private int degeneratePivots;
+	private boolean active;
+
+	public AntiCycling(Mode mode, int limit, boolean perturbation) {
+		if(limit < 1) {
+			throw new IllegalArgumentException("The degenerate pivots limit must be positive");
+		}
+		this.mode = mode;
+		this.limit = limit;
+		this.perturbation = perturbation;
+		this.degeneratePivots = 0;
+		this.active = false;
+	}
+
+	/*
+	 * Anti-cycling which never switches on (the engines start with it).
+	 */
+	public static AntiCycling none() {
+		return new AntiCycling(Mode.NONE, AntiCycling.DEFAULT_LIMIT, false);
+	}
+
+	public Mode getMode() {
+		return this.mode;
+	}
+
+	public boolean getPerturbation() {
+		return this.perturbation;
+	}
+
+	public boolean isActive() {
+		return this.active;
+	}
+
+	/*
+	 * Check if the steps follow Bland's rule now.
+	 */
+	public boolean bland() {
+		return this.active && this.mode == Mode.BLAND;
+	}
+
+	/*
+	 * Check if the ratio ties are broken lexicographically now.
+	 */
+	public boolean lexicographic() {
+		return this.active && this.mode == Mode.LEXICOGRAPHIC;
+	}
+
+	/*
+	 * Count a pivot in the metrics, return true if it switched the mode on.
+	 */
+	public boolean pivoted(boolean degenerate, SolveMetrics metrics) {
+		if(this.active) {
+			metrics.antiCyclingPivot();
+		}
+		if(!degenerate) {
+			this.degeneratePivots = 0;
+			this.active = false;
+			return false;
+		}
+		this.degeneratePivots++;
+		if(this.active || this.mode == Mode.NONE || this.degeneratePivots < this.limit) {
+			return false;
+		}
+		this.active = true;
+		metrics.antiCyclingSwitch();
+		return true;
+	}
+
+	/*
+	 * Lexicographic comparison of rows rI and sI divided by their (positive) entries at the pivot column :
+	 * by the given columns (1 based variables of the initial basis), then by all the columns up to count.
+	 * The rows are compared by cross multiplication, so nothing is divided.
+	 */
+	public static int compareRows(Rows rows, int rI, int sI, int pivotC, ArrayList<Integer> order, int count) {
+		Rational rPivot = rows.entry(rI, pivotC);
+		Rational sPivot = rows.entry(sI, pivotC);
+		for(int i = 0; i < order.size() + count; i++) {
+			int cI = (i < order.size()) ? (order.get(i) - 1) : (i - order.size());
+			Rational r = rows.entry(rI, cI);
+			Rational s = rows.entry(sI, cI);
+			if(r.isZero() && s.isZero()) {
+				continue;
+			}
+			int result = r.multiply(sPivot).compareTo(s.multiply(rPivot));
+			if(result != 0) {
+				return result;
+			}
+		}
+		return 0;
+	}
+
+}
@@ -0,0 +1,311 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+
+/*
+ * Asynchronous destination of log records.
+ * The writing threads put the records in a bounded lock-free ring (multiple producers, single consumer),
+ * and a background thread drains them in batches, encodes them and writes them to a channel through a buffer.
+ * When the ring is full the record is handled by the overflow policy :
+ *  BLOCK - wait for free slot (nothing is lost).
+ *  DROP - drop the record.
+ *  SAMPLE - keep one of each sampleRate overflowing records (waiting for it), drop the others.
+ * The count of the dropped records is written at close.
+ */
+public class AsyncLogSink implements AutoCloseable {
+
+	enum OverflowPolicy {
+		BLOCK,
+		DROP,
+		SAMPLE
+	}
+
+	public static final int DEFAULT_CAPACITY = 1 << 14;
+
+	public static final int DEFAULT_SAMPLE_RATE = 16;
+
+	/*
+	 * Size of the write buffer of the background thread.
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/*
+	 * Maximum number of records per batch.
+	 */
+	private static final int BATCH_SIZE = 256;
+
+	/*
+	 * Waiting time of the background thread on empty ring (and of blocked writers on full ring).
+	 */
+	private static final long IDLE_NANOS = 1000000;
+	private static final long FULL_NANOS = 10000;
+
+	/*
+	 * The ring : each slot has a sequence number, a slot is free for the producer of position p when its sequence is p,
+	 * and it is ready for the consumer when its sequence is p + 1.
+	 */
+	private int mask;
+	private String[] records;
+	private boolean[] newLines;
+	private AtomicLongArray sequences;
+
+	/*
+	 * Next position of the producers, next position of the consumer, and the count of written records.
+	 */
+	private AtomicLong tail;
+	private long head;
+	private volatile long written;
+
+	private OverflowPolicy policy;
+	private int sampleRate;
+	private AtomicLong overflows;
+	private AtomicLong dropped;
+
+	private WritableByteChannel channel;
+	private Boolean closeChannel;
+	private ByteBuffer buffer;
+	private CharsetEncoder encoder;
+
+	/*
+	 * The background thread stops when the sink is closed, no offer is in progress and the ring is empty,
+	 * so the records of offers that passed the closed check before the close are still written.
+	 */
+	private Thread writerThread;
+	private volatile boolean closed;
+	private AtomicInteger offering;
+	private IOException failure;
+
+	/*
+	 * Sink to a new file (truncated if exists), the file is closed with the sink.
+	 */
+	public AsyncLogSink(Path file, int capacity, OverflowPolicy policy) throws IOException {
+		this(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE), capacity, policy);
+		this.closeChannel = true;
+	}
+
+	/*
+	 * Sink to given channel, which stays open after the sink is closed.
+	 */
+	public AsyncLogSink(WritableByteChannel channel, int capacity, OverflowPolicy policy) {
+		int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+		this.mask = size - 1;
+		this.records = new String[size];
+		this.newLines = new boolean[size];
+		this.sequences = new AtomicLongArray(size);
+		for(int i = 0; i < size; i++) {
+			this.sequences.set(i, i);
+		}
+		this.tail = new AtomicLong(0);
+		this.head = 0;
+		this.written = 0;
+
+		this.policy = policy;
+		this.sampleRate = AsyncLogSink.DEFAULT_SAMPLE_RATE;
+		this.overflows = new AtomicLong(0);
+		this.dropped = new AtomicLong(0);
+
+		this.channel = channel;
+		this.closeChannel = false;
+		this.buffer = ByteBuffer.allocateDirect(AsyncLogSink.BUFFER_SIZE);
+		// malformed text (a lone surrogate) is written as replacement, not cutting the rest of the batch
+		this.encoder = StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+		this.closed = false;
+		this.offering = new AtomicInteger(0);
+		this.writerThread = new Thread(this::drain, "simlog-writer");
+		this.writerThread.setDaemon(true);
+		this.writerThread.start();
+	}
+
+	public void setSampleRate(int sampleRate) {
+		this.sampleRate = Math.max(1, sampleRate);
+	}
+
+	public long getDropped() {
+		return this.dropped.get();
+	}
+
+	/*
+	 * Put a record (with line separator after it if newLine) according to the overflow policy.
+	 */
+	public void offer(String record, boolean newLine) {
+		// counted before the closed check, so the background thread doesn't stop before the record is published
+		this.offering.incrementAndGet();
+		try {
+			if(this.closed) {
+				throw new IllegalStateException("Log sink is closed");
+			}
+			if(this.tryOffer(record, newLine)) {
+				return;
+			}
+			LockSupport.unpark(this.writerThread);
+			if(this.policy == OverflowPolicy.DROP || (this.policy == OverflowPolicy.SAMPLE && this.overflows.incrementAndGet() % this.sampleRate != 0)) {
+				this.dropped.incrementAndGet();
+				return;
+			}
+			while(!this.tryOffer(record, newLine)) {
+				LockSupport.unpark(this.writerThread);
+				LockSupport.parkNanos(AsyncLogSink.FULL_NANOS);
+			}
+		}
+		finally {
+			this.offering.decrementAndGet();
+		}
+	}
+
+	/*
+	 * Claim the slot of the tail position, false if the ring is full.
+	 */
+	private boolean tryOffer(String record, boolean newLine) {
+		long position = this.tail.get();
+		while(true) {
+			int index = (int)(position & this.mask);
+			long difference = this.sequences.get(index) - position;
+			if(difference == 0) {
+				if(this.tail.compareAndSet(position, position + 1)) {
+					this.records[index] = record;
+					this.newLines[index] = newLine;
+					// publish the record to the consumer
+					this.sequences.lazySet(index, position + 1);
+					return true;
+				}
+				position = this.tail.get();
+			}
+			else if(difference < 0) {
+				return false;
+			}
+			else {
+				position = this.tail.get();
+			}
+		}
+	}
+
+	/*
+	 * Loop of the background thread.
+	 */
+	private void drain() {
+		StringBuilder batch = new StringBuilder();
+		String lineSeparator = System.lineSeparator();
+		while(true) {
+			// the offers are checked after the closed flag and before the ring, so a record published by one of them is seen
+			boolean closing = this.closed && this.offering.get() == 0;
+			int count = 0;
+			while(count < AsyncLogSink.BATCH_SIZE) {
+				int index = (int)(this.head & this.mask);
+				if(this.sequences.get(index) != this.head + 1) {
+					break;
+				}
+				batch.append(this.records[index]);
+				if(this.newLines[index]) {
+					batch.append(lineSeparator);
+				}
+				this.records[index] = null;
+				// free the slot for the next round of the ring
+				this.sequences.lazySet(index, this.head + this.mask + 1);
+				this.head++;
+				count++;
+			}
+			if(count > 0) {
+				this.write(batch);
+				batch.setLength(0);
+				this.written = this.head;
+			}
+			else if(closing) {
+				return;
+			}
+			else {
+				LockSupport.parkNanos(this, AsyncLogSink.IDLE_NANOS);
+			}
+		}
+	}
+
+	/*
+	 * Encode and write the batch, the first write failure is kept and reported at close.
+	 */
+	private void write(CharSequence batch) {
+		if(this.failure != null) {
+			return;
+		}
+		try {
+			// each batch is whole records, so it is encoded as complete input
+			CharBuffer chars = CharBuffer.wrap(batch);
+			this.encoder.reset();
+			CoderResult result;
+			do {
+				result = this.encoder.encode(chars, this.buffer, true);
+				if(result.isUnderflow()) {
+					this.encoder.flush(this.buffer);
+				}
+				this.buffer.flip();
+				while(this.buffer.hasRemaining()) {
+					this.channel.write(this.buffer);
+				}
+				this.buffer.clear();
+			}
+			while(result.isOverflow());
+		}
+		catch(IOException e) {
+			this.failure = e;
+		}
+	}
+
+	/*
+	 * Wait until all the records that were put before the call are written.
+	 */
+	public void flush() {
+		long target = this.tail.get();
+		while(this.written < target && this.writerThread.isAlive()) {
+			LockSupport.unpark(this.writerThread);
+			LockSupport.parkNanos(AsyncLogSink.FULL_NANOS);
+		}
+	}
+
+	/*
+	 * Write all the records, stop the background thread and close the channel (if owned).
+	 */
+	@Override
+	public void close() {
+		if(this.closed) {
+			return;
+		}
+		this.flush();
+		this.closed = true;
+		LockSupport.unpark(this.writerThread);
+		try {
+			this.writerThread.join();
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if(this.dropped.get() > 0) {
+			this.write(this.dropped.get() + " log records were dropped." + System.lineSeparator());
+		}
+		try {
+			if(this.closeChannel) {
+				this.channel.close();
+			}
+		}
+		catch(IOException e) {
+			if(this.failure == null) {
+				this.failure = e;
+			}
+		}
+		if(this.failure != null) {
+			this.failure.printStackTrace();
+		}
+	}
+
+}
@@ -0,0 +1,201 @@
+import java.util.ArrayList;
+
+
+/*
+ * Factorization of the basis matrix B of the revised simplex engine.
+ * B is factored as P*B = L*U (partial pivoting), and every basis change after the factorization
+ * is kept as an eta column (product form), until the next refactorization.
+ */
+public class BasisFactorization {
+
+	/*
+	 * Default number of eta updates before refactorization.
+	 */
+	public static final int DEFAULT_REFACTORIZATION_FREQUENCY = 64;
+
+	/*
+	 * Rows count of the basis.
+	 */
+	private int m;
+
+	/*
+	 * L (below the diagonal, unit diagonal implied) and U (diagonal and above) of the last factorization.
+	 */
+	private double[][] lu;
+
+	/*
+	 * Row permutation of the factorization : row rI of P*B is row permutation[rI] of B.
+	 */
+	private int[] permutation;
+
+	/*
+	 * Eta file : the pivot row of each update and the entering column (B^-1 * a) at the time of the update.
+	 */
+	private ArrayList<Integer> etaRows;
+	private ArrayList<double[]> etaColumns;
+
+	private int refactorizationFrequency;
+
+	private double pivotTolerance;
+
+	public BasisFactorization(int m, int refactorizationFrequency, double pivotTolerance) {
+		this.m = m;
+		this.refactorizationFrequency = refactorizationFrequency;
+		this.pivotTolerance = pivotTolerance;
+		this.etaRows = new ArrayList<Integer>();
+		this.etaColumns = new ArrayList<double[]>();
+	}
+
+	/*
+	 * Factor the basis matrix, given by its columns, and clear the eta file.
+	 * Return false if the basis is singular.
+	 */
+	public boolean factor(double[][] basisColumns) {
+		double[][] lu = new double[this.m][this.m];
+		for(int cI = 0; cI < this.m; cI++) {
+			for(int rI = 0; rI < this.m; rI++) {
+				lu[rI][cI] = basisColumns[cI][rI];
+			}
+		}
+		int[] permutation = new int[this.m];
+		for(int rI = 0; rI < this.m; rI++) {
+			permutation[rI] = rI;
+		}
+
+		for(int k = 0; k < this.m; k++) {
+			int pivotR = k;
+			for(int rI = k + 1; rI < this.m; rI++) {
+				if(Math.abs(lu[rI][k]) > Math.abs(lu[pivotR][k])) {
+					pivotR = rI;
+				}
+			}
+			if(Math.abs(lu[pivotR][k]) <= this.pivotTolerance) {
+				return false;
+			}
+			if(pivotR != k) {
+				double[] row = lu[pivotR];
+				lu[pivotR] = lu[k];
+				lu[k] = row;
+				int index = permutation[pivotR];
+				permutation[pivotR] = permutation[k];
+				permutation[k] = index;
+			}
+			double[] pivotRow = lu[k];
+			for(int rI = k + 1; rI < this.m; rI++) {
+				double[] row = lu[rI];
+				if(row[k] == 0) {
+					continue;
+				}
+				double factor = row[k] / pivotRow[k];
+				row[k] = factor;
+				for(int cI = k + 1; cI < this.m; cI++) {
+					row[cI] -= factor * pivotRow[cI];
+				}
+			}
+		}
+
+		this.lu = lu;
+		this.permutation = permutation;
+		this.etaRows.clear();
+		this.etaColumns.clear();
+		return true;
+	}
+
+	/*
+	 * Register basis change at given row, the column is B^-1 * a of the entering variable (before the change).
+	 */
+	public void update(int pivotR, double[] enteringColumn) {
+		this.etaRows.add(pivotR);
+		this.etaColumns.add(enteringColumn);
+	}
+
+	/*
+	 * Check if the eta file is long enough for refactorization.
+	 */
+	public boolean refactorizationNeeded() {
+		return this.etaRows.size() >= this.refactorizationFrequency;
+	}
+
+	/*
+	 * Solve B * x = a (forward transformation), return x.
+	 */
+	public double[] ftran(double[] a) {
+		double[] x = new double[this.m];
+		for(int rI = 0; rI < this.m; rI++) {
+			x[rI] = a[this.permutation[rI]];
+		}
+		// L * y = P * a
+		for(int rI = 0; rI < this.m; rI++) {
+			double[] row = this.lu[rI];
+			double value = x[rI];
+			for(int cI = 0; cI < rI; cI++) {
+				value -= row[cI] * x[cI];
+			}
+			x[rI] = value;
+		}
+		// U * x = y
+		for(int rI = this.m - 1; rI >= 0; rI--) {
+			double[] row = this.lu[rI];
+			double value = x[rI];
+			for(int cI = rI + 1; cI < this.m; cI++) {
+				value -= row[cI] * x[cI];
+			}
+			x[rI] = value / row[rI];
+		}
+		// eta file, in the order of the updates
+		for(int eI = 0; eI < this.etaRows.size(); eI++) {
+			int pivotR = this.etaRows.get(eI);
+			double[] eta = this.etaColumns.get(eI);
+			double pivotValue = x[pivotR] / eta[pivotR];
+			if(pivotValue != 0) {
+				for(int rI = 0; rI < this.m; rI++) {
+					x[rI] -= eta[rI] * pivotValue;
+				}
+			}
+			x[pivotR] = pivotValue;
+		}
+		return x;
+	}
+
+	/*
+	 * Solve y * B = c (backward transformation), return y.
+	 */
+	public double[] btran(double[] c) {
+		double[] y = c.clone();
+		// eta file, in the reverse order of the updates
+		for(int eI = this.etaRows.size() - 1; eI >= 0; eI--) {
+			int pivotR = this.etaRows.get(eI);
+			double[] eta = this.etaColumns.get(eI);
+			double value = y[pivotR];
+			for(int rI = 0; rI < this.m; rI++) {
+				if(rI != pivotR) {
+					value -= eta[rI] * y[rI];
+				}
+			}
+			y[pivotR] = value / eta[pivotR];
+		}
+		// U^T * w = y
+		for(int rI = 0; rI < this.m; rI++) {
+			double value = y[rI];
+			for(int cI = 0; cI < rI; cI++) {
+				value -= this.lu[cI][rI] * y[cI];
+			}
+			y[rI] = value / this.lu[rI][rI];
+		}
+		// L^T * v = w
+		for(int rI = this.m - 1; rI >= 0; rI--) {
+			double value = y[rI];
+			for(int cI = rI + 1; cI < this.m; cI++) {
+				value -= this.lu[cI][rI] * y[cI];
+			}
+			y[rI] = value;
+		}
+		// y = P^T * v
+		double[] result = new double[this.m];
+		for(int rI = 0; rI < this.m; rI++) {
+			result[this.permutation[rI]] = y[rI];
+		}
+		return result;
+	}
+
+}
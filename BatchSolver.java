@@ -0,0 +1,249 @@
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/*
+ * Solver of many independent problems concurrently.
+ * The problems are pulled lazily from the input as the results are consumed,
+ * and at most maxInFlight problems are submitted and not yet consumed (backpressure),
+ * so an endless input stream can be solved with bounded memory.
+ * Each problem is a Simplex instance (better with SimLog.discarding(), since logging dominates small problems).
+ */
+public class BatchSolver implements AutoCloseable {
+
+	/*
+	 * Order of the results stream.
+	 */
+	enum Order {
+		SUBMISSION,
+		COMPLETION
+	}
+
+	/*
+	 * Result of a single problem : its index in the input, the solved Simplex, the result of its solve
+	 * and the error thrown by the solve (the result is null and the error isn't if the solve failed).
+	 */
+	public static class Result {
+
+		private long index;
+		private Simplex simplex;
+		private SimplexResult result;
+		private Throwable error;
+
+		Result(long index, Simplex simplex, SimplexResult result, Throwable error) {
+			this.index = index;
+			this.simplex = simplex;
+			this.result = result;
+			this.error = error;
+		}
+
+		public long getIndex() {
+			return this.index;
+		}
+
+		public Simplex getSimplex() {
+			return this.simplex;
+		}
+
+		public SimplexResult getResult() {
+			return this.result;
+		}
+
+		public Throwable getError() {
+			return this.error;
+		}
+
+		public Simplex.SolutionType getSolutionType() {
+			return (this.error == null) ? (this.simplex.getSolutionType()) : (Simplex.SolutionType.UNKNOWN);
+		}
+	}
+
+	private Simplex.EngineType engineType;
+
+	private ExecutorService executor;
+
+	/*
+	 * Indication that the executor was created by the batch solver (and is shut down on close).
+	 */
+	private Boolean ownExecutor;
+
+	private int maxInFlight;
+
+	/*
+	 * Batch solver on virtual threads when the runtime has them, otherwise on a pool with thread per processor.
+	 */
+	public BatchSolver(Simplex.EngineType engineType, int maxInFlight) {
+		this(engineType, BatchSolver.defaultExecutor(), maxInFlight);
+		this.ownExecutor = true;
+	}
+
+	/*
+	 * Batch solver on given executor, which is not shut down on close.
+	 */
+	public BatchSolver(Simplex.EngineType engineType, ExecutorService executor, int maxInFlight) {
+		if(maxInFlight < 1) {
+			throw new IllegalArgumentException("maxInFlight must be positive");
+		}
+		this.engineType = engineType;
+		this.executor = executor;
+		this.ownExecutor = false;
+		this.maxInFlight = maxInFlight;
+	}
+
+	/*
+	 * The virtual threads executor is looked up by reflection, so the solver still builds for older runtimes.
+	 */
+	private static ExecutorService defaultExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService)factory.invoke(null);
+		}
+		catch(ReflectiveOperationException e) {
+			return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), (runnable) -> {
+				Thread thread = new Thread(runnable, "batch-solver");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	public Stream<Result> solve(Collection<Simplex> problems, Order order) {
+		return this.solve(problems.iterator(), order);
+	}
+
+	public Stream<Result> solve(Stream<Simplex> problems, Order order) {
+		return this.solve(problems.iterator(), order).onClose(problems::close);
+	}
+
+	private Stream<Result> solve(Iterator<Simplex> problems, Order order) {
+		Iterator<Result> results = (order == Order.SUBMISSION) ? (new SubmissionOrderResults(problems)) : (new CompletionOrderResults(problems));
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(results, Spliterator.NONNULL | ((order == Order.SUBMISSION) ? (Spliterator.ORDERED) : (0))), false);
+	}
+
+	/*
+	 * Solve single problem, the errors are kept in the result (any throwable, so every task delivers a result
+	 * and the completion order results never wait for a task that failed).
+	 */
+	private Result solveOne(long index, Simplex simplex) {
+		try {
+			return new Result(index, simplex, simplex.solve(this.engineType), null);
+		}
+		catch(Throwable e) {
+			return new Result(index, simplex, null, e);
+		}
+	}
+
+	@Override
+	public void close() {
+		if(this.ownExecutor) {
+			this.executor.shutdown();
+		}
+	}
+
+	/*
+	 * Results in the input order : a window of the submitted problems, the head is awaited.
+	 */
+	private class SubmissionOrderResults implements Iterator<Result> {
+
+		private Iterator<Simplex> problems;
+		private ArrayDeque<Future<Result>> window;
+		private long submitted;
+
+		SubmissionOrderResults(Iterator<Simplex> problems) {
+			this.problems = problems;
+			this.window = new ArrayDeque<Future<Result>>();
+			this.submitted = 0;
+		}
+
+		private void fill() {
+			while(this.window.size() < BatchSolver.this.maxInFlight && this.problems.hasNext()) {
+				final long index = this.submitted++;
+				final Simplex simplex = this.problems.next();
+				this.window.add(BatchSolver.this.executor.submit(() -> BatchSolver.this.solveOne(index, simplex)));
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			this.fill();
+			return !this.window.isEmpty();
+		}
+
+		@Override
+		public Result next() {
+			if(!this.hasNext()) {
+				throw new NoSuchElementException();
+			}
+			try {
+				return this.window.poll().get();
+			}
+			catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for a result", e);
+			}
+			catch(ExecutionException e) {
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+	}
+
+	/*
+	 * Results as soon as they are ready : the tasks put their results in a queue.
+	 */
+	private class CompletionOrderResults implements Iterator<Result> {
+
+		private Iterator<Simplex> problems;
+		private LinkedBlockingQueue<Result> completed;
+		private long submitted;
+		private long delivered;
+
+		CompletionOrderResults(Iterator<Simplex> problems) {
+			this.problems = problems;
+			this.completed = new LinkedBlockingQueue<Result>();
+			this.submitted = this.delivered = 0;
+		}
+
+		private void fill() {
+			while(this.submitted - this.delivered < BatchSolver.this.maxInFlight && this.problems.hasNext()) {
+				final long index = this.submitted++;
+				final Simplex simplex = this.problems.next();
+				BatchSolver.this.executor.execute(() -> this.completed.add(BatchSolver.this.solveOne(index, simplex)));
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			this.fill();
+			return this.submitted > this.delivered;
+		}
+
+		@Override
+		public Result next() {
+			if(!this.hasNext()) {
+				throw new NoSuchElementException();
+			}
+			try {
+				Result result = this.completed.take();
+				this.delivered++;
+				return result;
+			}
+			catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for a result", e);
+			}
+		}
+	}
+
+}
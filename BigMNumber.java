@@ -0,0 +1,127 @@
+/*
+ * Number of the Big-M method : a + bM, where M is symbolic and larger than any real number.
+ * The numbers are ordered lexicographically (the M part first, then the real part),
+ * so a single objective row carries both the real and the artificial weights.
+ * The numbers are immutable.
+ */
+public class BigMNumber implements Comparable<BigMNumber> {
+
+	/*
+	 * Common constants.
+	 */
+	public static final BigMNumber ZERO = new BigMNumber(Rational.ZERO, Rational.ZERO);
+	public static final BigMNumber M = new BigMNumber(Rational.ZERO, Rational.ONE);
+
+	/*
+	 * The real part (a) and the M part (b).
+	 */
+	private final Rational real;
+	private final Rational m;
+
+	public BigMNumber(Rational real, Rational m) {
+		this.real = real;
+		this.m = m;
+	}
+
+	/*
+	 * Real number (without M part).
+	 */
+	public static BigMNumber valueOf(Rational real) {
+		return (real.isZero()) ? (BigMNumber.ZERO) : (new BigMNumber(real, Rational.ZERO));
+	}
+
+	public Rational getReal() {
+		return this.real;
+	}
+
+	public Rational getM() {
+		return this.m;
+	}
+
+	/*
+	 * Check if this number has no M part.
+	 */
+	public boolean isReal() {
+		return this.m.isZero();
+	}
+
+	public boolean isZero() {
+		return this.real.isZero() && this.m.isZero();
+	}
+
+	/*
+	 * Lexicographic sign (-1, 0 or 1), the M part decides unless it is zero.
+	 */
+	public int signum() {
+		return (this.m.isZero()) ? (this.real.signum()) : (this.m.signum());
+	}
+
+	public BigMNumber negative() {
+		return new BigMNumber(this.real.negative(), this.m.negative());
+	}
+
+	public BigMNumber add(BigMNumber n) {
+		if(n.isZero()) {
+			return this;
+		}
+		return new BigMNumber(this.real.add(n.real), this.m.add(n.m));
+	}
+
+	public BigMNumber subtract(BigMNumber n) {
+		if(n.isZero()) {
+			return this;
+		}
+		return new BigMNumber(this.real.subtract(n.real), this.m.subtract(n.m));
+	}
+
+	/*
+	 * Multiply by real number.
+	 */
+	public BigMNumber multiply(Rational r) {
+		if(r.isZero() || this.isZero()) {
+			return BigMNumber.ZERO;
+		}
+		return new BigMNumber((this.real.isZero()) ? (Rational.ZERO) : (this.real.multiply(r)), (this.m.isZero()) ? (Rational.ZERO) : (this.m.multiply(r)));
+	}
+
+	/*
+	 * Lexicographic comparison (the M part first).
+	 * (non-Javadoc)
+	 * @see java.lang.Comparable#compareTo(java.lang.Object)
+	 */
+	@Override
+	public int compareTo(BigMNumber n) {
+		int result = this.m.compareTo(n.m);
+		return (result != 0) ? (result) : (this.real.compareTo(n.real));
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		boolean result = false;
+		if(obj instanceof BigMNumber) {
+			BigMNumber n = (BigMNumber)obj;
+			result = this.real.equals(n.real) && this.m.equals(n.m);
+		}
+		return result;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * this.m.hashCode() + this.real.hashCode();
+	}
+
+	/*
+	 * String representation like the solution Z : "+2M +3", "-1M" or "+3".
+	 */
+	@Override
+	public String toString() {
+		if(this.m.isZero()) {
+			return this.real.toString();
+		}
+		if(this.real.isZero()) {
+			return this.m + "M";
+		}
+		return this.m + "M " + this.real;
+	}
+
+}
@@ -0,0 +1,22 @@
+/*
+ * Cooperative cancellation of solves : the solver checks the token between the pivots,
+ * so a solve stops with LIMIT_REACHED soon after cancel is called from any thread.
+ * A token can be shared by several solves, and stays cancelled.
+ */
+public class CancellationToken {
+
+	private volatile boolean cancelled;
+
+	public CancellationToken() {
+		this.cancelled = false;
+	}
+
+	public void cancel() {
+		this.cancelled = true;
+	}
+
+	public boolean isCancelled() {
+		return this.cancelled;
+	}
+
+}
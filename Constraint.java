@@ -1,23 +1,9 @@
 import java.util.ArrayList;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.HashMap;
 
 
 public class Constraint {
 
-	enum ConstraintParseSteps {
-		CHECK_CONSTRAINT_VALID_CHARACTERS,
-		SPLIT_CONSTRAINT_AROUND_EQUALITY_SYMBOL_AND_PARSE_IT,
-		CHECK_CONSTRAINT_LEFT_SIDE_VALID_CHARACTERS,
-		CHECK_CONSTRAINT_RIGHT_SIDE_VALID_CHARACTERS,
-		CHECK_PATTERN_AND_PARSE_RIGHT_SIDE,
-		CHECK_PATTERN_AND_PARSE_LEFT_SIDE,
-		FINISH_STEPS
-	}
-
-	private String[] splittedStringsAroundEqualitySign;
-
-
 	private String constraintStr;
 
 	private Integer currentEqualityType;
@@ -25,22 +11,74 @@ public class Constraint {
 
 	private Rational rightSideBound;
 
+	/*
+	 * Indication that the normalization negated the constraint (its bound was negative).
+	 */
+	private Boolean negated;
+
 	private ArrayList<Rational> leftSideCoefficients;
 
 	private Boolean validAtCurrentTime;
 
+	private String parseError;
+
 	public Constraint(String constraintStr) {
 
-		this.validAtCurrentTime = this.stateMachineParser(constraintStr);
+		ParseEvent event = new ParseEvent();
+		event.begin();
+		this.constraintStr = constraintStr;
+		LinearExpressionParser parser = new LinearExpressionParser(constraintStr);
+		this.validAtCurrentTime = parser.parseConstraint();
+		if(this.validAtCurrentTime) {
+			this.leftSideCoefficients = parser.getCoefficients();
+			this.rightSideBound = parser.getBound();
+			this.currentEqualityType = parser.getEqualityType();
+			this.negated = false;
+			this.normalizeEquation();
+		}
+		else {
+			this.parseError = parser.getError();
+		}
+		this.previousEqualityType = 0;
+		event.commit("constraint", constraintStr, parser);
+
+	}
+
+	/*
+	 * Constraint of given coefficients, equality type and bound (e.g. built by presolve),
+	 * its string is its representation with X1..XN.
+	 */
+	Constraint(ArrayList<Rational> coefficients, Integer equalityType, Rational bound) {
+		this.leftSideCoefficients = coefficients;
+		this.currentEqualityType = equalityType;
+		this.rightSideBound = bound;
+		this.negated = false;
 		this.normalizeEquation();
 		this.previousEqualityType = 0;
+		this.validAtCurrentTime = true;
+		this.parseError = null;
+		this.constraintStr = this.toString();
+	}
 
+	/*
+	 * Copy of given constraint, with its own coefficients list.
+	 */
+	public Constraint(Constraint other) {
+		this.constraintStr = other.constraintStr;
+		this.currentEqualityType = other.currentEqualityType;
+		this.previousEqualityType = other.previousEqualityType;
+		this.rightSideBound = other.rightSideBound;
+		this.negated = other.negated;
+		this.leftSideCoefficients = (other.leftSideCoefficients != null) ? (new ArrayList<Rational>(other.leftSideCoefficients)) : (null);
+		this.validAtCurrentTime = other.validAtCurrentTime;
+		this.parseError = other.parseError;
 	}
 
 	private void normalizeEquation() {
-		if(this.rightSideBound.compareTo(new Rational(0)) < 0) {
+		if(this.rightSideBound.signum() < 0) {
 			this.currentEqualityType *= (-1);
 			this.rightSideBound = this.rightSideBound.negative();
+			this.negated = true;
 			for(Integer cI = 0; cI < this.leftSideCoefficients.size(); cI++) {
 				this.leftSideCoefficients.set(cI, this.leftSideCoefficients.get(cI).negative());
 			}
@@ -55,6 +93,17 @@ public class Constraint {
 		return this.rightSideBound;
 	}
 
+	/*
+	 * Set the bound of the normalized constraint (e.g. changed after solving).
+	 */
+	void setBound(Rational bound) {
+		this.rightSideBound = bound;
+	}
+
+	public Boolean getNegated() {
+		return this.negated;
+	}
+
 	public Integer getCurrentEqualityType() {
 		return this.currentEqualityType;
 	}
@@ -72,6 +121,13 @@ public class Constraint {
 		return this.validAtCurrentTime;
 	}
 
+	/*
+	 * Parse error description with its character offset, null for valid constraint.
+	 */
+	public String getParseError() {
+		return this.parseError;
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		Boolean result = false;
@@ -81,234 +137,33 @@ public class Constraint {
 		return result;
 	}
 
-	private Boolean stateMachineParser(String constraintStr) {
-
-		SimLog.writeln("Start parsing " + constraintStr + "... ");
-
-		this.constraintStr = constraintStr;
-
-		ConstraintParseSteps currentStep = ConstraintParseSteps.CHECK_CONSTRAINT_VALID_CHARACTERS;
-		Boolean done = false;
-		Boolean result = false;
-
-		while(!done) {
-
-			switch(currentStep) {
-			case CHECK_CONSTRAINT_LEFT_SIDE_VALID_CHARACTERS:
-				result = this.checkConstraintLeftSideValidCharacters();
-				currentStep = (result) ? (ConstraintParseSteps.CHECK_PATTERN_AND_PARSE_RIGHT_SIDE) : (ConstraintParseSteps.FINISH_STEPS);
-				break;
-			case CHECK_CONSTRAINT_RIGHT_SIDE_VALID_CHARACTERS:
-				result = this.checkConstraintRightSideValidCharacters();
-				currentStep = (result) ? (ConstraintParseSteps.CHECK_CONSTRAINT_LEFT_SIDE_VALID_CHARACTERS) : (ConstraintParseSteps.FINISH_STEPS);
-				break;
-			case CHECK_CONSTRAINT_VALID_CHARACTERS:
-				result = this.checkConstraintValidCharacters();
-				currentStep = (result) ? (ConstraintParseSteps.SPLIT_CONSTRAINT_AROUND_EQUALITY_SYMBOL_AND_PARSE_IT) : (ConstraintParseSteps.FINISH_STEPS);
-				break;
-			case CHECK_PATTERN_AND_PARSE_LEFT_SIDE:
-				result = this.checkPatternAndParseLeftSide();
-				currentStep = ConstraintParseSteps.FINISH_STEPS;
-				break;
-			case CHECK_PATTERN_AND_PARSE_RIGHT_SIDE:
-				result = this.checkPatternAndParseRightSide();
-				currentStep = (result) ? (ConstraintParseSteps.CHECK_PATTERN_AND_PARSE_LEFT_SIDE) : (ConstraintParseSteps.FINISH_STEPS);
-				break;
-			case SPLIT_CONSTRAINT_AROUND_EQUALITY_SYMBOL_AND_PARSE_IT:
-				result = this.splitConstraintAroundEqualitySymbolAndParseIt();
-				currentStep = (result) ? (ConstraintParseSteps.CHECK_CONSTRAINT_RIGHT_SIDE_VALID_CHARACTERS) : (ConstraintParseSteps.FINISH_STEPS);
-				break;
-			case FINISH_STEPS:
-				done = true;
-				break;
-
-			}
-
-		}
-		this.splittedStringsAroundEqualitySign = null;
-
-		SimLog.writeln("Done parsing " + constraintStr + "... " + ((result) ? ("pass") : ("fail")) + ".");
-
-		return result;
-	}
-
-
-
-	private Boolean checkConstraintValidCharacters() {
-		Boolean result = false;
-		SimLog.write("Check if the constraint contains only the valid characters... ");
-		Matcher matcher = Pattern.compile("[^x+-><=\\d/]").matcher(this.constraintStr);
-		if(!matcher.find()) {
-			result = true;
-			SimLog.writeln("pass.");
-		}
-		else {
-			SimLog.writeln("fail.");
-		}
-		return result;
-	}
-
-	private Boolean splitConstraintAroundEqualitySymbolAndParseIt() {
-		Boolean result = false;
-		SimLog.write("Splitting the constraint around the equality symbol... ");
-		this.splittedStringsAroundEqualitySign = this.constraintStr.split(">=|<=|>|<|=");
-		if(this.splittedStringsAroundEqualitySign.length == 2) {
-			result = true;
-			SimLog.writeln(" pass.");
-			SimLog.write("Splitted parts are : ");
-			for(String s : this.splittedStringsAroundEqualitySign) {
-				SimLog.write(s + " ");
-			}
-			SimLog.writeln(" .");
-			SimLog.write("Parsing equality symbol... ");
-			if(this.constraintStr.contains(">") || this.constraintStr.contains(">=")) {
-				this.currentEqualityType = 1;
-			}
-			else if(this.constraintStr.contains("<") || this.constraintStr.contains("<=")) {
-				this.currentEqualityType = -1;
-			}
-			else if(this.constraintStr.contains("=")) {
-				this.currentEqualityType = 0;
-			}
-			SimLog.writeln(" done.");
-		}
-		else {
-			SimLog.writeln("fail.");
-		}
-		return result;
-	}
-
-	private Boolean checkConstraintLeftSideValidCharacters() {
-		Boolean result = false;
-		SimLog.write("Check characters validity of left side... ");
-		Matcher matcher = Pattern.compile("[^x+-><=\\d/]").matcher(this.splittedStringsAroundEqualitySign[0]);
-		if(!matcher.find()) {
-			result = true;
-			SimLog.writeln("pass.");
-		}
-		else {
-			SimLog.writeln("fail.");
-		}
-		return result;
-	}
-
-	private Boolean checkConstraintRightSideValidCharacters() {
-		Boolean result = false;
-		SimLog.write("Check characters validity of right side... ");
-		Matcher matcher = Pattern.compile("[^-\\d/]").matcher(this.splittedStringsAroundEqualitySign[1]);
-		if(!matcher.find()) {
-			result = true;
-			SimLog.writeln("pass.");
-		}
-		else {
-			SimLog.writeln("fail.");
-		}
-		return result;
-	}
-
-	private Boolean checkPatternAndParseRightSide() {
-		Boolean result = false;
-		SimLog.write("Check pattern of the constraint right side... ");
-		Matcher matcher = Pattern.compile("\\d+/?\\d?").matcher(this.splittedStringsAroundEqualitySign[1]);
-		if(matcher.find()) {
-			result = true;
-			SimLog.writeln("pass.");
-			SimLog.write("Parsing the constraint right side... ");
-			this.rightSideBound = Rational.parseRational(this.splittedStringsAroundEqualitySign[1]);
-			SimLog.writeln("done.");
-		}
-		else {
-			SimLog.writeln("fail.");
-		}
-		return result;
-	}
-
-	private Boolean checkPatternAndParseLeftSide() {
-		Boolean result = false;
-		SimLog.write("Check pattern of the constraint left side... ");
-		Matcher matcher = Pattern.compile("([+-]?\\d*?/?\\d*?x\\d+)*").matcher(this.splittedStringsAroundEqualitySign[0]);
-		if(matcher.find()) {
-			result = true;
-			SimLog.writeln("pass.");
-
-			SimLog.writeln("Parsing each one of the left side components... ");
-			matcher = Pattern.compile("[+-]?\\d*?/?\\d*?x\\d+").matcher(this.splittedStringsAroundEqualitySign[0]);
-			this.leftSideCoefficients = new ArrayList<Rational>();
-			this.leftSideCoefficients.add(new Rational(0));
-			while(matcher.find()) {
-				String comp = matcher.group();
-				SimLog.write("Parsing " + comp + " ... ");
-				Rational coeff = null;
-				if(comp.charAt(0) == 'x' || comp.substring(0, 2).equals("+x")) {
-					coeff = new Rational(1);
-				}
-				else if(comp.substring(0, 2).equals("-x")) {
-					coeff = new Rational(-1);
-				}
-				else {
-					coeff = Rational.parseRational(comp.substring(0, comp.indexOf('x')));
-				}
-				Integer compIndex = Integer.parseInt(comp.substring(comp.indexOf('x') + 1)) - 1;
-
-				Integer spare = compIndex - this.leftSideCoefficients.size() + 1;
-				for(Integer i = 0; i < spare; i++) {
-					this.leftSideCoefficients.add(new Rational(0));
-				}
-				this.leftSideCoefficients.set(this.leftSideCoefficients.size() - 1, coeff);
-
-				SimLog.writeln("done.");
-			}
-			SimLog.writeln("Parsing left side components pass.");
-		}
-		else {
-			SimLog.writeln("fail.");
-		}
-		return result;
-	}
-
 	@Override
 	public String toString() {
-		if(Simplex.getConstraintsProcessed()) {
-			StringBuilder sb = new StringBuilder();
-			Integer counter = 1;
-			for(Rational d : this.leftSideCoefficients) {
-				if(!d.equals(new Rational(0))) {
-					sb.append(d + Simplex.getAliases().get(counter) + " ");
-				}
-				counter++;
-			}
-			if(this.currentEqualityType == 0) {
-				sb.append("= ");
+		return this.toString(null);
+	}
+
+	/*
+	 * String representation with given variables aliases, or with X1..XN when the aliases are null.
+	 */
+	public String toString(HashMap<Integer, String> variablesAliases) {
+		StringBuilder sb = new StringBuilder();
+		Integer counter = 1;
+		for(Rational d : this.leftSideCoefficients) {
+			if(!d.isZero()) {
+				sb.append(d + ((variablesAliases != null) ? (variablesAliases.get(counter)) : ("X" + counter)) + " ");
 			}
-			else if(this.currentEqualityType == -1) {
-				sb.append("<= ");
-			}
-			else if(this.currentEqualityType == 1) {
-				sb.append(">= ");
-			}
-			sb.append(this.rightSideBound);
-			return sb.toString();
+			counter++;
 		}
-		else {
-			StringBuilder sb = new StringBuilder();
-			Integer counter = 1;
-			for(Rational d : this.leftSideCoefficients) {
-				if(!d.equals(new Rational(0))) {
-					sb.append(d + "X" + counter + " ");
-				}
-				counter++;
-			}
-			if(this.currentEqualityType == 0) {
-				sb.append("= ");
-			}
-			else if(this.currentEqualityType == -1) {
-				sb.append("<= ");
-			}
-			else if(this.currentEqualityType == 1) {
-				sb.append(">= ");
-			}
-			sb.append(this.rightSideBound);
-			return sb.toString();
+		if(this.currentEqualityType == 0) {
+			sb.append("= ");
+		}
+		else if(this.currentEqualityType == -1) {
+			sb.append("<= ");
+		}
+		else if(this.currentEqualityType == 1) {
+			sb.append(">= ");
 		}
+		sb.append(this.rightSideBound);
+		return sb.toString();
 	}
 }
@@ -0,0 +1,114 @@
+
+
+/*
+ * Row kernels of the floating point engines : pivot update, pricing scan and ratio test.
+ * All the kernels work on contiguous primitive arrays, the update kernels are plain counted loops
+ * without branches (so the JIT can compile them to SIMD instructions), and the scans are single passes
+ * which keep their best value and index in locals (nothing is allocated per call).
+ */
+public class DoubleKernels {
+
+	/*
+	 * row[cI] -= factor * pivotRow[cI] for each column.
+	 */
+	public static void axpy(double[] row, double factor, double[] pivotRow) {
+		int length = Math.min(row.length, pivotRow.length);
+		for(int cI = 0; cI < length; cI++) {
+			row[cI] -= factor * pivotRow[cI];
+		}
+	}
+
+	/*
+	 * row[cI] *= factor for each column.
+	 */
+	public static void scale(double[] row, double factor) {
+		for(int cI = 0; cI < row.length; cI++) {
+			row[cI] *= factor;
+		}
+	}
+
+	/*
+	 * Index of the smallest value below given bound in [0, length), -1 if there is no such value.
+	 * Ties are resolved to the first index.
+	 */
+	public static int argMin(double[] values, int length, double bound) {
+		double best = bound;
+		int index = -1;
+		for(int cI = 0; cI < length; cI++) {
+			if(values[cI] < best) {
+				best = values[cI];
+				index = cI;
+			}
+		}
+		return index;
+	}
+
+	/*
+	 * Index of the biggest value above given bound in [0, length), -1 if there is no such value.
+	 * Ties are resolved to the first index.
+	 */
+	public static int argMax(double[] values, int length, double bound) {
+		double best = bound;
+		int index = -1;
+		for(int cI = 0; cI < length; cI++) {
+			if(values[cI] > best) {
+				best = values[cI];
+				index = cI;
+			}
+		}
+		return index;
+	}
+
+	/*
+	 * Ratio test : index of the smallest b[rI] / column[rI] among the rows with column[rI] above the pivot tolerance
+	 * and b[rI] above -feasibility tolerance (negative values within the tolerance are taken as zero),
+	 * -1 if there is no such row. Ties are resolved to the first index.
+	 */
+	public static int ratioTest(double[] b, double[] column, int length, double feasibilityTolerance, double pivotTolerance) {
+		double best = Double.POSITIVE_INFINITY;
+		int index = -1;
+		for(int rI = 0; rI < length; rI++) {
+			double alpha = column[rI];
+			double value = b[rI];
+			if(alpha > pivotTolerance && value >= -feasibilityTolerance) {
+				double ratio = Math.max(value, 0) / alpha;
+				if(ratio < best) {
+					best = ratio;
+					index = rI;
+				}
+			}
+		}
+		return index;
+	}
+
+	/*
+	 * Ratio test of Bland's rule : like ratioTest, but the rows whose ratio is within the feasibility tolerance
+	 * of the smallest one (relative to it when it is above 1) tie, and the tie is resolved to the smallest order[rI]
+	 * (the basis variable of the row).
+	 * The window is taken from the exact smallest ratio, and is cut to the biggest step that keeps every row
+	 * above -feasibility tolerance, so a tie never pushes a row out of the ratio tests.
+	 */
+	public static int blandRatioTest(double[] b, double[] column, int length, int[] order, double feasibilityTolerance, double pivotTolerance) {
+		int first = DoubleKernels.ratioTest(b, column, length, feasibilityTolerance, pivotTolerance);
+		if(first < 0) {
+			return -1;
+		}
+		double best = Math.max(b[first], 0) / column[first];
+		double window = best + feasibilityTolerance * Math.max(1, best);
+		for(int rI = 0; rI < length; rI++) {
+			if(column[rI] > pivotTolerance && b[rI] >= -feasibilityTolerance) {
+				window = Math.min(window, (b[rI] + feasibilityTolerance) / column[rI]);
+			}
+		}
+		int result = first;
+		for(int rI = 0; rI < length; rI++) {
+			if(column[rI] > pivotTolerance && b[rI] >= -feasibilityTolerance && Math.max(b[rI], 0) / column[rI] <= window) {
+				if(order[rI] < order[result]) {
+					result = rI;
+				}
+			}
+		}
+		return result;
+	}
+
+}
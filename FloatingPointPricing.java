@@ -0,0 +1,129 @@
+
+
+/*
+ * Choice of the variable that enters the basis for the floating point engines.
+ * The rows hold the C'j values (zj - cj) of the real objective and of the artificial (big M) objective.
+ */
+public class FloatingPointPricing {
+
+	private Simplex.ProblemType problemType;
+
+	private double optimalityTolerance;
+
+	/*
+	 * Two-phase mode, the first phase prices the IW row alone (the C'j row only breaks its ties).
+	 */
+	private boolean twoPhase;
+
+	public FloatingPointPricing(Simplex.ProblemType problemType, double optimalityTolerance) {
+		this.problemType = problemType;
+		this.optimalityTolerance = optimalityTolerance;
+		this.twoPhase = false;
+	}
+
+	public void setTwoPhase(boolean twoPhase) {
+		this.twoPhase = twoPhase;
+	}
+
+	/*
+	 * Check if C'j (or IW) value makes its variable a candidate to enter the basis.
+	 */
+	public boolean improving(double value) {
+		if(this.problemType == Simplex.ProblemType.MAXIMUM) {
+			return value < -this.optimalityTolerance;
+		}
+		return value > this.optimalityTolerance;
+	}
+
+	/*
+	 * Check if the first C'j (or IW) value dominates the second one.
+	 */
+	public boolean dominates(double value, double other) {
+		if(this.problemType == Simplex.ProblemType.MAXIMUM) {
+			return value < other;
+		}
+		return value > other;
+	}
+
+	/*
+	 * Check if C'j (or IW) value is considered as zero.
+	 */
+	public boolean zero(double value) {
+		return Math.abs(value) <= this.optimalityTolerance;
+	}
+
+	/*
+	 * Find the column of the variable that should enter the basis, -1 if there is no such one.
+	 * With artificial variables (artificialRow != null) the IW row is dominant, and the C'j row breaks its ties.
+	 */
+	public int findInToBasis(double[] dominantsRow, double[] artificialRow, int columns) {
+		int inToBasis = -1;
+
+		if(artificialRow != null) {
+
+			// find dominant artificial weight
+			inToBasis = this.dominantIndex(artificialRow, columns);
+
+			if(inToBasis >= 0) {
+				double dominantArtificialWeight = artificialRow[inToBasis];
+				// find dominant weight around the artificial weight ties
+				double dominant = 0;
+				for(int cI = 0; cI < columns; cI++) {
+					if(Math.abs(artificialRow[cI] - dominantArtificialWeight) <= this.optimalityTolerance) {
+						if(this.improving(dominantsRow[cI]) && this.dominates(dominantsRow[cI], dominant)) {
+							dominant = dominantsRow[cI];
+							inToBasis = cI;
+						}
+					}
+				}
+				return inToBasis;
+			}
+
+			// in two-phase mode the first phase ends here
+			if(this.twoPhase) {
+				return -1;
+			}
+
+			double dominant = 0;
+			for(int cI = 0; cI < columns; cI++) {
+				if(this.zero(artificialRow[cI]) && this.improving(dominantsRow[cI]) && this.dominates(dominantsRow[cI], dominant)) {
+					dominant = dominantsRow[cI];
+					inToBasis = cI;
+				}
+			}
+			return inToBasis;
+		}
+
+		return this.dominantIndex(dominantsRow, columns);
+	}
+
+	/*
+	 * Bland's rule : the first column whose variable improves the objective, -1 if there is no such one.
+	 * With artificial variables the IW value decides, and the C'j value where it is zero.
+	 */
+	public int findFirstInToBasis(double[] dominantsRow, double[] artificialRow, int columns) {
+		for(int cI = 0; cI < columns; cI++) {
+			if(artificialRow != null && !this.zero(artificialRow[cI])) {
+				if(this.improving(artificialRow[cI])) {
+					return cI;
+				}
+			}
+			// in two-phase mode the first phase prices the IW row alone
+			else if(!(artificialRow != null && this.twoPhase) && this.improving(dominantsRow[cI])) {
+				return cI;
+			}
+		}
+		return -1;
+	}
+
+	/*
+	 * Column of the dominant improving value of a row, -1 if there is no improving value.
+	 */
+	private int dominantIndex(double[] row, int columns) {
+		if(this.problemType == Simplex.ProblemType.MAXIMUM) {
+			return DoubleKernels.argMin(row, columns, -this.optimalityTolerance);
+		}
+		return DoubleKernels.argMax(row, columns, this.optimalityTolerance);
+	}
+
+}
@@ -0,0 +1,289 @@
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+
+
+/*
+ * Simplex engine that works with primitive doubles on the full simplex matrix.
+ * The big M of the artificial variables is handled numerically by the IW row,
+ * and all the comparisons to zero are done with the given tolerances.
+ */
+public class FloatingPointTableau extends Tableau {
+
+	/*
+	 * The matrix of the simplex calculation.
+	 */
+	private double[][] matrix;
+
+	private double feasibilityTolerance;
+	private double pivotTolerance;
+
+	private FloatingPointPricing pricing;
+
+	/*
+	 * Contiguous copies of the B column and the pivot column for the ratio test,
+	 * and of the basis variables for the ratio test of Bland's rule.
+	 */
+	private double[] bBuffer;
+	private double[] columnBuffer;
+	private int[] orderBuffer;
+
+	public FloatingPointTableau(Rational[][] matrix, ArrayList<Integer> currentBasis, Simplex.ProblemType problemType, Boolean artificialVariablesExists, Integer totalNumberOfVariables, FloatingPointTolerances tolerances, SolveContext context) {
+		super(currentBasis, problemType, artificialVariablesExists, totalNumberOfVariables, context);
+
+		this.matrix = new double[matrix.length][];
+		for(int rI = 0; rI < matrix.length; rI++) {
+			this.matrix[rI] = new double[matrix[rI].length];
+			for(int cI = 0; cI < matrix[rI].length; cI++) {
+				this.matrix[rI][cI] = matrix[rI][cI].doubleValue();
+			}
+		}
+
+		this.feasibilityTolerance = tolerances.getFeasibility();
+		this.pivotTolerance = tolerances.getPivot();
+		this.pricing = new FloatingPointPricing(problemType, tolerances.getOptimality());
+		this.bBuffer = new double[currentBasis.size()];
+		this.columnBuffer = new double[currentBasis.size()];
+		this.orderBuffer = new int[currentBasis.size()];
+	}
+
+	@Override
+	protected Integer rowsCount() {
+		return this.matrix.length;
+	}
+
+	@Override
+	protected String cellString(Integer rI, Integer cI) {
+		return FloatingPointTableau.format(this.snap(this.matrix[rI][cI]));
+	}
+
+	/*
+	 * The rows update doesn't clean round-off residues, so values within the pivot tolerance are printed as zero.
+	 */
+	private double snap(double value) {
+		return (Math.abs(value) <= this.pivotTolerance) ? (0) : (value);
+	}
+
+	/*
+	 * Short representation of a value, in the same shape of the fractions output.
+	 */
+	static String format(double value) {
+		if(value == 0) {
+			return "+0";
+		}
+		String output = new BigDecimal(value).round(new MathContext(10)).stripTrailingZeros().toPlainString();
+		return (value > 0) ? ("+" + output) : (output);
+	}
+
+	@Override
+	public Boolean artificialWeightRemains() {
+		return Math.abs(this.matrix[this.cpjArtificialRowIndex()][this.bColumnIndex()]) > this.feasibilityTolerance;
+	}
+
+	@Override
+	public String toSolutionsString() {
+		StringBuilder sb = new StringBuilder();
+		for(Integer rI = 0; rI < this.currentBasis.size(); rI++) {
+			sb.append("X" + this.context.getOriginalVariable(this.currentBasis.get(rI)) + " = " + FloatingPointTableau.format(this.snap(this.matrix[rI][this.bColumnIndex()])) + "; ");
+		}
+		double z = this.matrix[this.cpjRealRowIndex()][this.bColumnIndex()];
+		sb.append("Z = ");
+		if(this.artificialVariablesExists) {
+			double mz = this.matrix[this.cpjArtificialRowIndex()][this.bColumnIndex()];
+			if(Math.abs(mz) > this.feasibilityTolerance) {
+				sb.append(FloatingPointTableau.format(mz) + "M ");
+			}
+		}
+		sb.append(FloatingPointTableau.format(this.snap(z)));
+		return sb.toString();
+	}
+
+	@Override
+	public Number getBasisValue(Integer rI) {
+		return this.snap(this.matrix[rI][this.bColumnIndex()]);
+	}
+
+	@Override
+	public Number getObjectiveValue() {
+		return this.snap(this.matrix[this.cpjRealRowIndex()][this.bColumnIndex()]);
+	}
+
+	@Override
+	public Boolean notInBaseCoefficientZero() {
+		double[] cpjRealRow = this.matrix[this.cpjRealRowIndex()];
+		double[] cpjArtificialRow = (this.artificialVariablesExists) ? (this.matrix[this.cpjArtificialRowIndex()]) : (null);
+
+		for(int cI = 0; cI < this.totalNumberOfVariables; cI++) {
+			if(!this.currentBasis.contains(cI + 1)) {
+				if(this.pricing.zero(cpjRealRow[cI]) && (cpjArtificialRow == null || this.pricing.zero(cpjArtificialRow[cI])) && !this.stepBlocked(cI)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * Check if a row with zero B (within the feasibility tolerance) has positive entry at given column,
+	 * so the variable can enter only with a zero step.
+	 */
+	private boolean stepBlocked(int cI) {
+		for(int rI = 0; rI < this.currentBasis.size(); rI++) {
+			if(Math.abs(this.matrix[rI][this.bColumnIndex()]) <= this.feasibilityTolerance && this.matrix[rI][cI] > this.pivotTolerance) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public Boolean performSimplexStep() {
+
+		SolveMetrics metrics = this.context.getMetrics();
+		metrics.enter(SolveMetrics.Phase.PRICING);
+		double[] artificialRow = (this.artificialVariablesExists) ? (this.matrix[this.cpjArtificialRowIndex()]) : (null);
+		// against cycling Bland's rule is used in every mode, since the ratio ties are within the tolerance
+		int inToBasis = (this.antiCycling.isActive()) ? (this.pricing.findFirstInToBasis(this.matrix[this.cpjRealRowIndex()], artificialRow, this.totalNumberOfVariables)) : (this.pricing.findInToBasis(this.matrix[this.cpjRealRowIndex()], artificialRow, this.totalNumberOfVariables));
+		metrics.enter(SolveMetrics.Phase.RATIO_TEST);
+		int pivotR = (inToBasis >= 0) ? (this.findOutFromBasisRow(inToBasis)) : (-1);
+		metrics.leave();
+
+		this.dominantAtCpjFound = inToBasis >= 0;
+		this.relevantDivisionFound = pivotR >= 0;
+
+		if(!(this.dominantAtCpjFound && this.relevantDivisionFound)) {
+			return false;
+		}
+
+		this.replace(pivotR, inToBasis);
+		return true;
+	}
+
+	/*
+	 * Perform the basis replacement of a step at given row and column : pivot, count, trace and log it.
+	 */
+	private void replace(int pivotR, int pivotC) {
+
+		SolveMetrics metrics = this.context.getMetrics();
+		double pivot = this.matrix[pivotR][pivotC];
+
+		if(this.context.getLog().isEnabled(SimLog.LogLevel.STEP)) {
+			this.context.getLog().writeln(SimLog.LogLevel.STEP, "Basis replacement : in -> " + this.context.getAlias(pivotC + 1) + ", out -> " + this.context.getAlias(this.currentBasis.get(pivotR)) + ", pivot = " + FloatingPointTableau.format(pivot));
+		}
+
+		boolean degenerate = Math.abs(this.matrix[pivotR][this.bColumnIndex()]) <= this.feasibilityTolerance;
+		metrics.enter(SolveMetrics.Phase.PIVOT_UPDATE);
+
+		double[] pivotRow = this.matrix[pivotR];
+		DoubleKernels.scale(pivotRow, 1 / pivot);
+		pivotRow[pivotC] = 1;
+
+		final double[][] matrix = this.matrix;
+		final double pivotTolerance = this.pivotTolerance;
+		this.elimination.forEachRow(matrix.length, pivotRow.length, (rI) -> {
+			double factor = matrix[rI][pivotC];
+			/*
+			 * Rows with zero (within the pivot tolerance) at the pivot column stay the same.
+			 */
+			if(rI == pivotR || Math.abs(factor) <= pivotTolerance) {
+				matrix[rI][pivotC] = (rI == pivotR) ? (1) : (0);
+				return;
+			}
+			DoubleKernels.axpy(matrix[rI], factor, pivotRow);
+			matrix[rI][pivotC] = 0;
+		});
+
+		Integer outFromBasis = this.currentBasis.set(pivotR, pivotC + 1);
+		metrics.leave();
+		metrics.pivot(pivotC + 1, outFromBasis, pivot, degenerate);
+		this.antiCycling.pivoted(degenerate, metrics);
+
+		if(this.context.getTrace() != null) {
+			double artificialObjective = (this.artificialVariablesExists) ? (this.matrix[this.cpjArtificialRowIndex()][this.bColumnIndex()]) : (0);
+			this.context.getTrace().step(this.context.getOriginalVariable(pivotC + 1), this.context.getOriginalVariable(outFromBasis), pivot, this.matrix[this.cpjRealRowIndex()][this.bColumnIndex()], artificialObjective);
+		}
+
+		this.context.getLog().writeln(SimLog.LogLevel.TRACE, "Performing simplex step. Suitable matrix is now :");
+		this.context.getLog().write(SimLog.LogLevel.TRACE, this::toMatrixString);
+	}
+
+	@Override
+	public void setTwoPhase(Boolean twoPhase) {
+		super.setTwoPhase(twoPhase);
+		this.pricing.setTwoPhase(twoPhase);
+	}
+
+	@Override
+	public void dropArtificialVariables(boolean[] artificialColumns) {
+		boolean[] redundantRows = new boolean[this.currentBasis.size()];
+		for(int rI = 0; rI < this.currentBasis.size(); rI++) {
+			if(!artificialColumns[this.currentBasis.get(rI) - 1]) {
+				continue;
+			}
+			// the largest entry of the non artificial columns at this row is the most stable pivot
+			int inToBasis = -1;
+			for(int cI = 0; cI < this.totalNumberOfVariables; cI++) {
+				if(!artificialColumns[cI] && Math.abs(this.matrix[rI][cI]) > this.pivotTolerance && (inToBasis < 0 || Math.abs(this.matrix[rI][cI]) > Math.abs(this.matrix[rI][inToBasis]))) {
+					inToBasis = cI;
+				}
+			}
+			if(inToBasis >= 0) {
+				this.replace(rI, inToBasis);
+			}
+			else {
+				redundantRows[rI] = true;
+			}
+		}
+
+		int[] columns = this.context.dropVariables(artificialColumns);
+		int columnsCount = 0;
+		for(boolean artificial : artificialColumns) {
+			columnsCount += (artificial) ? (0) : (1);
+		}
+		ArrayList<double[]> rows = new ArrayList<double[]>();
+		ArrayList<Integer> currentBasis = new ArrayList<Integer>();
+		for(int rI = 0; rI <= this.cpjRealRowIndex(); rI++) {
+			if(rI < redundantRows.length && redundantRows[rI]) {
+				continue;
+			}
+			double[] row = new double[columnsCount + 1];
+			for(int cI = 0; cI < this.totalNumberOfVariables; cI++) {
+				if(columns[cI] >= 0) {
+					row[columns[cI]] = this.matrix[rI][cI];
+				}
+			}
+			row[columnsCount] = this.matrix[rI][this.bColumnIndex()];
+			rows.add(row);
+			if(rI < redundantRows.length) {
+				currentBasis.add(columns[this.currentBasis.get(rI) - 1] + 1);
+			}
+		}
+		this.matrix = rows.toArray(new double[rows.size()][]);
+		this.currentBasis.clear();
+		this.currentBasis.addAll(currentBasis);
+		this.totalNumberOfVariables = columnsCount;
+		this.artificialVariablesExists = false;
+		this.bBuffer = new double[currentBasis.size()];
+		this.columnBuffer = new double[currentBasis.size()];
+		this.orderBuffer = new int[currentBasis.size()];
+	}
+
+	/*
+	 * Find the row of the variable that should leave the basis (ratio test), -1 if there is no such one.
+	 */
+	private int findOutFromBasisRow(int inToBasis) {
+		int bColumn = this.bColumnIndex();
+		for(int rI = 0; rI < this.currentBasis.size(); rI++) {
+			this.bBuffer[rI] = this.matrix[rI][bColumn];
+			this.columnBuffer[rI] = this.matrix[rI][inToBasis];
+		}
+		if(this.antiCycling.isActive()) {
+			for(int rI = 0; rI < this.currentBasis.size(); rI++) {
+				this.orderBuffer[rI] = this.currentBasis.get(rI);
+			}
+			return DoubleKernels.blandRatioTest(this.bBuffer, this.columnBuffer, this.currentBasis.size(), this.orderBuffer, this.feasibilityTolerance, this.pivotTolerance);
+		}
+		return DoubleKernels.ratioTest(this.bBuffer, this.columnBuffer, this.currentBasis.size(), this.feasibilityTolerance, this.pivotTolerance);
+	}
+
+}
@@ -0,0 +1,45 @@
+
+
+/*
+ * Tolerances used by the floating point engine when comparing values to zero.
+ */
+public class FloatingPointTolerances {
+
+	/*
+	 * Values of B column above -feasibility are considered non negative.
+	 */
+	private double feasibility;
+
+	/*
+	 * C'j (and IW) values within optimality from zero are not considered as candidates to enter the basis.
+	 */
+	private double optimality;
+
+	/*
+	 * Matrix entries within pivot from zero are never used as pivots.
+	 */
+	private double pivot;
+
+	public FloatingPointTolerances() {
+		this(1e-9, 1e-9, 1e-11);
+	}
+
+	public FloatingPointTolerances(double feasibility, double optimality, double pivot) {
+		this.feasibility = feasibility;
+		this.optimality = optimality;
+		this.pivot = pivot;
+	}
+
+	public double getFeasibility() {
+		return this.feasibility;
+	}
+
+	public double getOptimality() {
+		return this.optimality;
+	}
+
+	public double getPivot() {
+		return this.pivot;
+	}
+
+}
@@ -0,0 +1,302 @@
+import java.math.BigInteger;
+import java.util.ArrayList;
+
+
+/*
+ * Single pass parser of the problem lines :
+ *  objective function - (min|max)z=(num1)x1+(num2)x2+...+(numN)xN
+ *  constraint - (num1)x1+(num2)x2+...+(numN)xN(>|>=|<|<=|=)(num)
+ * The coefficients are collected directly by the variables indices (a repeated variable is summed),
+ * white spaces between the tokens are skipped, and the first error is kept with its character offset.
+ */
+public class LinearExpressionParser {
+
+	/*
+	 * Maximum number of digits that surely fits in long.
+	 */
+	private static final int LONG_DIGITS = 18;
+
+	private String text;
+
+	/*
+	 * Offset of the next character to read.
+	 */
+	private int position;
+
+	/*
+	 * Parse results : the coefficients (index 0 is x1), the bound and the equality type of a constraint,
+	 * and the min/max of an objective function.
+	 */
+	private ArrayList<Rational> coefficients;
+	private Rational bound;
+	private Integer equalityType;
+	private String minMax;
+
+	/*
+	 * Description and character offset of the parse error.
+	 */
+	private String error;
+	private int errorOffset;
+
+	public LinearExpressionParser(String text) {
+		this.text = text;
+		this.position = 0;
+	}
+
+	public ArrayList<Rational> getCoefficients() {
+		return this.coefficients;
+	}
+
+	public Rational getBound() {
+		return this.bound;
+	}
+
+	public Integer getEqualityType() {
+		return this.equalityType;
+	}
+
+	public String getMinMax() {
+		return this.minMax;
+	}
+
+	public int getErrorOffset() {
+		return this.errorOffset;
+	}
+
+	/*
+	 * Error description with its offset, null if the parse succeeded.
+	 */
+	public String getError() {
+		if(this.error == null) {
+			return null;
+		}
+		return this.error + " at offset " + this.errorOffset;
+	}
+
+	/*
+	 * Parse the text as (min|max)z=(num1)x1+(num2)x2+...+(numN)xN.
+	 */
+	public Boolean parseObjectiveFunction() {
+		this.peek();
+		if(this.text.startsWith("max", this.position)) {
+			this.minMax = "max";
+		}
+		else if(this.text.startsWith("min", this.position)) {
+			this.minMax = "min";
+		}
+		else {
+			return this.fail("expected max or min");
+		}
+		this.position += 3;
+		if(this.peek() != 'z') {
+			return this.fail("expected z");
+		}
+		this.position++;
+		if(this.peek() != '=') {
+			return this.fail("expected =");
+		}
+		this.position++;
+		return this.parseTerms() && this.parseEnd();
+	}
+
+	/*
+	 * Parse the text as (num1)x1+(num2)x2+...+(numN)xN(>|>=|<|<=|=)(num).
+	 */
+	public Boolean parseConstraint() {
+		if(!this.parseTerms()) {
+			return false;
+		}
+
+		char c = this.peek();
+		if(c == '>' || c == '<') {
+			this.equalityType = (c == '>') ? (1) : (-1);
+			this.position++;
+			if(this.position < this.text.length() && this.text.charAt(this.position) == '=') {
+				this.position++;
+			}
+		}
+		else if(c == '=') {
+			this.equalityType = 0;
+			this.position++;
+		}
+		else {
+			return this.fail("expected one of >, >=, <, <=, =");
+		}
+
+		c = this.peek();
+		Boolean negative = false;
+		if(c == '+' || c == '-') {
+			negative = (c == '-');
+			this.position++;
+			c = this.peek();
+		}
+		if(!LinearExpressionParser.isDigit(c)) {
+			return this.fail("expected number");
+		}
+		this.bound = this.parseNumber();
+		if(this.bound == null) {
+			return false;
+		}
+		if(negative) {
+			this.bound = this.bound.negative();
+		}
+		return this.parseEnd();
+	}
+
+	/*
+	 * Parse the sum of the terms (num)xN, at least one term is expected.
+	 */
+	private Boolean parseTerms() {
+		this.coefficients = new ArrayList<Rational>();
+		this.coefficients.add(Rational.ZERO);
+
+		Boolean first = true;
+		while(true) {
+			char c = this.peek();
+			Boolean negative = false;
+			if(c == '+' || c == '-') {
+				negative = (c == '-');
+				this.position++;
+				c = this.peek();
+			}
+			else if(!first) {
+				return true;
+			}
+
+			Rational coefficient = Rational.ONE;
+			if(LinearExpressionParser.isDigit(c)) {
+				coefficient = this.parseNumber();
+				if(coefficient == null) {
+					return false;
+				}
+				c = this.peek();
+			}
+			if(c != 'x') {
+				return this.fail("expected x");
+			}
+			this.position++;
+
+			int index = this.parseIndex();
+			if(index < 0) {
+				return false;
+			}
+			if(negative) {
+				coefficient = coefficient.negative();
+			}
+			while(this.coefficients.size() < index) {
+				this.coefficients.add(Rational.ZERO);
+			}
+			this.coefficients.set(index - 1, this.coefficients.get(index - 1).add(coefficient));
+			first = false;
+		}
+	}
+
+	/*
+	 * Parse the variable index right after the x, -1 on error.
+	 */
+	private int parseIndex() {
+		int start = this.position;
+		long index = 0;
+		while(this.position < this.text.length() && LinearExpressionParser.isDigit(this.text.charAt(this.position))) {
+			index = index * 10 + (this.text.charAt(this.position) - '0');
+			if(index > Integer.MAX_VALUE) {
+				this.fail("variable index is too large");
+				return -1;
+			}
+			this.position++;
+		}
+		if(this.position == start) {
+			this.fail("expected variable index");
+			return -1;
+		}
+		if(index == 0) {
+			this.errorOffset = start;
+			this.error = "variable index must be positive";
+			return -1;
+		}
+		return (int)index;
+	}
+
+	/*
+	 * Parse unsigned number or fraction (digits[/digits]), null on error.
+	 */
+	private Rational parseNumber() {
+		int pStart = this.position;
+		int pEnd = this.skipDigits();
+		if(this.position < this.text.length() && this.text.charAt(this.position) == '/') {
+			this.position++;
+			int qStart = this.position;
+			int qEnd = this.skipDigits();
+			if(qEnd == qStart) {
+				this.fail("expected denominator");
+				return null;
+			}
+			if(pEnd - pStart <= LinearExpressionParser.LONG_DIGITS && qEnd - qStart <= LinearExpressionParser.LONG_DIGITS) {
+				long q = this.longValue(qStart, qEnd);
+				if(q == 0) {
+					this.errorOffset = qStart;
+					this.error = "zero denominator";
+					return null;
+				}
+				return new Rational(this.longValue(pStart, pEnd), q);
+			}
+			BigInteger q = new BigInteger(this.text.substring(qStart, qEnd));
+			if(q.signum() == 0) {
+				this.errorOffset = qStart;
+				this.error = "zero denominator";
+				return null;
+			}
+			return new Rational(new BigInteger(this.text.substring(pStart, pEnd)), q);
+		}
+		if(pEnd - pStart <= LinearExpressionParser.LONG_DIGITS) {
+			return new Rational(this.longValue(pStart, pEnd));
+		}
+		return new Rational(new BigInteger(this.text.substring(pStart, pEnd)), BigInteger.ONE);
+	}
+
+	/*
+	 * Move the position over a digits sequence and return its end.
+	 */
+	private int skipDigits() {
+		while(this.position < this.text.length() && LinearExpressionParser.isDigit(this.text.charAt(this.position))) {
+			this.position++;
+		}
+		return this.position;
+	}
+
+	private long longValue(int start, int end) {
+		long value = 0;
+		for(int i = start; i < end; i++) {
+			value = value * 10 + (this.text.charAt(i) - '0');
+		}
+		return value;
+	}
+
+	private Boolean parseEnd() {
+		if(this.peek() != 0) {
+			return this.fail("unexpected character '" + this.text.charAt(this.position) + "'");
+		}
+		return true;
+	}
+
+	/*
+	 * Skip white spaces and return the next character (0 at the end of the text).
+	 */
+	private char peek() {
+		while(this.position < this.text.length() && Character.isWhitespace(this.text.charAt(this.position))) {
+			this.position++;
+		}
+		return (this.position < this.text.length()) ? (this.text.charAt(this.position)) : (0);
+	}
+
+	private Boolean fail(String error) {
+		this.error = error;
+		this.errorOffset = this.position;
+		return false;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+}
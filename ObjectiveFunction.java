@@ -1,38 +1,71 @@
 import java.util.ArrayList;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.HashMap;
 
 
 public class ObjectiveFunction {
 
-	enum ObjectiveFunctionParseSteps {
-		CHECK_VALID_CHARACTERS,
-		SPLIT_AROUND_EQUALITY_SYMBOL,
-		CHECK_LEFT_SIDE_VALID_CHARACTERS,
-		CHECK_RIGHT_SIDE_VALID_CHARACTERS,
-		PARSE_LEFT_SIDE,
-		PARSE_RIGHT_SIDE,
-		FINISH_STEPS
-	}
-
-	private String[] splittedStringsAroundEqualitySign;
-
-
 	private String objectiveFunctionStr;
 
-	private ArrayList<Rational> rightSideCoefficients;
+	/*
+	 * The coefficients, the artificial variables have M coefficients.
+	 */
+	private ArrayList<BigMNumber> rightSideCoefficients;
 
 	private String minMaxStr;
 
 	private Boolean validAtCurrentTime;
 
+	private String parseError;
+
 	public ObjectiveFunction(String objectiveFunctionStr) {
 
-		this.validAtCurrentTime = this.stateMachineParser(objectiveFunctionStr);
+		ParseEvent event = new ParseEvent();
+		event.begin();
+		this.objectiveFunctionStr = objectiveFunctionStr;
+		LinearExpressionParser parser = new LinearExpressionParser(objectiveFunctionStr);
+		this.validAtCurrentTime = parser.parseObjectiveFunction();
+		if(this.validAtCurrentTime) {
+			this.rightSideCoefficients = ObjectiveFunction.toBigM(parser.getCoefficients());
+			this.minMaxStr = parser.getMinMax();
+		}
+		else {
+			this.parseError = parser.getError();
+		}
+		event.commit("objective function", objectiveFunctionStr, parser);
 
 	}
 
-	public ArrayList<Rational> getCoefficients() {
+	/*
+	 * Objective function of given coefficients and min/max string (e.g. built by presolve).
+	 */
+	ObjectiveFunction(ArrayList<Rational> coefficients, String minMaxStr) {
+		this.rightSideCoefficients = ObjectiveFunction.toBigM(coefficients);
+		this.minMaxStr = minMaxStr;
+		this.validAtCurrentTime = true;
+		this.parseError = null;
+		this.objectiveFunctionStr = minMaxStr + " " + this.toString();
+	}
+
+	private static ArrayList<BigMNumber> toBigM(ArrayList<Rational> coefficients) {
+		ArrayList<BigMNumber> result = new ArrayList<BigMNumber>(coefficients.size());
+		for(Rational r : coefficients) {
+			result.add(BigMNumber.valueOf(r));
+		}
+		return result;
+	}
+
+	/*
+	 * Copy of given objective function, with its own coefficients list.
+	 */
+	public ObjectiveFunction(ObjectiveFunction other) {
+		this.objectiveFunctionStr = other.objectiveFunctionStr;
+		this.rightSideCoefficients = (other.rightSideCoefficients != null) ? (new ArrayList<BigMNumber>(other.rightSideCoefficients)) : (null);
+		this.minMaxStr = other.minMaxStr;
+		this.validAtCurrentTime = other.validAtCurrentTime;
+		this.parseError = other.parseError;
+	}
+
+	public ArrayList<BigMNumber> getCoefficients() {
 		return this.rightSideCoefficients;
 	}
 
@@ -48,6 +81,13 @@ public class ObjectiveFunction {
 		return this.validAtCurrentTime;
 	}
 
+	/*
+	 * Parse error description with its character offset, null for valid objective function.
+	 */
+	public String getParseError() {
+		return this.parseError;
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		Boolean result = false;
@@ -57,225 +97,41 @@ public class ObjectiveFunction {
 		return result;
 	}
 
-	private Boolean stateMachineParser(String objFuncStr) {
-
-		SimLog.writeln("Start parsing " + objFuncStr + "... ");
-
-		this.objectiveFunctionStr = objFuncStr;
-
-		ObjectiveFunctionParseSteps currentStep = ObjectiveFunctionParseSteps.CHECK_VALID_CHARACTERS;
-		Boolean done = false;
-		Boolean result = false;
-
-		while(!done) {
-
-			switch(currentStep) {
-			case CHECK_LEFT_SIDE_VALID_CHARACTERS:
-				result = this.checkLeftSideValidCharacters();
-				currentStep = (result) ? (ObjectiveFunctionParseSteps.CHECK_RIGHT_SIDE_VALID_CHARACTERS) : (ObjectiveFunctionParseSteps.FINISH_STEPS);
-				break;
-			case CHECK_RIGHT_SIDE_VALID_CHARACTERS:
-				result = this.checkRightSideValidCharacters();
-				currentStep = (result) ? (ObjectiveFunctionParseSteps.PARSE_LEFT_SIDE) : (ObjectiveFunctionParseSteps.FINISH_STEPS);
-				break;
-			case CHECK_VALID_CHARACTERS:
-				result = this.checkValidCharacters();
-				currentStep = (result) ? (ObjectiveFunctionParseSteps.SPLIT_AROUND_EQUALITY_SYMBOL) : (ObjectiveFunctionParseSteps.FINISH_STEPS);
-				break;
-			case PARSE_LEFT_SIDE:
-				result = this.checkPatternAndParseLeftSide();
-				currentStep = (result) ? (ObjectiveFunctionParseSteps.PARSE_RIGHT_SIDE) : (ObjectiveFunctionParseSteps.FINISH_STEPS);
-				break;
-			case PARSE_RIGHT_SIDE:
-				result = this.checkPatternAndParseRightSide();
-				currentStep = ObjectiveFunctionParseSteps.FINISH_STEPS;
-				break;
-			case SPLIT_AROUND_EQUALITY_SYMBOL:
-				result = this.splitAroundEqualitySymbol();
-				currentStep = (result) ? (ObjectiveFunctionParseSteps.CHECK_LEFT_SIDE_VALID_CHARACTERS) : (ObjectiveFunctionParseSteps.FINISH_STEPS);
-				break;
-			case FINISH_STEPS:
-				done = true;
-				break;
-			}
-
-		}
-		this.splittedStringsAroundEqualitySign = null;
-
-		SimLog.writeln("Done parsing " + objFuncStr + "... " + ((result) ? ("pass") : ("fail")) + ".");
-
-		return result;
-	}
-
-
-
-	private Boolean checkValidCharacters() {
-		Boolean result = false;
-		SimLog.write("Check if the objective function contains only the valid characters... ");
-		Matcher matcher = Pattern.compile("[^x+-><=\\d/zmaxin]").matcher(this.objectiveFunctionStr);
-		if(!matcher.find()) {
-			result = true;
-			SimLog.writeln("pass.");
-		}
-		else {
-			SimLog.writeln("fail.");
-		}
-		return result;
-	}
-
-	private Boolean splitAroundEqualitySymbol() {
-		Boolean result = false;
-		SimLog.write("Splitting the objective function around the equality symbol... ");
-		this.splittedStringsAroundEqualitySign = this.objectiveFunctionStr.split("=");
-		if(this.splittedStringsAroundEqualitySign.length == 2) {
-			result = true;
-			SimLog.writeln(" pass.");
-			SimLog.write("Splitted parts are : ");
-			for(String s : this.splittedStringsAroundEqualitySign) {
-				SimLog.write(s + " ");
-			}
-			SimLog.writeln(" .");
-		}
-		else {
-			SimLog.writeln("fail.");
-		}
-		return result;
-	}
-
-	private Boolean checkLeftSideValidCharacters() {
-		Boolean result = false;
-		SimLog.write("Check characters validity of left side... ");
-		Matcher matcher = Pattern.compile("[^maxinz]").matcher(this.splittedStringsAroundEqualitySign[0]);
-		if(!matcher.find()) {
-			result = true;
-			SimLog.writeln("pass.");
-		}
-		else {
-			SimLog.writeln("fail.");
-		}
-		return result;
-	}
-
-	private Boolean checkRightSideValidCharacters() {
-		Boolean result = false;
-		SimLog.write("Check characters validity of right side... ");
-		Matcher matcher = Pattern.compile("[^x+-><=\\d/]").matcher(this.splittedStringsAroundEqualitySign[1]);
-		if(!matcher.find()) {
-			result = true;
-			SimLog.writeln("pass.");
-		}
-		else {
-			SimLog.writeln("fail.");
-		}
-		return result;
+	@Override
+	public String toString() {
+		return this.toString(null);
 	}
 
-	private Boolean checkPatternAndParseLeftSide() {
-		Boolean result = false;
-		SimLog.write("Check pattern of the objective function left side... ");
-		Matcher matcher = Pattern.compile("(max|min)z").matcher(this.splittedStringsAroundEqualitySign[0]);
-		if(matcher.find()) {
-			result = true;
-			SimLog.writeln("pass.");
-			SimLog.write("Parsing the objective function left side... ");
-			if(this.splittedStringsAroundEqualitySign[0].contains("max")) {
-				this.minMaxStr = "max";
+	/*
+	 * String representation with given variables aliases, or with X1..XN when the aliases are null.
+	 */
+	public String toString(HashMap<Integer, String> variablesAliases) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Z = ");
+		Integer counter = 1;
+		for(BigMNumber d : this.rightSideCoefficients) {
+			String alias = (variablesAliases != null) ? (variablesAliases.get(counter)) : ("X" + counter);
+			if(!d.isReal()) {
+				sb.append(" " + ObjectiveFunction.mString(d.getM()) + alias);
 			}
-			else if(this.splittedStringsAroundEqualitySign[0].contains("min")) {
-				this.minMaxStr = "min";
+			if(!d.getReal().isZero()) {
+				sb.append(" " + d.getReal() + alias);
 			}
-			SimLog.writeln("done.");
-		}
-		else {
-			SimLog.writeln("fail.");
+			counter++;
 		}
-		return result;
+		return sb.toString();
 	}
 
-	private Boolean checkPatternAndParseRightSide() {
-		Boolean result = false;
-		SimLog.write("Check pattern of the objective function right side... ");
-		Matcher matcher = Pattern.compile("([+-]?\\d*?/?\\d*?x\\d+)*").matcher(this.splittedStringsAroundEqualitySign[1]);
-		if(matcher.find()) {
-			result = true;
-			SimLog.writeln("pass.");
-
-			SimLog.writeln("Parsing each one of the right side components... ");
-			matcher = Pattern.compile("[+-]?\\d*?/?\\d*?x\\d+").matcher(this.splittedStringsAroundEqualitySign[1]);
-			this.rightSideCoefficients = new ArrayList<Rational>();
-			this.rightSideCoefficients.add(new Rational(0));
-			while(matcher.find()) {
-				String comp = matcher.group();
-				SimLog.write("Parsing " + comp + " ... ");
-				Rational coeff = null;
-				if(comp.charAt(0) == 'x' || comp.substring(0, 2).equals("+x")) {
-					coeff = new Rational(1);
-				}
-				else if(comp.substring(0, 2).equals("-x")) {
-					coeff = new Rational(-1);
-				}
-				else {
-					coeff = Rational.parseRational(comp.substring(0, comp.indexOf('x')));
-				}
-				Integer compIndex = Integer.parseInt(comp.substring(comp.indexOf('x') + 1)) - 1;
-
-				Integer spare = compIndex - this.rightSideCoefficients.size() + 1;
-				for(Integer i = 0; i < spare; i++) {
-					this.rightSideCoefficients.add(new Rational(0));
-				}
-				this.rightSideCoefficients.set(this.rightSideCoefficients.size() - 1, coeff);
-
-				SimLog.writeln("done.");
-			}
-			SimLog.writeln("Parsing right side components pass.");
+	/*
+	 * M coefficient string, +M and -M for units.
+	 */
+	private static String mString(Rational m) {
+		if(m.equals(Rational.ONE)) {
+			return "+M";
 		}
-		else {
-			SimLog.writeln("fail.");
-		}
-		return result;
-	}
-
-	@Override
-	public String toString() {
-		if(Simplex.getConstraintsProcessed()) {
-			StringBuilder sb = new StringBuilder();
-			sb.append("Z = ");
-			Integer counter = 1;
-			for(Rational d : this.rightSideCoefficients) {
-				if(d.equals(Rational.infinity())) {
-					sb.append(" +M" + Simplex.getAliases().get(counter));
-				}
-				else if(d.equals(Rational.infinity().negative())) {
-					sb.append(" -M" + Simplex.getAliases().get(counter));
-				}
-				else {
-					if(!d.equals(new Rational(0))) {
-						sb.append(" " + d + Simplex.getAliases().get(counter));
-					}
-				}
-				counter++;
-			}
-			return sb.toString();
-		}
-		else {
-			StringBuilder sb = new StringBuilder();
-			sb.append("Z = ");
-			Integer counter = 1;
-			for(Rational d : this.rightSideCoefficients) {
-				if(d.equals(Rational.infinity())) {
-					sb.append(" +MX" + counter);
-				}
-				else if(d.equals(Rational.infinity().negative())) {
-					sb.append(" -MX" + counter);
-				}
-				else {
-					if(!d.equals(new Rational(0))) {
-						sb.append(" " + d + "X" + counter);
-					}
-				}
-				counter++;
-			}
-			return sb.toString();
+		else if(m.equals(Rational.ONE.negative())) {
+			return "-M";
 		}
+		return m + "M";
 	}
 }
@@ -0,0 +1,116 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/*
+ * Runner of the row updates of a pivot step.
+ * After the pivot row is normalized, each one of the other rows is updated independently,
+ * so big enough matrices have their rows partitioned across a ForkJoinPool.
+ * Smaller matrices (rows * row length below the threshold) are updated serially.
+ */
+public class ParallelElimination implements AutoCloseable {
+
+	/*
+	 * Default minimum number of matrix entries for parallel update.
+	 */
+	public static final long DEFAULT_THRESHOLD = 1 << 16;
+
+	/*
+	 * Runner that always updates the rows serially.
+	 */
+	public static final ParallelElimination SERIAL = new ParallelElimination(null, Long.MAX_VALUE);
+
+	/*
+	 * Update of a single row.
+	 */
+	public interface RowUpdate {
+		void update(int rI);
+	}
+
+	private ForkJoinPool pool;
+
+	/*
+	 * Indication that the pool was created by the runner (and is shut down on close).
+	 */
+	private Boolean ownPool;
+
+	private long threshold;
+
+	/*
+	 * Runner with its own pool of given parallelism.
+	 */
+	public ParallelElimination(int parallelism, long threshold) {
+		this(new ForkJoinPool(parallelism), threshold);
+		this.ownPool = true;
+	}
+
+	/*
+	 * Runner on given pool (can be shared by several solvers), which is not shut down on close.
+	 */
+	public ParallelElimination(ForkJoinPool pool, long threshold) {
+		this.pool = pool;
+		this.ownPool = false;
+		this.threshold = threshold;
+	}
+
+	public int getParallelism() {
+		return (this.pool == null) ? (1) : (this.pool.getParallelism());
+	}
+
+	/*
+	 * Perform the update on the rows [0, rows), each row holds rowLength entries.
+	 */
+	public void forEachRow(int rows, int rowLength, RowUpdate update) {
+		if(this.pool == null || (long)rows * rowLength < this.threshold) {
+			for(int rI = 0; rI < rows; rI++) {
+				update.update(rI);
+			}
+		}
+		else {
+			// few partitions per worker, so busy workers can steal from the others
+			int grain = Math.max(1, rows / (this.pool.getParallelism() * 4));
+			this.pool.invoke(new RowsTask(0, rows, grain, update));
+		}
+	}
+
+	@Override
+	public void close() {
+		if(this.ownPool) {
+			this.pool.shutdown();
+		}
+	}
+
+	/*
+	 * Task of rows range, split until the range is small enough.
+	 */
+	private static class RowsTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private int from;
+		private int to;
+		private int grain;
+		private RowUpdate update;
+
+		RowsTask(int from, int to, int grain, RowUpdate update) {
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+			this.update = update;
+		}
+
+		@Override
+		protected void compute() {
+			if(this.to - this.from <= this.grain) {
+				for(int rI = this.from; rI < this.to; rI++) {
+					this.update.update(rI);
+				}
+			}
+			else {
+				int middle = (this.from + this.to) >>> 1;
+				RecursiveAction.invokeAll(new RowsTask(this.from, middle, this.grain, this.update), new RowsTask(middle, this.to, this.grain, this.update));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,49 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+
+/*
+ * Flight recorder event of parsing a constraint or an objective function line.
+ * The default threshold keeps only slow parses, lower it for every parse (simplex.Parse#threshold=0 ms).
+ */
+@Name("simplex.Parse")
+@Label("Simplex Parse")
+@Category({ "Simplex" })
+@Description("Parse of a constraint or objective function")
+@Threshold("1 ms")
+@StackTrace(false)
+public class ParseEvent extends Event {
+
+	@Label("Kind")
+	String kind;
+
+	@Label("Length")
+	@Description("Number of characters of the parsed text")
+	int length;
+
+	@Label("Terms")
+	@Description("Number of variables of the parsed expression")
+	int terms;
+
+	@Label("Error")
+	String error;
+
+	/*
+	 * Commit the event (if enabled and over its threshold) with the parse details.
+	 */
+	void commit(String kind, String text, LinearExpressionParser parser) {
+		if(this.shouldCommit()) {
+			this.kind = kind;
+			this.length = (text != null) ? (text.length()) : (0);
+			this.terms = (parser.getCoefficients() != null) ? (parser.getCoefficients().size()) : (0);
+			this.error = parser.getError();
+			this.commit();
+		}
+	}
+
+}
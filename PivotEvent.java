@@ -0,0 +1,55 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+
+/*
+ * Flight recorder event of a single simplex step that replaced a basis variable,
+ * its duration includes the pricing, the ratio test and the pivot update.
+ * The default threshold keeps only slow steps, lower it for every step (simplex.Pivot#threshold=0 ms).
+ */
+@Name("simplex.Pivot")
+@Label("Simplex Pivot")
+@Category({ "Simplex" })
+@Description("Simplex step with its basis replacement")
+@Threshold("10 ms")
+@StackTrace(false)
+public class PivotEvent extends Event {
+
+	@Label("Step")
+	long step;
+
+	@Label("Entering Variable")
+	@Description("1 based index of the variable that entered the basis")
+	int entering;
+
+	@Label("Leaving Variable")
+	@Description("1 based index of the variable that left the basis")
+	int leaving;
+
+	@Label("Pivot Magnitude")
+	double pivot;
+
+	@Label("Degenerate")
+	@Description("The pivot row had zero B, so the objective didn't change")
+	boolean degenerate;
+
+	/*
+	 * Commit the event (if enabled and over its threshold) with the last pivot of the metrics.
+	 */
+	void commit(SolveMetrics metrics) {
+		if(this.shouldCommit()) {
+			this.step = metrics.getPivots();
+			this.entering = metrics.getLastEntering();
+			this.leaving = metrics.getLastLeaving();
+			this.pivot = metrics.getLastPivotMagnitude();
+			this.degenerate = metrics.getLastPivotDegenerate();
+			this.commit();
+		}
+	}
+
+}
@@ -0,0 +1,247 @@
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+
+/*
+ * Binary trace of a solve : the initial simplex matrix, and for each step only
+ * the entering/leaving variables, the pivot value and the objective (real and big M parts).
+ * Any intermediate matrix can be rebuilt from the trace by PivotTraceReplay.
+ *
+ * Layout (integers are variable length, signed ones zigzag encoded) :
+ *  header - magic, version, problem type, artificial variables indication, number of variables, number of rows,
+ *           aliases (count, then index and alias), basis (count, then variables),
+ *           matrix rows (count of non zero cells, then column and value of each).
+ *  step - STEP tag, entering variable, leaving variable, pivot, objective, artificial objective.
+ *  end - END tag, solution type.
+ * Values are exact fractions (long or BigInteger components) or doubles (floating point engines).
+ */
+public class PivotTrace implements AutoCloseable {
+
+	static final int MAGIC = 0x53505854;
+	static final int VERSION = 1;
+
+	static final int STEP = 1;
+	static final int END = 2;
+
+	static final int VALUE_LONG = 0;
+	static final int VALUE_BIG = 1;
+	static final int VALUE_DOUBLE = 2;
+
+	private DataOutputStream out;
+
+	private int steps;
+
+	/*
+	 * The first write failure, the solve isn't interrupted by the trace.
+	 */
+	private IOException failure;
+
+	public PivotTrace(OutputStream out) {
+		this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+		this.steps = 0;
+	}
+
+	/*
+	 * Trace to a new file.
+	 */
+	public static PivotTrace toFile(Path file) throws IOException {
+		return new PivotTrace(Files.newOutputStream(file));
+	}
+
+	public int getStepsCount() {
+		return this.steps;
+	}
+
+	public IOException getFailure() {
+		return this.failure;
+	}
+
+	/*
+	 * Write the header with the initial simplex matrix (the matrix rows are constraints, C'j row and IW row).
+	 */
+	public void begin(Simplex.ProblemType problemType, Boolean artificialVariablesExists, Integer totalNumberOfVariables, HashMap<Integer, String> variablesAliases, ArrayList<Integer> currentBasis, Rational[][] matrix) {
+		try {
+			this.out.writeInt(PivotTrace.MAGIC);
+			PivotTrace.writeUnsigned(this.out, PivotTrace.VERSION);
+			PivotTrace.writeUnsigned(this.out, problemType.ordinal());
+			this.out.writeBoolean(artificialVariablesExists);
+			PivotTrace.writeUnsigned(this.out, totalNumberOfVariables);
+			PivotTrace.writeUnsigned(this.out, matrix.length);
+
+			PivotTrace.writeUnsigned(this.out, variablesAliases.size());
+			for(Integer variable : variablesAliases.keySet()) {
+				PivotTrace.writeUnsigned(this.out, variable);
+				this.out.writeUTF(variablesAliases.get(variable));
+			}
+
+			PivotTrace.writeUnsigned(this.out, currentBasis.size());
+			for(Integer variable : currentBasis) {
+				PivotTrace.writeUnsigned(this.out, variable);
+			}
+
+			for(Rational[] row : matrix) {
+				int nonZeros = 0;
+				for(Rational value : row) {
+					if(!value.isZero()) {
+						nonZeros++;
+					}
+				}
+				PivotTrace.writeUnsigned(this.out, nonZeros);
+				for(int cI = 0; cI < row.length; cI++) {
+					if(!row[cI].isZero()) {
+						PivotTrace.writeUnsigned(this.out, cI);
+						PivotTrace.writeRational(this.out, row[cI]);
+					}
+				}
+			}
+		}
+		catch(IOException e) {
+			this.fail(e);
+		}
+	}
+
+	/*
+	 * Write step of the exact engines, the variables are 1 based.
+	 */
+	public void step(Integer entering, Integer leaving, Rational pivot, Rational objective, Rational artificialObjective) {
+		try {
+			this.writeStepHeader(entering, leaving);
+			PivotTrace.writeRational(this.out, pivot);
+			PivotTrace.writeRational(this.out, objective);
+			PivotTrace.writeRational(this.out, artificialObjective);
+		}
+		catch(IOException e) {
+			this.fail(e);
+		}
+	}
+
+	/*
+	 * Write step of the floating point engines, the variables are 1 based.
+	 */
+	public void step(Integer entering, Integer leaving, double pivot, double objective, double artificialObjective) {
+		try {
+			this.writeStepHeader(entering, leaving);
+			PivotTrace.writeDouble(this.out, pivot);
+			PivotTrace.writeDouble(this.out, objective);
+			PivotTrace.writeDouble(this.out, artificialObjective);
+		}
+		catch(IOException e) {
+			this.fail(e);
+		}
+	}
+
+	private void writeStepHeader(Integer entering, Integer leaving) throws IOException {
+		this.out.writeByte(PivotTrace.STEP);
+		PivotTrace.writeUnsigned(this.out, entering);
+		PivotTrace.writeUnsigned(this.out, leaving);
+		this.steps++;
+	}
+
+	public void end(Simplex.SolutionType solutionType) {
+		try {
+			this.out.writeByte(PivotTrace.END);
+			PivotTrace.writeUnsigned(this.out, solutionType.ordinal());
+			this.out.flush();
+		}
+		catch(IOException e) {
+			this.fail(e);
+		}
+	}
+
+	private void fail(IOException e) {
+		if(this.failure == null) {
+			this.failure = e;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.out.close();
+		if(this.failure != null) {
+			throw this.failure;
+		}
+	}
+
+	static void writeUnsigned(DataOutputStream out, long value) throws IOException {
+		while((value & ~0x7FL) != 0) {
+			out.writeByte((int)((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.writeByte((int)value);
+	}
+
+	static long readUnsigned(DataInputStream in) throws IOException {
+		long value = 0;
+		for(int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long)(b & 0x7F) << shift;
+			if((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed variable length integer");
+	}
+
+	static void writeSigned(DataOutputStream out, long value) throws IOException {
+		PivotTrace.writeUnsigned(out, (value << 1) ^ (value >> 63));
+	}
+
+	static long readSigned(DataInputStream in) throws IOException {
+		long value = PivotTrace.readUnsigned(in);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	static void writeRational(DataOutputStream out, Rational value) throws IOException {
+		if(value.isLong()) {
+			out.writeByte(PivotTrace.VALUE_LONG);
+			PivotTrace.writeSigned(out, value.longNumerator());
+			PivotTrace.writeUnsigned(out, value.longDenominator());
+		}
+		else {
+			out.writeByte(PivotTrace.VALUE_BIG);
+			byte[] p = value.getNumerator().toByteArray();
+			byte[] q = value.getDenominator().toByteArray();
+			PivotTrace.writeUnsigned(out, p.length);
+			out.write(p);
+			PivotTrace.writeUnsigned(out, q.length);
+			out.write(q);
+		}
+	}
+
+	static void writeDouble(DataOutputStream out, double value) throws IOException {
+		out.writeByte(PivotTrace.VALUE_DOUBLE);
+		out.writeDouble(value);
+	}
+
+	/*
+	 * Read value written by writeRational or writeDouble, as Rational or Double.
+	 */
+	static Object readValue(DataInputStream in) throws IOException {
+		int type = in.readUnsignedByte();
+		if(type == PivotTrace.VALUE_LONG) {
+			long p = PivotTrace.readSigned(in);
+			long q = PivotTrace.readUnsigned(in);
+			return new Rational(p, q);
+		}
+		if(type == PivotTrace.VALUE_BIG) {
+			byte[] p = new byte[(int)PivotTrace.readUnsigned(in)];
+			in.readFully(p);
+			byte[] q = new byte[(int)PivotTrace.readUnsigned(in)];
+			in.readFully(q);
+			return new Rational(new BigInteger(p), new BigInteger(q));
+		}
+		if(type == PivotTrace.VALUE_DOUBLE) {
+			return in.readDouble();
+		}
+		throw new IOException("Unknown value type " + type);
+	}
+
+}
@@ -0,0 +1,196 @@
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+
+/*
+ * Offline reader of a binary pivot trace (see PivotTrace).
+ * Rebuilds the simplex matrix of any step by replaying the recorded pivots on the initial matrix with exact fractions,
+ * and renders it in the text layout of the solve log.
+ *
+ * Usage : PivotTraceReplay <trace file> [step | all]
+ *  without step - list of the steps and the solution type.
+ *  step - the matrix after given step (0 is the initial matrix).
+ *  all - the matrix after each one of the steps.
+ */
+public class PivotTraceReplay {
+
+	private Simplex.ProblemType problemType;
+	private Boolean artificialVariablesExists;
+	private Integer totalNumberOfVariables;
+	private HashMap<Integer, String> variablesAliases;
+	private ArrayList<Integer> initialBasis;
+	private Rational[][] initialMatrix;
+
+	/*
+	 * The recorded steps : entering and leaving variables, pivot and objectives (Rational or Double).
+	 */
+	private ArrayList<int[]> replacements;
+	private ArrayList<Object[]> values;
+
+	/*
+	 * The solution type at the end of the trace, null if the trace was cut.
+	 */
+	private Simplex.SolutionType solutionType;
+
+	public PivotTraceReplay(InputStream input) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(input, 1 << 16));
+		if(in.readInt() != PivotTrace.MAGIC) {
+			throw new IOException("Not a pivot trace");
+		}
+		long version = PivotTrace.readUnsigned(in);
+		if(version != PivotTrace.VERSION) {
+			throw new IOException("Unsupported pivot trace version " + version);
+		}
+		this.problemType = Simplex.ProblemType.values()[(int)PivotTrace.readUnsigned(in)];
+		this.artificialVariablesExists = in.readBoolean();
+		this.totalNumberOfVariables = (int)PivotTrace.readUnsigned(in);
+		int rows = (int)PivotTrace.readUnsigned(in);
+
+		this.variablesAliases = new HashMap<Integer, String>();
+		int aliases = (int)PivotTrace.readUnsigned(in);
+		for(int i = 0; i < aliases; i++) {
+			int variable = (int)PivotTrace.readUnsigned(in);
+			this.variablesAliases.put(variable, in.readUTF());
+		}
+
+		this.initialBasis = new ArrayList<Integer>();
+		int basisSize = (int)PivotTrace.readUnsigned(in);
+		for(int i = 0; i < basisSize; i++) {
+			this.initialBasis.add((int)PivotTrace.readUnsigned(in));
+		}
+
+		this.initialMatrix = new Rational[rows][];
+		for(int rI = 0; rI < rows; rI++) {
+			this.initialMatrix[rI] = new Rational[this.totalNumberOfVariables + 1];
+			for(int cI = 0; cI < this.initialMatrix[rI].length; cI++) {
+				this.initialMatrix[rI][cI] = Rational.ZERO;
+			}
+			int nonZeros = (int)PivotTrace.readUnsigned(in);
+			for(int k = 0; k < nonZeros; k++) {
+				int cI = (int)PivotTrace.readUnsigned(in);
+				this.initialMatrix[rI][cI] = (Rational)PivotTrace.readValue(in);
+			}
+		}
+
+		this.replacements = new ArrayList<int[]>();
+		this.values = new ArrayList<Object[]>();
+		int tag;
+		while((tag = in.read()) != -1) {
+			if(tag == PivotTrace.STEP) {
+				int entering = (int)PivotTrace.readUnsigned(in);
+				int leaving = (int)PivotTrace.readUnsigned(in);
+				this.replacements.add(new int[] { entering, leaving });
+				this.values.add(new Object[] { PivotTrace.readValue(in), PivotTrace.readValue(in), PivotTrace.readValue(in) });
+			}
+			else if(tag == PivotTrace.END) {
+				this.solutionType = Simplex.SolutionType.values()[(int)PivotTrace.readUnsigned(in)];
+				break;
+			}
+			else {
+				throw new IOException("Unknown record tag " + tag);
+			}
+		}
+	}
+
+	public int getStepsCount() {
+		return this.replacements.size();
+	}
+
+	public Simplex.SolutionType getSolutionType() {
+		return this.solutionType;
+	}
+
+	/*
+	 * The exact engine at the initial matrix, on copies of the trace data.
+	 */
+	private RationalTableau initialTableau() {
+		Rational[][] matrix = new Rational[this.initialMatrix.length][];
+		for(int rI = 0; rI < matrix.length; rI++) {
+			matrix[rI] = this.initialMatrix[rI].clone();
+		}
+		SolveContext context = new SolveContext(SimLog.discarding());
+		context.getAliases().putAll(this.variablesAliases);
+		context.setConstraintsProcessed(true);
+		return new RationalTableau(matrix, new ArrayList<Integer>(this.initialBasis), this.problemType, this.artificialVariablesExists, this.totalNumberOfVariables, context);
+	}
+
+	/*
+	 * The matrix after given number of steps.
+	 */
+	public RationalTableau tableauAt(int step) {
+		if(step < 0 || step > this.getStepsCount()) {
+			throw new IllegalArgumentException("Step " + step + " is out of [0, " + this.getStepsCount() + "]");
+		}
+		RationalTableau tableau = this.initialTableau();
+		for(int sI = 0; sI < step; sI++) {
+			tableau.pivot(this.replacements.get(sI)[0], this.replacements.get(sI)[1]);
+		}
+		return tableau;
+	}
+
+	/*
+	 * Description of given (1 based) step as it is written in the solve log.
+	 */
+	public String stepString(int step) {
+		int[] replacement = this.replacements.get(step - 1);
+		Object[] stepValues = this.values.get(step - 1);
+		StringBuilder sb = new StringBuilder();
+		sb.append("Step " + step + " : in -> " + this.variablesAliases.get(replacement[0]) + ", out -> " + this.variablesAliases.get(replacement[1]));
+		sb.append(", pivot = " + PivotTraceReplay.valueString(stepValues[0]) + ", Z = ");
+		if(this.artificialVariablesExists && !PivotTraceReplay.isZero(stepValues[2])) {
+			sb.append(PivotTraceReplay.valueString(stepValues[2]) + "M ");
+		}
+		sb.append(PivotTraceReplay.valueString(stepValues[1]));
+		return sb.toString();
+	}
+
+	private static String valueString(Object value) {
+		return (value instanceof Double) ? (FloatingPointTableau.format((Double)value)) : (value.toString());
+	}
+
+	private static boolean isZero(Object value) {
+		return (value instanceof Double) ? ((Double)value == 0) : (((Rational)value).isZero());
+	}
+
+	public static void main(String[] args) throws IOException {
+		if(args.length < 1) {
+			System.out.println("Usage : PivotTraceReplay <trace file> [step | all]");
+			return;
+		}
+		PivotTraceReplay replay = null;
+		try(InputStream in = Files.newInputStream(Paths.get(args[0]))) {
+			replay = new PivotTraceReplay(in);
+		}
+
+		if(args.length < 2) {
+			for(int step = 1; step <= replay.getStepsCount(); step++) {
+				System.out.println(replay.stepString(step));
+			}
+			System.out.println((replay.getSolutionType() != null) ? ("Solution type : " + replay.getSolutionType()) : ("The trace has no end record"));
+		}
+		else if(args[1].equals("all")) {
+			RationalTableau tableau = replay.initialTableau();
+			System.out.println("Suitable matrix :");
+			System.out.print(tableau.toMatrixString());
+			for(int step = 1; step <= replay.getStepsCount(); step++) {
+				tableau.pivot(replay.replacements.get(step - 1)[0], replay.replacements.get(step - 1)[1]);
+				System.out.println(replay.stepString(step));
+				System.out.print(tableau.toMatrixString());
+			}
+		}
+		else {
+			int step = Integer.parseInt(args[1]);
+			if(step > 0) {
+				System.out.println(replay.stepString(step));
+			}
+			System.out.print(replay.tableauAt(step).toMatrixString());
+		}
+	}
+
+}
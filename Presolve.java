@@ -0,0 +1,493 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+
+
+/*
+ * Presolve of a linear programming problem, before it is completed with slake/artificial variables.
+ * The reductions are done in exact fractions and repeated until none of them applies :
+ *  1. Empty rows are removed, or prove the problem infeasible (e.g. 0 >= 3).
+ *  2. Singleton equalities (a * Xj = b) fix their variable to b / a, which is substituted in the other rows and the objective.
+ *     Singleton inequalities give upper bounds of their variables (or are implied by Xj >= 0 and removed).
+ *  3. Empty columns fix their variable to 0, when its objective coefficient doesn't improve the objective.
+ *  4. Duplicate and parallel rows (the same coefficients up to a factor, found by hashing the scaled coefficients vectors)
+ *     are merged to the tightest bounds of their vector.
+ *  5. Dominated inequalities, which hold for all the values between 0 and the upper bounds of the variables, are removed,
+ *     and rows which can't hold for any of these values prove the problem infeasible.
+ * The engine solves the reduced problem in its own variables, postsolve maps its solution back to the original variables.
+ */
+public class Presolve {
+
+	/*
+	 * The working copy of the problem : rows coefficients, equality types (1 - >=, -1 - <=, 0 - =) and bounds,
+	 * and the objective coefficients of the original variables.
+	 */
+	private Rational[][] coefficients;
+	private int[] equalityTypes;
+	private Rational[] bounds;
+	private Boolean[] removedRows;
+	private Rational[] costs;
+	private String minMaxStr;
+
+	/*
+	 * Fixed values (null for variables of the reduced problem) and upper bounds (null when unbounded) of the original variables.
+	 */
+	private Rational[] fixedValues;
+	private Rational[] upperBounds;
+
+	/*
+	 * Objective value of the fixed variables.
+	 */
+	private Rational objectiveOffset;
+
+	/*
+	 * Original (0 based) index of each variable of the reduced problem.
+	 */
+	private ArrayList<Integer> originalIndices;
+
+	private ArrayList<Constraint> reducedConstraints;
+	private ObjectiveFunction reducedObjectiveFunction;
+
+	/*
+	 * Solution type decided without solving (infeasible, or no rows left), null when the reduced problem has to be solved.
+	 */
+	private Simplex.SolutionType solutionType;
+	private String infeasibility;
+
+	/*
+	 * Reductions counts.
+	 */
+	private int emptyRows;
+	private int singletonRows;
+	private int duplicateRows;
+	private int dominatedRows;
+	private int fixedVariables;
+
+	public Presolve(ArrayList<Constraint> constraints, ObjectiveFunction objectiveFunction) {
+		int variables = objectiveFunction.getCoefficients().size();
+		for(Constraint c : constraints) {
+			variables = Math.max(variables, c.getCoefficients().size());
+		}
+
+		this.coefficients = new Rational[constraints.size()][variables];
+		this.equalityTypes = new int[constraints.size()];
+		this.bounds = new Rational[constraints.size()];
+		this.removedRows = new Boolean[constraints.size()];
+		for(int rI = 0; rI < constraints.size(); rI++) {
+			Constraint c = constraints.get(rI);
+			for(int cI = 0; cI < variables; cI++) {
+				this.coefficients[rI][cI] = (cI < c.getCoefficients().size()) ? (c.getCoefficients().get(cI)) : (Rational.ZERO);
+			}
+			this.equalityTypes[rI] = c.getCurrentEqualityType();
+			this.bounds[rI] = c.getBound();
+			this.removedRows[rI] = false;
+		}
+
+		this.costs = new Rational[variables];
+		for(int cI = 0; cI < variables; cI++) {
+			this.costs[cI] = (cI < objectiveFunction.getCoefficients().size()) ? (objectiveFunction.getCoefficients().get(cI).getReal()) : (Rational.ZERO);
+		}
+		this.minMaxStr = objectiveFunction.getMinMax();
+
+		this.fixedValues = new Rational[variables];
+		this.upperBounds = new Rational[variables];
+		this.objectiveOffset = Rational.ZERO;
+		this.solutionType = null;
+		this.infeasibility = null;
+		this.emptyRows = this.singletonRows = this.duplicateRows = this.dominatedRows = this.fixedVariables = 0;
+	}
+
+	/*
+	 * Reduce the problem, return false if it was found infeasible.
+	 */
+	public Boolean run() {
+		boolean changed = true;
+		while(changed && this.infeasibility == null) {
+			changed = this.reduceRows();
+			changed |= this.fixEmptyColumns();
+			changed |= this.mergeParallelRows();
+			changed |= this.removeDominatedRows();
+		}
+
+		if(this.infeasibility != null) {
+			this.solutionType = Simplex.SolutionType.NONE;
+			return false;
+		}
+
+		this.originalIndices = new ArrayList<Integer>();
+		for(int cI = 0; cI < this.costs.length; cI++) {
+			if(this.fixedValues[cI] == null) {
+				this.originalIndices.add(cI);
+			}
+		}
+
+		// all the rows have the coefficients of all the variables, so the slake/artificial variables come after them
+		this.reducedConstraints = new ArrayList<Constraint>();
+		for(int rI = 0; rI < this.coefficients.length; rI++) {
+			if(!this.removedRows[rI]) {
+				ArrayList<Rational> rowCoefficients = new ArrayList<Rational>();
+				for(Integer cI : this.originalIndices) {
+					rowCoefficients.add(this.coefficients[rI][cI]);
+				}
+				this.reducedConstraints.add(new Constraint(rowCoefficients, this.equalityTypes[rI], this.bounds[rI]));
+			}
+		}
+		ArrayList<Rational> objectiveCoefficients = new ArrayList<Rational>();
+		for(Integer cI : this.originalIndices) {
+			objectiveCoefficients.add(this.costs[cI]);
+		}
+		this.reducedObjectiveFunction = new ObjectiveFunction(objectiveCoefficients, this.minMaxStr);
+
+		// without rows the remaining variables are empty columns which improve the objective
+		if(this.reducedConstraints.isEmpty()) {
+			this.solutionType = (this.originalIndices.isEmpty()) ? (Simplex.SolutionType.SINGLE) : (Simplex.SolutionType.UNBOUND);
+		}
+
+		return true;
+	}
+
+	/*
+	 * Check if 0 <= value <= upper bound of given variable.
+	 */
+	private boolean feasibleValue(int cI, Rational value) {
+		return value.signum() >= 0 && (this.upperBounds[cI] == null || value.compareTo(this.upperBounds[cI]) <= 0);
+	}
+
+	private static String equalityString(int equalityType) {
+		return (equalityType == 0) ? ("=") : ((equalityType < 0) ? ("<=") : (">="));
+	}
+
+	private void infeasible(String reason) {
+		if(this.infeasibility == null) {
+			this.infeasibility = reason;
+		}
+	}
+
+	private void removeRow(int rI) {
+		this.removedRows[rI] = true;
+	}
+
+	/*
+	 * Fix given variable, its value moves to the bounds of the rows and to the objective offset.
+	 */
+	private void fix(int cI, Rational value) {
+		this.fixedValues[cI] = value;
+		for(int rI = 0; rI < this.coefficients.length; rI++) {
+			if(!this.removedRows[rI] && !this.coefficients[rI][cI].isZero()) {
+				this.bounds[rI] = this.bounds[rI].subtract(this.coefficients[rI][cI].multiply(value));
+				this.coefficients[rI][cI] = Rational.ZERO;
+			}
+		}
+		this.objectiveOffset = this.objectiveOffset.add(this.costs[cI].multiply(value));
+		this.fixedVariables++;
+	}
+
+	/*
+	 * Remove the empty rows, fix the variables of the singleton equalities and bound the variables of the singleton inequalities.
+	 */
+	private boolean reduceRows() {
+		boolean changed = false;
+		for(int rI = 0; rI < this.coefficients.length && this.infeasibility == null; rI++) {
+			if(this.removedRows[rI]) {
+				continue;
+			}
+			int nonZeros = 0;
+			int column = -1;
+			for(int cI = 0; cI < this.costs.length; cI++) {
+				if(!this.coefficients[rI][cI].isZero()) {
+					nonZeros++;
+					column = cI;
+				}
+			}
+
+			if(nonZeros == 0) {
+				if(this.bounds[rI].signum() * this.equalityTypes[rI] > 0 || (this.equalityTypes[rI] == 0 && !this.bounds[rI].isZero())) {
+					this.infeasible("row " + (rI + 1) + " is 0 " + Presolve.equalityString(this.equalityTypes[rI]) + " " + this.bounds[rI]);
+				}
+				this.removeRow(rI);
+				this.emptyRows++;
+				changed = true;
+			}
+			else if(nonZeros == 1) {
+				Rational a = this.coefficients[rI][column];
+				Rational value = this.bounds[rI].divide(a);
+				// a * Xj <= b bounds Xj from above for positive a and from below for negative a (and the opposite for >=)
+				int direction = this.equalityTypes[rI] * a.signum();
+				if(this.equalityTypes[rI] == 0) {
+					if(!this.feasibleValue(column, value)) {
+						this.infeasible("row " + (rI + 1) + " fixes X" + (column + 1) + " = " + value + " out of its bounds");
+					}
+					this.removeRow(rI);
+					this.singletonRows++;
+					this.fix(column, value);
+					changed = true;
+				}
+				else if(direction > 0) {
+					if(value.signum() <= 0) {
+						this.removeRow(rI);
+						this.dominatedRows++;
+						changed = true;
+					}
+				}
+				else {
+					if(value.signum() < 0) {
+						this.infeasible("row " + (rI + 1) + " bounds X" + (column + 1) + " <= " + value);
+					}
+					else if(value.isZero()) {
+						this.removeRow(rI);
+						this.singletonRows++;
+						this.fix(column, value);
+						changed = true;
+					}
+					else if(this.upperBounds[column] == null || value.compareTo(this.upperBounds[column]) < 0) {
+						this.upperBounds[column] = value;
+						changed = true;
+					}
+				}
+			}
+		}
+		return changed;
+	}
+
+	/*
+	 * Fix at 0 the variables without coefficients in the rows, when their objective coefficient doesn't improve the objective
+	 * (improving ones are left to the engine, which finds the problem unbound).
+	 */
+	private boolean fixEmptyColumns() {
+		boolean changed = false;
+		int sense = (this.minMaxStr.equals("max")) ? (1) : (-1);
+		for(int cI = 0; cI < this.costs.length && this.infeasibility == null; cI++) {
+			if(this.fixedValues[cI] != null || this.costs[cI].signum() * sense > 0) {
+				continue;
+			}
+			boolean empty = true;
+			for(int rI = 0; rI < this.coefficients.length && empty; rI++) {
+				empty = this.removedRows[rI] || this.coefficients[rI][cI].isZero();
+			}
+			if(empty) {
+				this.fix(cI, Rational.ZERO);
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
+	/*
+	 * Merge the rows with the same coefficients vector up to a factor.
+	 * The vectors are scaled so their first coefficient is 1 (a negative factor turns <= to >=),
+	 * and each group of equal vectors keeps its largest lower bound and smallest upper bound -
+	 * in single equality row when they are equal, otherwise in up to two rows.
+	 */
+	private boolean mergeParallelRows() {
+		HashMap<ArrayList<Rational>, ArrayList<Integer>> groups = new HashMap<ArrayList<Rational>, ArrayList<Integer>>();
+		Rational[] factors = new Rational[this.coefficients.length];
+		for(int rI = 0; rI < this.coefficients.length; rI++) {
+			if(this.removedRows[rI]) {
+				continue;
+			}
+			ArrayList<Rational> vector = new ArrayList<Rational>(this.costs.length);
+			for(int cI = 0; cI < this.costs.length; cI++) {
+				if(factors[rI] == null && !this.coefficients[rI][cI].isZero()) {
+					factors[rI] = this.coefficients[rI][cI];
+				}
+				vector.add((factors[rI] != null) ? (this.coefficients[rI][cI].divide(factors[rI])) : (Rational.ZERO));
+			}
+			if(factors[rI] != null) {
+				groups.computeIfAbsent(vector, (key) -> new ArrayList<Integer>()).add(rI);
+			}
+		}
+
+		boolean changed = false;
+		for(HashMap.Entry<ArrayList<Rational>, ArrayList<Integer>> group : groups.entrySet()) {
+			ArrayList<Integer> rows = group.getValue();
+			if(rows.size() < 2 || this.infeasibility != null) {
+				continue;
+			}
+			Rational lower = null, upper = null;
+			int lowerRow = -1, upperRow = -1;
+			for(Integer rI : rows) {
+				Rational bound = this.bounds[rI].divide(factors[rI]);
+				int equalityType = this.equalityTypes[rI] * factors[rI].signum();
+				if(equalityType >= 0 && (lower == null || bound.compareTo(lower) > 0)) {
+					lower = bound;
+					lowerRow = rI;
+				}
+				if(equalityType <= 0 && (upper == null || bound.compareTo(upper) < 0)) {
+					upper = bound;
+					upperRow = rI;
+				}
+			}
+			if(lower != null && upper != null && lower.compareTo(upper) > 0) {
+				this.infeasible("rows " + (lowerRow + 1) + " and " + (upperRow + 1) + " bound the same expression by " + lower + " <= " + upper);
+				continue;
+			}
+
+			for(Integer rI : rows) {
+				this.removeRow(rI);
+			}
+			int kept = 0;
+			if(lower != null && upper != null && lower.equals(upper)) {
+				this.restoreRow(rows.get(kept++), group.getKey(), 0, lower);
+			}
+			else {
+				if(lower != null) {
+					this.restoreRow(rows.get(kept++), group.getKey(), 1, lower);
+				}
+				if(upper != null) {
+					this.restoreRow(rows.get(kept++), group.getKey(), -1, upper);
+				}
+			}
+			this.duplicateRows += rows.size() - kept;
+			changed |= rows.size() > kept;
+		}
+		return changed;
+	}
+
+	private void restoreRow(int rI, ArrayList<Rational> vector, int equalityType, Rational bound) {
+		this.coefficients[rI] = vector.toArray(new Rational[vector.size()]);
+		this.equalityTypes[rI] = equalityType;
+		this.bounds[rI] = bound;
+		this.removedRows[rI] = false;
+	}
+
+	/*
+	 * Remove the rows which hold for all the values of the variables in their bounds,
+	 * by the minimal and maximal activity (value of the coefficients side) of the row in these bounds.
+	 * The singleton rows make the upper bounds, so they are left.
+	 */
+	private boolean removeDominatedRows() {
+		boolean changed = false;
+		for(int rI = 0; rI < this.coefficients.length && this.infeasibility == null; rI++) {
+			if(this.removedRows[rI]) {
+				continue;
+			}
+			int nonZeros = 0;
+			Rational minActivity = Rational.ZERO, maxActivity = Rational.ZERO;
+			boolean minBounded = true, maxBounded = true;
+			for(int cI = 0; cI < this.costs.length; cI++) {
+				Rational a = this.coefficients[rI][cI];
+				if(a.isZero()) {
+					continue;
+				}
+				nonZeros++;
+				if(this.upperBounds[cI] == null) {
+					minBounded &= a.signum() > 0;
+					maxBounded &= a.signum() < 0;
+				}
+				else if(a.signum() > 0) {
+					maxActivity = maxActivity.add(a.multiply(this.upperBounds[cI]));
+				}
+				else {
+					minActivity = minActivity.add(a.multiply(this.upperBounds[cI]));
+				}
+			}
+			if(nonZeros < 2) {
+				continue;
+			}
+
+			Rational b = this.bounds[rI];
+			if((minBounded && this.equalityTypes[rI] <= 0 && minActivity.compareTo(b) > 0) || (maxBounded && this.equalityTypes[rI] >= 0 && maxActivity.compareTo(b) < 0)) {
+				this.infeasible("row " + (rI + 1) + " can't hold, its coefficients side is in [" + ((minBounded) ? (minActivity) : ("-inf")) + ", " + ((maxBounded) ? (maxActivity) : ("+inf")) + "]");
+			}
+			else if((this.equalityTypes[rI] < 0 && maxBounded && maxActivity.compareTo(b) <= 0) || (this.equalityTypes[rI] > 0 && minBounded && minActivity.compareTo(b) >= 0)) {
+				this.removeRow(rI);
+				this.dominatedRows++;
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
+	public ArrayList<Constraint> getConstraints() {
+		return this.reducedConstraints;
+	}
+
+	public ObjectiveFunction getObjectiveFunction() {
+		return this.reducedObjectiveFunction;
+	}
+
+	/*
+	 * Solution type decided by the presolve (null when the reduced problem has to be solved).
+	 */
+	public Simplex.SolutionType getSolutionType() {
+		return this.solutionType;
+	}
+
+	/*
+	 * Reason of the infeasibility, null for problem that wasn't found infeasible.
+	 */
+	public String getInfeasibility() {
+		return this.infeasibility;
+	}
+
+	public int getRemovedRows() {
+		return this.coefficients.length - ((this.reducedConstraints != null) ? (this.reducedConstraints.size()) : (0));
+	}
+
+	public int getFixedVariables() {
+		return this.fixedVariables;
+	}
+
+	/*
+	 * Values of the original variables at the current basis of the engine of the reduced problem
+	 * (Rational on the exact engines, Double on the floating point engines, or Rational without engine).
+	 */
+	public Number[] postsolve(SimplexEngine engine) {
+		boolean exact = (engine == null) || (engine.getObjectiveValue() instanceof Rational);
+		Number[] values = new Number[this.costs.length];
+		for(int cI = 0; cI < values.length; cI++) {
+			Rational value = (this.fixedValues[cI] != null) ? (this.fixedValues[cI]) : (Rational.ZERO);
+			values[cI] = (exact) ? (value) : ((Number)value.doubleValue());
+		}
+		if(engine != null) {
+			ArrayList<Integer> basis = engine.getCurrentBasis();
+			for(int rI = 0; rI < basis.size(); rI++) {
+				// the variables after the reduced ones are slake/artificial variables
+				if(basis.get(rI) <= this.originalIndices.size()) {
+					values[this.originalIndices.get(basis.get(rI) - 1)] = engine.getBasisValue(rI);
+				}
+			}
+		}
+		return values;
+	}
+
+	/*
+	 * Objective value of the original problem at the current basis of the engine of the reduced problem.
+	 */
+	public Number postsolveObjective(SimplexEngine engine) {
+		if(engine == null) {
+			return this.objectiveOffset;
+		}
+		Number objective = engine.getObjectiveValue();
+		return (objective instanceof Rational) ? (((Rational)objective).add(this.objectiveOffset)) : ((Number)(objective.doubleValue() + this.objectiveOffset.doubleValue()));
+	}
+
+	private static String valueString(Number value) {
+		return (value instanceof Double) ? (FloatingPointTableau.format((Double)value)) : (value.toString());
+	}
+
+	/*
+	 * Solutions string in the original variables : the non zero variables and the objective value.
+	 */
+	public String toSolutionsString(SimplexEngine engine) {
+		StringBuilder sb = new StringBuilder();
+		Number[] values = this.postsolve(engine);
+		for(int cI = 0; cI < values.length; cI++) {
+			if(values[cI].doubleValue() != 0) {
+				sb.append("X" + (cI + 1) + " = " + Presolve.valueString(values[cI]) + "; ");
+			}
+		}
+		sb.append("Z = " + Presolve.valueString(this.postsolveObjective(engine)));
+		return sb.toString();
+	}
+
+	@Override
+	public String toString() {
+		if(this.infeasibility != null) {
+			return "Presolve found the problem infeasible : " + this.infeasibility;
+		}
+		return "Presolve removed " + this.getRemovedRows() + " of " + this.coefficients.length + " rows ("
+				+ this.emptyRows + " empty, " + this.singletonRows + " singleton, " + this.duplicateRows + " duplicate, " + this.dominatedRows + " dominated)"
+				+ " and fixed " + this.fixedVariables + " of " + this.costs.length + " variables";
+	}
+
+}
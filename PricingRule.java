@@ -0,0 +1,291 @@
+import java.util.Arrays;
+
+
+/*
+ * Choice of the variable that enters the basis (pricing) for the exact engines, from their objective row of
+ * Big-M numbers (C'j + IW * M) :
+ *  DANTZIG - the most improving value, the IW part is dominant and the C'j part breaks its ties.
+ *  PARTIAL - Dantzig's choice within one segment of the columns, the segments are priced in turn starting after
+ *            the segment of the last choice, so a step prices only part of the row while improving values are found there.
+ *  DEVEX - the most improving value relative to the reference framework weight of its column (approximate steepest edge),
+ *          the weights are updated from the pivot row.
+ *  STEEPEST_EDGE - the most improving value relative to the norm of its column in the tableau (the edge of its move),
+ *                  the norms are calculated at the start and then updated from the pivot row and the entering column.
+ * The weighted rules compare the IW parts while any of them improves, and then the C'j parts.
+ */
+public abstract class PricingRule {
+
+	enum Type {
+		DANTZIG,
+		PARTIAL,
+		DEVEX,
+		STEEPEST_EDGE
+	}
+
+	/*
+	 * The constraints rows of the tableau, as seen by the weighted rules.
+	 */
+	interface Columns {
+
+		/*
+		 * Fill the sums of the squares of the entries of each column.
+		 */
+		void squaredNorms(double[] norms);
+
+		/*
+		 * Number of the constraints rows.
+		 */
+		int constraintsCount();
+
+		/*
+		 * Fill the entries of given row.
+		 */
+		void row(int rI, double[] values);
+
+		/*
+		 * Fill the entries of given column.
+		 */
+		void column(int cI, double[] values);
+
+		/*
+		 * Fill the sums of the rows multiplied by given multipliers (the rows of zero multipliers are skipped).
+		 */
+		void combination(double[] multipliers, double[] values);
+	}
+
+	/*
+	 * Segments of partial pricing, and their minimal size.
+	 */
+	private static final int PARTIAL_SEGMENTS = 8;
+	private static final int PARTIAL_MIN_SEGMENT_SIZE = 16;
+
+	public static PricingRule create(Type type) {
+		switch(type) {
+		case PARTIAL:
+			return new Partial();
+		case DEVEX:
+			return new Devex();
+		case STEEPEST_EDGE:
+			return new SteepestEdge();
+		default:
+			return new Dantzig();
+		}
+	}
+
+	/*
+	 * Start pricing given number of columns (the tableau was built or its columns were changed).
+	 */
+	public void reset(Columns columns, int count) {
+	}
+
+	/*
+	 * Update after pivot at given row, entering and leaving columns (the tableau is already pivoted).
+	 */
+	public void update(Columns columns, int pivotR, int enteringC, int leavingC) {
+	}
+
+	/*
+	 * Choose the column (0 based) of the variable that enters the basis among the first columns of the objective row,
+	 * -1 if no variable improves the objective.
+	 * The direction is 1 for minimum problem and -1 for maximum problem, and in the first phase of two-phase mode
+	 * only the M part is improved (mOnly).
+	 */
+	public abstract int choose(BigMNumber[] objectiveRow, int count, int direction, boolean mOnly);
+
+	/*
+	 * Check if objective row value makes its variable a candidate to enter the basis.
+	 */
+	protected static boolean improving(BigMNumber value, int direction, boolean mOnly) {
+		int sign = (mOnly) ? (value.getM().signum()) : (value.signum());
+		return sign * direction > 0;
+	}
+
+	/*
+	 * Dantzig's choice among the columns in [from, to).
+	 */
+	protected static int dominant(BigMNumber[] objectiveRow, int from, int to, int direction, boolean mOnly) {
+		int inToBasis = -1;
+		BigMNumber dominant = BigMNumber.ZERO;
+		for(int cI = from; cI < to; cI++) {
+			BigMNumber value = objectiveRow[cI];
+			if(PricingRule.improving(value, direction, mOnly) && value.compareTo(dominant) * direction > 0) {
+				dominant = value;
+				inToBasis = cI;
+			}
+		}
+		return inToBasis;
+	}
+
+	/*
+	 * Bland's choice : the first improving column (the anti-cycling engines use it instead of the rule, see AntiCycling).
+	 */
+	public static int first(BigMNumber[] objectiveRow, int count, int direction, boolean mOnly) {
+		for(int cI = 0; cI < count; cI++) {
+			if(PricingRule.improving(objectiveRow[cI], direction, mOnly)) {
+				return cI;
+			}
+		}
+		return -1;
+	}
+
+	/*
+	 * Choice of the largest squared improvement relative to the weight of its column,
+	 * of the M parts if any of them improves, otherwise of the real parts.
+	 */
+	protected static int weighted(BigMNumber[] objectiveRow, int count, int direction, boolean mOnly, double[] weights) {
+		int mInToBasis = -1;
+		int realInToBasis = -1;
+		double mScore = 0;
+		double realScore = 0;
+		for(int cI = 0; cI < count; cI++) {
+			BigMNumber value = objectiveRow[cI];
+			if(!value.isReal()) {
+				if(value.getM().signum() * direction > 0) {
+					double d = value.getM().doubleValue();
+					double score = d * d / weights[cI];
+					if(score > mScore) {
+						mScore = score;
+						mInToBasis = cI;
+					}
+				}
+			}
+			else if(!mOnly && value.getReal().signum() * direction > 0) {
+				double d = value.getReal().doubleValue();
+				double score = d * d / weights[cI];
+				if(score > realScore) {
+					realScore = score;
+					realInToBasis = cI;
+				}
+			}
+		}
+		return (mInToBasis >= 0) ? (mInToBasis) : (realInToBasis);
+	}
+
+	private static class Dantzig extends PricingRule {
+
+		@Override
+		public int choose(BigMNumber[] objectiveRow, int count, int direction, boolean mOnly) {
+			return PricingRule.dominant(objectiveRow, 0, count, direction, mOnly);
+		}
+	}
+
+	private static class Partial extends PricingRule {
+
+		/*
+		 * The segment priced first in the next step.
+		 */
+		private int segment = 0;
+
+		@Override
+		public void reset(Columns columns, int count) {
+			this.segment = 0;
+		}
+
+		@Override
+		public int choose(BigMNumber[] objectiveRow, int count, int direction, boolean mOnly) {
+			int size = Math.max(PricingRule.PARTIAL_MIN_SEGMENT_SIZE, (count + PricingRule.PARTIAL_SEGMENTS - 1) / PricingRule.PARTIAL_SEGMENTS);
+			int segments = (count + size - 1) / size;
+			for(int i = 0; i < segments; i++) {
+				int segment = (this.segment + i) % segments;
+				int inToBasis = PricingRule.dominant(objectiveRow, segment * size, Math.min(count, (segment + 1) * size), direction, mOnly);
+				if(inToBasis >= 0) {
+					this.segment = (segment + 1) % segments;
+					return inToBasis;
+				}
+			}
+			return -1;
+		}
+	}
+
+	private static class Devex extends PricingRule {
+
+		private double[] weights;
+		private double[] pivotRow;
+
+		@Override
+		public void reset(Columns columns, int count) {
+			this.weights = new double[count];
+			this.pivotRow = new double[count];
+			Arrays.fill(this.weights, 1);
+		}
+
+		/*
+		 * The pivot row is already divided by the pivot, so it holds the ratios to the pivot,
+		 * and the leaving column holds the reciprocal of the pivot.
+		 */
+		@Override
+		public void update(Columns columns, int pivotR, int enteringC, int leavingC) {
+			columns.row(pivotR, this.pivotRow);
+			double enteringWeight = this.weights[enteringC];
+			for(int cI = 0; cI < this.weights.length; cI++) {
+				if(this.pivotRow[cI] != 0) {
+					this.weights[cI] = Math.max(this.weights[cI], this.pivotRow[cI] * this.pivotRow[cI] * enteringWeight);
+				}
+			}
+			this.weights[leavingC] = Math.max(this.pivotRow[leavingC] * this.pivotRow[leavingC] * enteringWeight, 1);
+		}
+
+		@Override
+		public int choose(BigMNumber[] objectiveRow, int count, int direction, boolean mOnly) {
+			return PricingRule.weighted(objectiveRow, count, direction, mOnly, this.weights);
+		}
+	}
+
+	private static class SteepestEdge extends PricingRule {
+
+		private double[] weights;
+		private double[] pivotRow;
+		private double[] enteringColumn;
+		private double[] products;
+
+		/*
+		 * The weight of a column is 1 + the squared norm of its tableau column (the edge has 1 at the column itself).
+		 */
+		@Override
+		public void reset(Columns columns, int count) {
+			this.weights = new double[count];
+			this.pivotRow = new double[count];
+			this.products = new double[count];
+			this.enteringColumn = new double[columns.constraintsCount()];
+			columns.squaredNorms(this.weights);
+			for(int cI = 0; cI < count; cI++) {
+				this.weights[cI] += 1;
+			}
+		}
+
+		/*
+		 * Goldfarb and Reid's update : with the pivot row r (divided by the pivot) and the entering column a (before the pivot),
+		 * the weight of column j becomes Wj - 2 * r[j] * (a . new column j, off the pivot row) + r[j] ^ 2 * (2 - W entering),
+		 * at least 1 + r[j] ^ 2, and the weight of the leaving column becomes W entering / pivot ^ 2.
+		 * The entering column is read from the leaving column, which is now -a / pivot off the pivot row and 1 / pivot on it,
+		 * so only the rows of its non zero entries are combined.
+		 */
+		@Override
+		public void update(Columns columns, int pivotR, int enteringC, int leavingC) {
+			columns.column(leavingC, this.enteringColumn);
+			double pivot = 1 / this.enteringColumn[pivotR];
+			for(int rI = 0; rI < this.enteringColumn.length; rI++) {
+				this.enteringColumn[rI] *= -pivot;
+			}
+			this.enteringColumn[pivotR] = 0;
+			columns.combination(this.enteringColumn, this.products);
+			columns.row(pivotR, this.pivotRow);
+			double enteringWeight = this.weights[enteringC];
+			for(int cI = 0; cI < this.weights.length; cI++) {
+				double ratio = this.pivotRow[cI];
+				if(ratio != 0) {
+					double weight = this.weights[cI] - 2 * ratio * this.products[cI] + ratio * ratio * (2 - enteringWeight);
+					this.weights[cI] = Math.max(weight, 1 + ratio * ratio);
+				}
+			}
+			this.weights[enteringC] = 2;
+			this.weights[leavingC] = enteringWeight / (pivot * pivot);
+		}
+
+		@Override
+		public int choose(BigMNumber[] objectiveRow, int count, int direction, boolean mOnly) {
+			return PricingRule.weighted(objectiveRow, count, direction, mOnly, this.weights);
+		}
+	}
+
+}
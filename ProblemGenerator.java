@@ -0,0 +1,414 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.function.Consumer;
+
+
+/*
+ * Seeded generator of linear programming problems for scaling studies, benchmarks and soak tests.
+ * The problems are produced line by line in the input syntax (objective function line, then constraint lines),
+ * so big problems (up to 10^5 variables) can be written out without holding them in memory,
+ * or they can be collected and parsed to ObjectiveFunction/Constraint objects.
+ * The same seed, family and sizes always give the same problem.
+ *
+ * Families (rows x variables, unless noted) :
+ *  DENSE - feasible and bounded maximum problem with full "<=" constraints.
+ *  SPARSE - feasible and bounded maximum problem, each coefficient is non zero with the density probability.
+ *  KLEE_MINTY - Klee-Minty cube of dimension variables (rows is ignored), worst case of the Dantzig pivoting.
+ *  DEGENERATE - feasible and bounded maximum problem where most of the constraints have zero bound (degenerate vertex at the origin).
+ *  TRANSPORTATION - minimum cost transportation from rows suppliers to variables customers (rows * variables variables).
+ *  ASSIGNMENT - minimum cost assignment of variables workers to variables jobs (rows is ignored).
+ *  INFEASIBLE - dense problem with an additional constraint that contradicts the first one.
+ *  UNBOUNDED - dense maximum problem with one variable that no constraint bounds.
+ */
+public class ProblemGenerator {
+
+	enum Family {
+		DENSE,
+		SPARSE,
+		KLEE_MINTY,
+		DEGENERATE,
+		TRANSPORTATION,
+		ASSIGNMENT,
+		INFEASIBLE,
+		UNBOUNDED
+	}
+
+	public static final double DEFAULT_DENSITY = 0.1;
+
+	private long seed;
+
+	/*
+	 * Probability of non zero coefficient in the SPARSE family.
+	 */
+	private double density;
+
+	public ProblemGenerator(long seed) {
+		this.seed = seed;
+		this.density = ProblemGenerator.DEFAULT_DENSITY;
+	}
+
+	public void setDensity(double density) {
+		if(density <= 0 || density > 1) {
+			throw new IllegalArgumentException("Density must be in (0, 1]");
+		}
+		this.density = density;
+	}
+
+	/*
+	 * Produce the lines of the problem (the objective function first) to given consumer.
+	 */
+	public void generate(Family family, int rows, int variables, Consumer<String> lines) {
+		if(rows < 1 || variables < 1) {
+			throw new IllegalArgumentException("Rows and variables must be positive");
+		}
+		// each problem has its own random sequence, independent of the previous ones
+		Random random = new Random(this.seed ^ ((long)family.ordinal() << 48) ^ ((long)rows << 24) ^ variables);
+		switch(family) {
+		case DENSE:
+			this.dense(random, rows, variables, lines);
+			break;
+		case SPARSE:
+			this.sparse(random, rows, variables, lines);
+			break;
+		case KLEE_MINTY:
+			this.kleeMinty(variables, lines);
+			break;
+		case DEGENERATE:
+			this.degenerate(random, rows, variables, lines);
+			break;
+		case TRANSPORTATION:
+			this.transportation(random, rows, variables, lines);
+			break;
+		case ASSIGNMENT:
+			this.assignment(random, variables, lines);
+			break;
+		case INFEASIBLE:
+			this.infeasible(random, rows, variables, lines);
+			break;
+		case UNBOUNDED:
+			this.unbounded(random, rows, variables, lines);
+			break;
+		}
+	}
+
+	/*
+	 * The lines of the problem, the objective function first.
+	 */
+	public ArrayList<String> lines(Family family, int rows, int variables) {
+		ArrayList<String> lines = new ArrayList<String>();
+		this.generate(family, rows, variables, lines::add);
+		return lines;
+	}
+
+	/*
+	 * The problem in the input syntax, ended by an empty line.
+	 */
+	public String text(Family family, int rows, int variables) {
+		StringBuilder sb = new StringBuilder();
+		this.generate(family, rows, variables, (line) -> sb.append(line).append("\n"));
+		return sb.append("\n").toString();
+	}
+
+	public static ObjectiveFunction objectiveFunction(ArrayList<String> lines) {
+		return new ObjectiveFunction(lines.get(0));
+	}
+
+	public static ArrayList<Constraint> constraints(ArrayList<String> lines) {
+		ArrayList<Constraint> constraints = new ArrayList<Constraint>();
+		for(int i = 1; i < lines.size(); i++) {
+			constraints.add(new Constraint(lines.get(i)));
+		}
+		return constraints;
+	}
+
+	/*
+	 * Solver of the generated problem with given log.
+	 */
+	public Simplex simplex(Family family, int rows, int variables, SimLog log) {
+		ArrayList<String> lines = this.lines(family, rows, variables);
+		return new Simplex(ProblemGenerator.constraints(lines), ProblemGenerator.objectiveFunction(lines), log);
+	}
+
+	/*
+	 * Builder of single line : terms are appended in increasing variables order.
+	 */
+	private static class Line {
+
+		private StringBuilder sb;
+		private Boolean empty;
+
+		Line(String prefix) {
+			this.sb = new StringBuilder(prefix);
+			this.empty = true;
+		}
+
+		Line term(long coefficient, int variable) {
+			return this.term(BigInteger.valueOf(coefficient), variable);
+		}
+
+		Line term(BigInteger coefficient, int variable) {
+			if(coefficient.signum() != 0) {
+				if(coefficient.signum() > 0 && !this.empty) {
+					this.sb.append('+');
+				}
+				this.sb.append(coefficient).append('x').append(variable);
+				this.empty = false;
+			}
+			return this;
+		}
+
+		String end(String equality, long bound) {
+			return this.end(equality, BigInteger.valueOf(bound));
+		}
+
+		String end(String equality, BigInteger bound) {
+			if(this.empty) {
+				// a constraint needs at least one term
+				this.sb.append("0x1");
+			}
+			return this.sb.append(equality).append(bound).toString();
+		}
+
+		String end() {
+			return this.sb.toString();
+		}
+	}
+
+	private static String costs(Random random, String minMax, int variables, int low, int high) {
+		Line line = new Line(minMax + "z=");
+		for(int j = 1; j <= variables; j++) {
+			line.term(low + random.nextInt(high - low + 1), j);
+		}
+		return line.end();
+	}
+
+	/*
+	 * Full "<=" constraint with coefficients in [1, 9] (bounds every variable).
+	 */
+	private static String positiveRow(Random random, int variables, long bound) {
+		Line line = new Line("");
+		for(int j = 1; j <= variables; j++) {
+			line.term(1 + random.nextInt(9), j);
+		}
+		return line.end("<=", bound);
+	}
+
+	private void dense(Random random, int rows, int variables, Consumer<String> lines) {
+		lines.accept(ProblemGenerator.costs(random, "max", variables, 1, 9));
+		lines.accept(ProblemGenerator.positiveRow(random, variables, 10L * variables + random.nextInt(100)));
+		for(int i = 2; i <= rows; i++) {
+			Line line = new Line("");
+			for(int j = 1; j <= variables; j++) {
+				line.term(random.nextInt(11) - 2, j);
+			}
+			lines.accept(line.end("<=", 20 + random.nextInt(10 * variables)));
+		}
+	}
+
+	/*
+	 * The non zero coefficients of a row are reached by geometric skips (cost in the number of non zeros, not in variables),
+	 * and variable j is forced in row (j mod rows). All the coefficients are positive (opposing negative ones in two rows
+	 * could leave a ray), so the forced row of every variable bounds it.
+	 */
+	private void sparse(Random random, int rows, int variables, Consumer<String> lines) {
+		lines.accept(ProblemGenerator.costs(random, "max", variables, 1, 9));
+		double logOfMiss = Math.log(1 - this.density);
+		for(int i = 1; i <= rows; i++) {
+			Line line = new Line("");
+			int forced = i;
+			int sampled = this.nextSampled(random, 0, logOfMiss);
+			while(forced <= variables || sampled <= variables) {
+				if(forced <= sampled) {
+					line.term(1 + random.nextInt(9), forced);
+					if(forced == sampled) {
+						sampled = this.nextSampled(random, sampled, logOfMiss);
+					}
+					forced += rows;
+				}
+				else {
+					line.term(1 + random.nextInt(9), sampled);
+					sampled = this.nextSampled(random, sampled, logOfMiss);
+				}
+			}
+			lines.accept(line.end("<=", 20 + random.nextInt(Math.max(1, (int)(10 * this.density * variables)) + 10)));
+		}
+	}
+
+	private int nextSampled(Random random, int current, double logOfMiss) {
+		if(this.density >= 1) {
+			return current + 1;
+		}
+		double skip = Math.floor(Math.log(1 - random.nextDouble()) / logOfMiss);
+		return (int)Math.min(Integer.MAX_VALUE - 1, current + 1 + skip);
+	}
+
+	/*
+	 * max sum 2^(n-j)xj, subject to : 2^i x1 + 2^(i-1) x2 + ... + 4x(i-1) + xi <= 5^i (i = 1..n).
+	 */
+	private void kleeMinty(int variables, Consumer<String> lines) {
+		Line objective = new Line("maxz=");
+		for(int j = 1; j <= variables; j++) {
+			objective.term(BigInteger.ONE.shiftLeft(variables - j), j);
+		}
+		lines.accept(objective.end());
+		BigInteger five = BigInteger.valueOf(5);
+		for(int i = 1; i <= variables; i++) {
+			Line line = new Line("");
+			for(int j = 1; j < i; j++) {
+				line.term(BigInteger.ONE.shiftLeft(i - j + 1), j);
+			}
+			line.term(1, i);
+			lines.accept(line.end("<=", five.pow(i)));
+		}
+	}
+
+	/*
+	 * A bounding row, and rows with mixed signs and zero bound (all of them are active at the origin).
+	 */
+	private void degenerate(Random random, int rows, int variables, Consumer<String> lines) {
+		lines.accept(ProblemGenerator.costs(random, "max", variables, 1, 9));
+		lines.accept(ProblemGenerator.positiveRow(random, variables, 10L * variables));
+		for(int i = 2; i <= rows; i++) {
+			Line line = new Line("");
+			for(int j = 1; j <= variables; j++) {
+				line.term(random.nextInt(7) - 3, j);
+			}
+			lines.accept(line.end("<=", (random.nextInt(4) == 0) ? (1 + random.nextInt(10)) : (0)));
+		}
+	}
+
+	/*
+	 * Variable (i-1)*customers+j is the amount from supplier i to customer j, the total supply covers the total demand.
+	 */
+	private void transportation(Random random, int suppliers, int customers, Consumer<String> lines) {
+		long[] demands = new long[customers];
+		long totalDemand = 0;
+		for(int j = 0; j < customers; j++) {
+			demands[j] = 10 + random.nextInt(90);
+			totalDemand += demands[j];
+		}
+		long[] supplies = new long[suppliers];
+		long share = (totalDemand + suppliers - 1) / suppliers;
+		for(int i = 0; i < suppliers; i++) {
+			supplies[i] = share + random.nextInt(50);
+		}
+
+		lines.accept(ProblemGenerator.costs(random, "min", suppliers * customers, 1, 20));
+		for(int i = 0; i < suppliers; i++) {
+			Line line = new Line("");
+			for(int j = 1; j <= customers; j++) {
+				line.term(1, i * customers + j);
+			}
+			lines.accept(line.end("<=", supplies[i]));
+		}
+		for(int j = 1; j <= customers; j++) {
+			Line line = new Line("");
+			for(int i = 0; i < suppliers; i++) {
+				line.term(1, i * customers + j);
+			}
+			lines.accept(line.end(">=", demands[j - 1]));
+		}
+	}
+
+	/*
+	 * Variable (i-1)*n+j is the assignment of worker i to job j.
+	 */
+	private void assignment(Random random, int n, Consumer<String> lines) {
+		lines.accept(ProblemGenerator.costs(random, "min", n * n, 1, 100));
+		for(int i = 0; i < n; i++) {
+			Line line = new Line("");
+			for(int j = 1; j <= n; j++) {
+				line.term(1, i * n + j);
+			}
+			lines.accept(line.end("=", 1));
+		}
+		for(int j = 1; j <= n; j++) {
+			Line line = new Line("");
+			for(int i = 0; i < n; i++) {
+				line.term(1, i * n + j);
+			}
+			lines.accept(line.end("=", 1));
+		}
+	}
+
+	/*
+	 * The dense problem, and the first constraint with ">=" and a greater bound.
+	 */
+	private void infeasible(Random random, int rows, int variables, Consumer<String> lines) {
+		final String[] first = { null };
+		final int[] row = { 0 };
+		this.dense(random, Math.max(1, rows - 1), variables, (line) -> {
+			if(row[0]++ == 1) {
+				first[0] = line;
+			}
+			lines.accept(line);
+		});
+		int at = first[0].indexOf("<=");
+		long bound = Long.parseLong(first[0].substring(at + 2));
+		lines.accept(first[0].substring(0, at) + ">=" + (bound + 1 + random.nextInt(10)));
+	}
+
+	/*
+	 * Dense maximum problem where the last variable has positive cost and non positive coefficients.
+	 */
+	private void unbounded(Random random, int rows, int variables, Consumer<String> lines) {
+		lines.accept(ProblemGenerator.costs(random, "max", variables, 1, 9));
+		for(int i = 1; i <= rows; i++) {
+			Line line = new Line("");
+			for(int j = 1; j < variables; j++) {
+				line.term(1 + random.nextInt(9), j);
+			}
+			line.term(-random.nextInt(3), variables);
+			lines.accept(line.end("<=", 20 + random.nextInt(10 * variables)));
+		}
+	}
+
+	/*
+	 * Usage : ProblemGenerator <family> <rows> <variables> [seed] [density]
+	 * The problem is written to the standard output in the input syntax,
+	 * e.g. (echo 1; java ProblemGenerator DENSE 10 20) | java Tester
+	 */
+	public static void main(String[] args) {
+		if(args.length < 3) {
+			System.out.println("Usage : ProblemGenerator <family> <rows> <variables> [seed] [density]");
+			StringBuilder sb = new StringBuilder("Families :");
+			for(Family family : Family.values()) {
+				sb.append(" " + family);
+			}
+			System.out.println(sb);
+			return;
+		}
+		Family family = Family.valueOf(args[0].toUpperCase());
+		int rows = Integer.parseInt(args[1]);
+		int variables = Integer.parseInt(args[2]);
+		ProblemGenerator generator = new ProblemGenerator((args.length > 3) ? (Long.parseLong(args[3])) : (1));
+		if(args.length > 4) {
+			generator.setDensity(Double.parseDouble(args[4]));
+		}
+
+		try {
+			Writer out = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+			generator.generate(family, rows, variables, (line) -> {
+				try {
+					out.write(line);
+					out.write('\n');
+				}
+				catch(IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			out.write('\n');
+			out.flush();
+		}
+		catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
@@ -1,66 +1,264 @@
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
 
-public class Rational implements Comparable<Rational> {
+public class Rational extends Number implements Comparable<Rational> {
+
+	private static final long serialVersionUID = 1L;
+
+	/*
+	 * Operations counted for the solve metrics (see SolveMetrics).
+	 */
+	enum Operation {
+		ADD,
+		SUBTRACT,
+		MULTIPLY,
+		DIVIDE,
+		COMPARE,
+		GCD
+	}
+
+	/*
+	 * Operation counters of the current thread (null if it doesn't count),
+	 * and the number of counting threads (the counters are looked up only while some thread counts).
+	 */
+	private static final ThreadLocal<long[]> operationCounts = new ThreadLocal<long[]>();
+	private static final AtomicInteger countingThreads = new AtomicInteger(0);
+
+	private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+
+	/*
+	 * Common constants.
+	 */
+	public static final Rational ZERO = new Rational(0);
+	public static final Rational ONE = new Rational(1);
 
 	/*
 	 * Fraction shape components : p/q.
+	 * The fraction is kept in primitive longs as long as it fits (fast path).
+	 * When an operation overflows, the fraction is promoted to bp/bq, in that case p/q are meaningless.
+	 * The representation is canonical : bp/bq are used only if the reduced fraction doesn't fit in longs.
 	 */
-	private Integer p;
-	private Integer q;
-	
+	private final long p;
+	private final long q;
+	private final BigInteger bp;
+	private final BigInteger bq;
+
 	/*
 	 * Constructor that initialize new fraction.
 	 * In case of negative number, it always taking care the sign is at p.
 	 * If q is equal to zero, the number will be infinity of -infinity (decided by the sign).
 	 */
-	public Rational(Integer p, Integer q) {
-		this.q = Math.abs(q);
-		if((p >= 0 && q >= 0) || (p < 0 && q < 0)) {
-			this.p = Math.abs(p);
-		}
-		else {
-			this.p = -Math.abs(p);
-		}
-		
+	public Rational(long p, long q) {
 		if(q == 0) {
 			if(p >= 0) {
-				this.p = Integer.MAX_VALUE;
+				p = Integer.MAX_VALUE;
 			}
 			else {
-				this.p = Integer.MIN_VALUE;
+				p = Integer.MIN_VALUE;
 			}
-			this.q = 1;
+			q = 1;
 		}
-		
-		Integer gcd = Rational.gcd(this.p, this.q);
-		this.p /= gcd;
-		this.q /= gcd;
+
+		if(p == Long.MIN_VALUE || q == Long.MIN_VALUE) {
+			Rational r = Rational.reduce(BigInteger.valueOf(p), BigInteger.valueOf(q));
+			this.p = r.p;
+			this.q = r.q;
+			this.bp = r.bp;
+			this.bq = r.bq;
+			return;
+		}
+
+		if(q < 0) {
+			p = -p;
+			q = -q;
+		}
+		long gcd = Rational.gcd(p, q);
+		this.p = p / gcd;
+		this.q = q / gcd;
+		this.bp = null;
+		this.bq = null;
 	}
-	
-	public Rational(Integer number) {
+
+	public Rational(long number) {
 		this(number, 1);
 	}
-	
+
+	/*
+	 * Constructor for fraction with arbitrary large components.
+	 */
+	public Rational(BigInteger p, BigInteger q) {
+		Rational r = (q.signum() == 0) ? (new Rational(p.signum(), 0)) : (Rational.reduce(p, q));
+		this.p = r.p;
+		this.q = r.q;
+		this.bp = r.bp;
+		this.bq = r.bq;
+	}
+
 	/*
-	 * Return infinity.
+	 * Raw constructor, the components must be already reduced and canonical.
 	 */
-	public static Rational infinity() {
-		return new Rational(Integer.MAX_VALUE, 1);
+	private Rational(long p, long q, BigInteger bp, BigInteger bq) {
+		this.p = p;
+		this.q = q;
+		this.bp = bp;
+		this.bq = bq;
 	}
-	
+
+	/*
+	 * Count the operations of the current thread into given counters (indexed by Operation ordinal),
+	 * until stopCounting is called by the same thread.
+	 */
+	static void startCounting(long[] counts) {
+		if(Rational.operationCounts.get() == null) {
+			Rational.countingThreads.incrementAndGet();
+		}
+		Rational.operationCounts.set(counts);
+	}
+
+	static void stopCounting() {
+		if(Rational.operationCounts.get() != null) {
+			Rational.operationCounts.remove();
+			Rational.countingThreads.decrementAndGet();
+		}
+	}
+
+	private static void count(Operation operation) {
+		if(Rational.countingThreads.get() > 0) {
+			long[] counts = Rational.operationCounts.get();
+			if(counts != null) {
+				counts[operation.ordinal()]++;
+			}
+		}
+	}
+
+	/*
+	 * Reduce BigInteger fraction (q != 0) and demote it to longs when possible.
+	 */
+	private static Rational reduce(BigInteger p, BigInteger q) {
+		if(q.signum() < 0) {
+			p = p.negate();
+			q = q.negate();
+		}
+		BigInteger gcd = p.gcd(q);
+		Rational.count(Operation.GCD);
+		if(!gcd.equals(BigInteger.ONE)) {
+			p = p.divide(gcd);
+			q = q.divide(gcd);
+		}
+		if(p.bitLength() < 64 && q.bitLength() < 64 && !p.equals(Rational.LONG_MIN)) {
+			return new Rational(p.longValue(), q.longValue(), null, null);
+		}
+		return new Rational(0, 1, p, q);
+	}
+
+	/*
+	 * Reduce long fraction (q > 0), falls back to BigInteger when p can't be negated safely.
+	 */
+	private static Rational reduce(long p, long q) {
+		if(p == Long.MIN_VALUE) {
+			return Rational.reduce(BigInteger.valueOf(p), BigInteger.valueOf(q));
+		}
+		long gcd = Rational.gcd(p, q);
+		return new Rational(p / gcd, q / gcd, null, null);
+	}
+
+	/*
+	 * Check if this fraction is kept in the BigInteger representation.
+	 */
+	private boolean isBig() {
+		return this.bp != null;
+	}
+
+	private BigInteger bigP() {
+		return (this.bp != null) ? (this.bp) : (BigInteger.valueOf(this.p));
+	}
+
+	private BigInteger bigQ() {
+		return (this.bq != null) ? (this.bq) : (BigInteger.valueOf(this.q));
+	}
+
+	/*
+	 * Check if both components fit in long (then longNumerator/longDenominator are meaningful).
+	 */
+	public boolean isLong() {
+		return !this.isBig();
+	}
+
+	public long longNumerator() {
+		return this.p;
+	}
+
+	public long longDenominator() {
+		return this.q;
+	}
+
+	public BigInteger getNumerator() {
+		return this.bigP();
+	}
+
+	public BigInteger getDenominator() {
+		return this.bigQ();
+	}
+
 	/*
 	 * Return the negative of this fraction.
 	 */
 	public Rational negative() {
-		return new Rational(-this.p, this.q);
+		if(this.isBig()) {
+			return Rational.reduce(this.bp.negate(), this.bq);
+		}
+		return new Rational(-this.p, this.q, null, null);
 	}
-	
+
 	/*
 	 * Return the reciprocal of this fraction.
 	 */
 	public Rational reciprocal() {
+		if(this.isBig()) {
+			return Rational.reduce(this.bq, this.bp);
+		}
 		return new Rational(this.q, this.p);
 	}
-	
+
+	/*
+	 * Sign of this fraction (-1, 0 or 1).
+	 */
+	public int signum() {
+		if(this.isBig()) {
+			return this.bp.signum();
+		}
+		return Long.signum(this.p);
+	}
+
+	public boolean isZero() {
+		return !this.isBig() && this.p == 0;
+	}
+
+	/*
+	 * Approximate value of this fraction.
+	 */
+	public double doubleValue() {
+		if(this.isBig()) {
+			return new java.math.BigDecimal(this.bp).divide(new java.math.BigDecimal(this.bq), java.math.MathContext.DECIMAL64).doubleValue();
+		}
+		return (double)this.p / (double)this.q;
+	}
+
+	public float floatValue() {
+		return (float)this.doubleValue();
+	}
+
+	/*
+	 * Integer part of this fraction (truncated toward zero).
+	 */
+	public long longValue() {
+		return (this.isBig()) ? (this.bp.divide(this.bq).longValue()) : (this.p / this.q);
+	}
+
+	public int intValue() {
+		return (int)this.longValue();
+	}
+
 	/*
 	 * Check if two fractions are equals.
 	 * (non-Javadoc)
@@ -68,69 +266,129 @@ public class Rational implements Comparable<Rational> {
 	 */
 	@Override
 	public boolean equals(Object obj) {
-		Boolean result = false;
+		boolean result = false;
 		if(obj instanceof Rational) {
 			Rational r = (Rational)obj;
-			result = (this.p.equals(r.p)) && (this.q.equals(r.q));
+			if(this.isBig() || r.isBig()) {
+				result = this.isBig() && r.isBig() && this.bp.equals(r.bp) && this.bq.equals(r.bq);
+			}
+			else {
+				result = (this.p == r.p) && (this.q == r.q);
+			}
 		}
 		return result;
 	}
-	
+
+	@Override
+	public int hashCode() {
+		if(this.isBig()) {
+			return 31 * this.bp.hashCode() + this.bq.hashCode();
+		}
+		return 31 * Long.hashCode(this.p) + Long.hashCode(this.q);
+	}
+
 	/*
 	 * Find the greatest common divisor of two numbers.
 	 */
-	private static Integer gcd(Integer a, Integer b) {
-		Integer t;
-		if(a > b) {
-			t = b;
-			b = a;
-			a = t;
-		}
+	private static long gcd(long a, long b) {
+		Rational.count(Operation.GCD);
+		a = Math.abs(a);
+		b = Math.abs(b);
+		long t;
 		while(b != 0) {
 			t = a % b;
 			a = b;
 			b = t;
 		}
-		return Math.abs(a);
+		return (a == 0) ? (1) : (a);
 	}
-	
+
 	/*
 	 * Multiply this fraction with given one and return the result.
 	 */
 	public Rational multiply(Rational r) {
-		Rational result = new Rational(this.p * r.p, this.q * r.q);
-		Integer gcd = Rational.gcd(result.p, result.q);
-		result.p /= gcd;
-		result.q /= gcd;
-		return result;
+		Rational.count(Operation.MULTIPLY);
+		return this.product(r);
 	}
-	
+
+	/*
+	 * The product of multiply and divide (counted by them).
+	 */
+	private Rational product(Rational r) {
+		if(this.isZero() || r.isZero()) {
+			return Rational.ZERO;
+		}
+		if(!this.isBig() && !r.isBig()) {
+			// cross reduction keeps the intermediate values small, the result is already reduced
+			long g1 = Rational.gcd(this.p, r.q);
+			long g2 = Rational.gcd(r.p, this.q);
+			try {
+				long rp = Math.multiplyExact(this.p / g1, r.p / g2);
+				long rq = Math.multiplyExact(this.q / g2, r.q / g1);
+				if(rp != Long.MIN_VALUE) {
+					return new Rational(rp, rq, null, null);
+				}
+			}
+			catch(ArithmeticException e) {
+				// overflow, continue with BigInteger
+			}
+		}
+		return Rational.reduce(this.bigP().multiply(r.bigP()), this.bigQ().multiply(r.bigQ()));
+	}
+
 	/*
 	 * Divide this fraction with given one and return the result.
 	 */
 	public Rational divide(Rational r) {
-		return this.multiply(new Rational(r.q, r.p));
+		Rational.count(Operation.DIVIDE);
+		return this.product(r.reciprocal());
 	}
-	
+
 	/*
 	 * Add given fraction to this one and return the result.
 	 */
 	public Rational add(Rational r) {
-		Integer rp = r.q * this.p + r.p * this.q;
-		Integer rq = this.q * r.q;
-		Integer gcd = Rational.gcd(rp, rq);
-		rp /= gcd;
-		rq /= gcd;
-		return new Rational(rp, rq);
+		Rational.count(Operation.ADD);
+		return this.sum(r, false);
 	}
-	
+
 	/*
 	 * Subtract given fraction from this one and return the result.
 	 */
 	public Rational subtract(Rational r) {
-		return this.add(r.negative());
+		Rational.count(Operation.SUBTRACT);
+		return this.sum(r, true);
 	}
-	
+
+	/*
+	 * Add (or subtract) given fraction to this one.
+	 */
+	private Rational sum(Rational r, boolean subtract) {
+		if(r.isZero()) {
+			return this;
+		}
+		if(this.isZero()) {
+			return (subtract) ? (r.negative()) : (r);
+		}
+		if(!this.isBig() && !r.isBig()) {
+			long rp = (subtract) ? (-r.p) : (r.p);
+			try {
+				if(this.q == r.q) {
+					return Rational.reduce(Math.addExact(this.p, rp), this.q);
+				}
+				long g = Rational.gcd(this.q, r.q);
+				long t = Math.addExact(Math.multiplyExact(this.p, r.q / g), Math.multiplyExact(rp, this.q / g));
+				long g2 = Rational.gcd(t, g);
+				return Rational.reduce(t / g2, Math.multiplyExact(this.q / g, r.q / g2));
+			}
+			catch(ArithmeticException e) {
+				// overflow, continue with BigInteger
+			}
+		}
+		BigInteger rp = (subtract) ? (r.bigP().negate()) : (r.bigP());
+		return Rational.reduce(this.bigP().multiply(r.bigQ()).add(rp.multiply(this.bigQ())), this.bigQ().multiply(r.bigQ()));
+	}
+
 	/*
 	 * Get string representation of this fraction.
 	 * (non-Javadoc)
@@ -138,48 +396,60 @@ public class Rational implements Comparable<Rational> {
 	 */
 	@Override
 	public String toString() {
-		if(p == 0) {
+		if(this.isBig()) {
+			String sign = (this.bp.signum() > 0) ? ("+") : ("-");
+			if(this.bq.equals(BigInteger.ONE)) {
+				return sign + this.bp.abs();
+			}
+			return sign + this.bp.abs() + "/" + this.bq;
+		}
+		if(this.p == 0) {
 			return "+0";
 		}
-		Double div = this.p.doubleValue() / this.q.doubleValue();
-		if(this.p / this.q == div) {
-			Integer z = this.p / this.q;
-			if(z > 0) {
-				return "+" + z;
+		if(this.q == 1) {
+			if(this.p > 0) {
+				return "+" + this.p;
 			}
-			return z.toString();
+			return Long.toString(this.p);
 		}
 		String sign = (this.p > 0) ? ("+") : ("-");
-		return sign + Math.abs(this.p) + "/" + Math.abs(this.q); 
+		return sign + Math.abs(this.p) + "/" + this.q;
 	}
-	
+
 	/*
 	 * Parse string to fraction.
 	 */
 	public static Rational parseRational(String str) {
-		Integer slashIndex = str.indexOf("/");
-		if(slashIndex == -1) {
-			try {
-				return new Rational(Integer.parseInt(str), 1);
-			}
-			catch(NumberFormatException e) {
-				return null;
+		int slashIndex = str.indexOf("/");
+		try {
+			if(slashIndex == -1) {
+				return Rational.parseComponent(str, BigInteger.ONE);
 			}
-		}
-		else {
-			String[] pq = str.split("[/]");
-			if(pq.length == 2) {
-				try {
-					return new Rational(Integer.parseInt(pq[0]), Integer.parseInt(pq[1]));
-				}
-				catch(NumberFormatException e) {
-					return null;
+			else {
+				String[] pq = str.split("[/]");
+				if(pq.length == 2) {
+					return Rational.parseComponent(pq[0], new BigInteger(pq[1]));
 				}
 			}
 		}
+		catch(NumberFormatException e) {
+			return null;
+		}
 		return null;
 	}
 
+	private static Rational parseComponent(String p, BigInteger q) {
+		try {
+			if(q.bitLength() < 64) {
+				return new Rational(Long.parseLong(p), q.longValue());
+			}
+		}
+		catch(NumberFormatException e) {
+			// too large for long, continue with BigInteger
+		}
+		return new Rational(new BigInteger(p), q);
+	}
+
 	/*
 	 * Compare between two fractions.
 	 * (non-Javadoc)
@@ -187,27 +457,25 @@ public class Rational implements Comparable<Rational> {
 	 */
 	@Override
 	public int compareTo(Rational r) {
-		
-		if(this.equals(Rational.infinity()) && r.equals(Rational.infinity())) {
-			return 0;
-		}
-		else if(this.equals(Rational.infinity().negative()) && r.equals(Rational.infinity().negative())) {
-			return 0;
-		}
-		else if(this.equals(Rational.infinity()) || r.equals(Rational.infinity().negative())) {
-			return 1;
-		}
-		else if(this.equals(Rational.infinity().negative()) || r.equals(Rational.infinity())) {
-			return -1;
-		}
-		
-		Rational c = this.subtract(r);
-		if(c.p > 0) {
-			return 1;
+
+		Rational.count(Operation.COMPARE);
+
+		int thisSign = this.signum();
+		int rSign = r.signum();
+		if(thisSign != rSign) {
+			return (thisSign > rSign) ? (1) : (-1);
 		}
-		else if(c.p < 0) {
-			return -1;
+		if(!this.isBig() && !r.isBig()) {
+			if(this.q == r.q) {
+				return Long.compare(this.p, r.p);
+			}
+			try {
+				return Long.compare(Math.multiplyExact(this.p, r.q), Math.multiplyExact(r.p, this.q));
+			}
+			catch(ArithmeticException e) {
+				// overflow, continue with BigInteger
+			}
 		}
-		return 0;
+		return this.bigP().multiply(r.bigQ()).compareTo(r.bigP().multiply(this.bigQ()));
 	}
 }
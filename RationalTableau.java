@@ -0,0 +1,601 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+
+/*
+ * Simplex engine that works with exact fractions on the full simplex matrix.
+ * The C'j and IW rows are kept as a single objective row of Big-M numbers (C'j + IW * M),
+ * so the pricing compares both of them in one pass.
+ */
+public class RationalTableau extends Tableau implements PricingRule.Columns {
+
+	/*
+	 * The constraints rows of the simplex calculation.
+	 */
+	private Rational[][] matrix;
+
+	/*
+	 * The objective row, its last entry is the objective value.
+	 */
+	private BigMNumber[] objectiveRow;
+
+	/*
+	 * Choice of the variable that enters the basis (Dantzig's rule by default).
+	 */
+	private PricingRule pricingRule;
+
+	/*
+	 * The variables of the initial basis (1 based), their columns lead the lexicographic ratio test.
+	 */
+	private ArrayList<Integer> initialBasis;
+
+	/*
+	 * The perturbation of the B column and of the objective value (null when the B column isn't perturbed),
+	 * it is pivoted along with the B column, so it can be removed when the steps end.
+	 */
+	private Rational[] perturbation;
+	private BigMNumber objectivePerturbation;
+
+	/*
+	 * The given matrix is the full simplex matrix (constraints rows, C'j row and, with artificial variables, IW row).
+	 */
+	public RationalTableau(Rational[][] matrix, ArrayList<Integer> currentBasis, Simplex.ProblemType problemType, Boolean artificialVariablesExists, Integer totalNumberOfVariables, SolveContext context) {
+		super(currentBasis, problemType, artificialVariablesExists, totalNumberOfVariables, context);
+		int constraints = matrix.length - ((artificialVariablesExists) ? (2) : (1));
+		this.matrix = Arrays.copyOf(matrix, constraints);
+		this.objectiveRow = new BigMNumber[this.matrixRowSize()];
+		for(int cI = 0; cI < this.objectiveRow.length; cI++) {
+			this.objectiveRow[cI] = (artificialVariablesExists) ? (new BigMNumber(matrix[constraints][cI], matrix[constraints + 1][cI])) : (BigMNumber.valueOf(matrix[constraints][cI]));
+		}
+		this.setPricingRule(PricingRule.create(PricingRule.Type.DANTZIG));
+		this.initialBasis = new ArrayList<Integer>(currentBasis);
+		this.perturbation = null;
+	}
+
+	public void setPricingRule(PricingRule pricingRule) {
+		this.pricingRule = pricingRule;
+		this.pricingRule.reset(this, this.totalNumberOfVariables);
+	}
+
+	@Override
+	public void squaredNorms(double[] norms) {
+		Arrays.fill(norms, 0);
+		for(Rational[] row : this.matrix) {
+			for(int cI = 0; cI < this.totalNumberOfVariables; cI++) {
+				if(!row[cI].isZero()) {
+					double value = row[cI].doubleValue();
+					norms[cI] += value * value;
+				}
+			}
+		}
+	}
+
+	@Override
+	public int constraintsCount() {
+		return this.matrix.length;
+	}
+
+	@Override
+	public void row(int rI, double[] values) {
+		for(int cI = 0; cI < this.totalNumberOfVariables; cI++) {
+			values[cI] = this.matrix[rI][cI].doubleValue();
+		}
+	}
+
+	@Override
+	public void column(int cI, double[] values) {
+		for(int rI = 0; rI < this.matrix.length; rI++) {
+			values[rI] = this.matrix[rI][cI].doubleValue();
+		}
+	}
+
+	@Override
+	public void combination(double[] multipliers, double[] values) {
+		Arrays.fill(values, 0);
+		for(int rI = 0; rI < this.matrix.length; rI++) {
+			if(multipliers[rI] != 0) {
+				Rational[] row = this.matrix[rI];
+				for(int cI = 0; cI < this.totalNumberOfVariables; cI++) {
+					if(!row[cI].isZero()) {
+						values[cI] += multipliers[rI] * row[cI].doubleValue();
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	protected Integer rowsCount() {
+		return this.matrix.length + ((this.artificialVariablesExists) ? (2) : (1));
+	}
+
+	@Override
+	protected String cellString(Integer rI, Integer cI) {
+		if(rI < this.matrix.length) {
+			return this.matrix[rI][cI].toString();
+		}
+		return (rI.equals(this.cpjRealRowIndex())) ? (this.objectiveRow[cI].getReal().toString()) : (this.objectiveRow[cI].getM().toString());
+	}
+
+	@Override
+	public Boolean artificialWeightRemains() {
+		return !this.objectiveRow[this.bColumnIndex()].isReal();
+	}
+
+	/*
+	 * Get solutions string of the current step solutions.
+	 */
+	@Override
+	public String toSolutionsString() {
+		StringBuilder sb = new StringBuilder();
+		for(Integer rI = 0; rI < this.currentBasis.size(); rI++) {
+			sb.append("X" + this.context.getOriginalVariable(this.currentBasis.get(rI)) + " = " + this.matrix[rI][this.bColumnIndex()] + "; ");
+		}
+		BigMNumber z = this.objectiveRow[this.bColumnIndex()];
+		sb.append("Z = ");
+		if(this.artificialVariablesExists && !z.isReal()) {
+			sb.append(z.getM() + "M ");
+		}
+		sb.append(z.getReal());
+		return sb.toString();
+	}
+
+	@Override
+	public Number getBasisValue(Integer rI) {
+		return this.matrix[rI][this.bColumnIndex()];
+	}
+
+	@Override
+	public Number getObjectiveValue() {
+		return this.objectiveRow[this.bColumnIndex()].getReal();
+	}
+
+	/*
+	 * Check if there is a variable that it currently out of base and its coefficient is zero,
+	 * and no row with zero B blocks its step (a positive entry there makes the step zero).
+	 */
+	@Override
+	public Boolean notInBaseCoefficientZero() {
+		Boolean result = false;
+		for(Integer cI = 0; cI < this.matrixRowSize() - 1 && !result; cI++) {
+			if(!this.currentBasis.contains(cI + 1) && this.objectiveRow[cI].isZero()) {
+				result = true;
+				for(int rI = 0; rI < this.matrix.length && result; rI++) {
+					result = !(this.matrix[rI][cI].signum() > 0 && this.matrix[rI][this.bColumnIndex()].isZero());
+				}
+			}
+		}
+		return result;
+	}
+
+	/*
+	 * Perform one simplex step on the matrix.
+	 */
+	@Override
+	public Boolean performSimplexStep() {
+
+		SolveMetrics metrics = this.context.getMetrics();
+		metrics.enter(SolveMetrics.Phase.PRICING);
+
+		Integer[] basisReplacement = this.findBasisReplacement();
+		if(basisReplacement == null) {
+			metrics.leave();
+			this.removePerturbation();
+			/*
+			 * Without the perturbation the basis may be infeasible, at the optimum dual simplex steps restore its feasibility.
+			 */
+			return !this.dominantAtCpjFound && this.performDualSimplexStep();
+		}
+
+		this.replace(basisReplacement[0], basisReplacement[1]);
+		return true;
+	}
+
+	/*
+	 * Perform the basis replacement of a step : pivot, count, trace and log it.
+	 */
+	private void replace(Integer inToBasis, Integer outFromBasis) {
+
+		SolveMetrics metrics = this.context.getMetrics();
+		Rational pivot = this.matrix[this.currentBasis.indexOf(outFromBasis)][inToBasis - 1];
+
+//		this.context.getLog().writeln("Basis replacement : in = " + inToBasis + ", out = " + outFromBasis + ", pivot = " + pivot);
+		if(this.context.getLog().isEnabled(SimLog.LogLevel.STEP)) {
+			this.context.getLog().writeln(SimLog.LogLevel.STEP, "Basis replacement : in -> " + this.context.getAlias(inToBasis) + ", out -> " + this.context.getAlias(outFromBasis) + ", pivot = " + pivot);
+		}
+
+		int pivotR = this.currentBasis.indexOf(outFromBasis);
+		boolean degenerate = this.matrix[pivotR][this.bColumnIndex()].isZero();
+		metrics.enter(SolveMetrics.Phase.PIVOT_UPDATE);
+		this.pivot(inToBasis, outFromBasis);
+		metrics.enter(SolveMetrics.Phase.PRICING);
+		this.pricingRule.update(this, pivotR, inToBasis - 1, outFromBasis - 1);
+		metrics.leave();
+		metrics.pivot(inToBasis, outFromBasis, pivot, degenerate);
+		// the perturbation would have to be removed at the end of the first phase, so that phase isn't perturbed
+		if(this.antiCycling.pivoted(degenerate, metrics) && this.antiCycling.getPerturbation() && !(this.twoPhase && this.artificialVariablesExists)) {
+			this.perturb();
+		}
+
+		if(this.context.getTrace() != null) {
+			BigMNumber z = this.objectiveRow[this.bColumnIndex()];
+			this.context.getTrace().step(this.context.getOriginalVariable(inToBasis), this.context.getOriginalVariable(outFromBasis), pivot, z.getReal(), z.getM());
+		}
+
+		this.context.getLog().writeln(SimLog.LogLevel.TRACE, "Performing simplex step. Suitable matrix is now :");
+		this.context.getLog().write(SimLog.LogLevel.TRACE, this::toMatrixString);
+	}
+
+	@Override
+	public void dropArtificialVariables(boolean[] artificialColumns) {
+		boolean[] redundantRows = new boolean[this.currentBasis.size()];
+		for(int rI = 0; rI < this.currentBasis.size(); rI++) {
+			if(!artificialColumns[this.currentBasis.get(rI) - 1]) {
+				continue;
+			}
+			// the basis columns are zero at this row, so any non artificial column with non zero can enter
+			int inToBasis = -1;
+			for(int cI = 0; cI < this.totalNumberOfVariables && inToBasis < 0; cI++) {
+				if(!artificialColumns[cI] && !this.matrix[rI][cI].isZero()) {
+					inToBasis = cI;
+				}
+			}
+			if(inToBasis >= 0) {
+				this.replace(inToBasis + 1, this.currentBasis.get(rI));
+			}
+			else {
+				redundantRows[rI] = true;
+			}
+		}
+
+		int[] columns = this.context.dropVariables(artificialColumns);
+		int columnsCount = 0;
+		for(boolean artificial : artificialColumns) {
+			columnsCount += (artificial) ? (0) : (1);
+		}
+		ArrayList<Rational[]> rows = new ArrayList<Rational[]>();
+		ArrayList<Integer> currentBasis = new ArrayList<Integer>();
+		for(int rI = 0; rI < this.matrix.length; rI++) {
+			if(redundantRows[rI]) {
+				continue;
+			}
+			Rational[] row = new Rational[columnsCount + 1];
+			for(int cI = 0; cI < this.totalNumberOfVariables; cI++) {
+				if(columns[cI] >= 0) {
+					row[columns[cI]] = this.matrix[rI][cI];
+				}
+			}
+			row[columnsCount] = this.matrix[rI][this.bColumnIndex()];
+			rows.add(row);
+			currentBasis.add(columns[this.currentBasis.get(rI) - 1] + 1);
+		}
+		// the second phase objective is the real part only
+		BigMNumber[] objectiveRow = new BigMNumber[columnsCount + 1];
+		for(int cI = 0; cI < this.totalNumberOfVariables; cI++) {
+			if(columns[cI] >= 0) {
+				objectiveRow[columns[cI]] = BigMNumber.valueOf(this.objectiveRow[cI].getReal());
+			}
+		}
+		objectiveRow[columnsCount] = BigMNumber.valueOf(this.objectiveRow[this.bColumnIndex()].getReal());
+		ArrayList<Integer> initialBasis = new ArrayList<Integer>();
+		for(Integer variable : this.initialBasis) {
+			if(columns[variable - 1] >= 0) {
+				initialBasis.add(columns[variable - 1] + 1);
+			}
+		}
+		this.matrix = rows.toArray(new Rational[rows.size()][]);
+		this.objectiveRow = objectiveRow;
+		this.initialBasis = initialBasis;
+		this.currentBasis.clear();
+		this.currentBasis.addAll(currentBasis);
+		this.totalNumberOfVariables = columnsCount;
+		this.artificialVariablesExists = false;
+		this.pricingRule.reset(this, this.totalNumberOfVariables);
+	}
+
+	/*
+	 * Warm start : the final tableau of a solve stays dual feasible (its objective row is unchanged)
+	 * when a bound is changed or a row is added, then dual simplex steps restore its primal feasibility.
+	 * Change the bound of the row whose initial basis variable is given (1 based, its initial column is a unit column)
+	 * by delta : the B column changes by delta times the current column of that variable, and the objective value
+	 * by delta times its zj (its objective row entry plus its given cost).
+	 */
+	public void changeBound(Integer variable, BigMNumber cost, Rational delta) {
+		int cI = variable - 1;
+		for(int rI = 0; rI < this.matrix.length; rI++) {
+			if(!this.matrix[rI][cI].isZero()) {
+				this.matrix[rI][this.bColumnIndex()] = this.matrix[rI][this.bColumnIndex()].add(this.matrix[rI][cI].multiply(delta));
+			}
+		}
+		this.objectiveRow[this.bColumnIndex()] = this.objectiveRow[this.bColumnIndex()].add(this.objectiveRow[cI].add(cost).multiply(delta));
+	}
+
+	/*
+	 * Add a row of given coefficients and bound, with a new (zero cost) variable which is its basis variable.
+	 * The row is expressed by the current basis, its basis columns are eliminated by their rows.
+	 */
+	public void addRow(Rational[] coefficients, Rational bound) {
+		int variable = this.totalNumberOfVariables;
+		for(int rI = 0; rI < this.matrix.length; rI++) {
+			Rational[] row = Arrays.copyOf(this.matrix[rI], variable + 2);
+			row[variable + 1] = row[variable];
+			row[variable] = Rational.ZERO;
+			this.matrix[rI] = row;
+		}
+		this.objectiveRow = Arrays.copyOf(this.objectiveRow, variable + 2);
+		this.objectiveRow[variable + 1] = this.objectiveRow[variable];
+		this.objectiveRow[variable] = BigMNumber.ZERO;
+
+		Rational[] row = new Rational[variable + 2];
+		for(int cI = 0; cI < variable; cI++) {
+			row[cI] = (cI < coefficients.length) ? (coefficients[cI]) : (Rational.ZERO);
+		}
+		row[variable] = Rational.ONE;
+		row[variable + 1] = bound;
+		for(int rI = 0; rI < this.matrix.length; rI++) {
+			Rational factor = row[this.currentBasis.get(rI) - 1];
+			if(factor.isZero()) {
+				continue;
+			}
+			Rational[] basisRow = this.matrix[rI];
+			for(int cI = 0; cI < row.length; cI++) {
+				if(!basisRow[cI].isZero()) {
+					row[cI] = row[cI].subtract(basisRow[cI].multiply(factor));
+				}
+			}
+		}
+
+		this.matrix = Arrays.copyOf(this.matrix, this.matrix.length + 1);
+		this.matrix[this.matrix.length - 1] = row;
+		this.currentBasis.add(variable + 1);
+		this.initialBasis.add(variable + 1);
+		this.totalNumberOfVariables = variable + 1;
+		this.pricingRule.reset(this, this.totalNumberOfVariables);
+	}
+
+	/*
+	 * Perturb the B column : the i-th of the k zero B's becomes i / (k + 1) of a thousandth of the smallest
+	 * positive B (at most 1), so the perturbed rows don't tie at the ratio test and stay below the others.
+	 */
+	private void perturb() {
+		int bColumn = this.bColumnIndex();
+		Rational smallest = Rational.ONE;
+		int zeros = 0;
+		for(int rI = 0; rI < this.matrix.length; rI++) {
+			Rational value = this.matrix[rI][bColumn];
+			if(value.isZero()) {
+				zeros++;
+			}
+			else if(value.signum() > 0 && value.compareTo(smallest) < 0) {
+				smallest = value;
+			}
+		}
+		if(zeros == 0) {
+			return;
+		}
+
+		if(this.perturbation == null) {
+			this.perturbation = new Rational[this.matrix.length];
+			Arrays.fill(this.perturbation, Rational.ZERO);
+			this.objectivePerturbation = BigMNumber.ZERO;
+		}
+		Rational unit = smallest.divide(new Rational((zeros + 1) * 1000L));
+		int i = 0;
+		for(int rI = 0; rI < this.matrix.length; rI++) {
+			if(this.matrix[rI][bColumn].isZero()) {
+				Rational amount = unit.multiply(new Rational(++i));
+				this.matrix[rI][bColumn] = amount;
+				this.perturbation[rI] = this.perturbation[rI].add(amount);
+			}
+		}
+		this.context.getMetrics().perturbation();
+		this.context.getLog().writeln(SimLog.LogLevel.STEP, "Degenerate steps, " + zeros + " zero B values were perturbed");
+	}
+
+	/*
+	 * Remove the perturbation (if any) from the B column and the objective value.
+	 */
+	public void removePerturbation() {
+		if(this.perturbation == null) {
+			return;
+		}
+		int bColumn = this.bColumnIndex();
+		for(int rI = 0; rI < this.matrix.length; rI++) {
+			if(!this.perturbation[rI].isZero()) {
+				this.matrix[rI][bColumn] = this.matrix[rI][bColumn].subtract(this.perturbation[rI]);
+			}
+		}
+		this.objectiveRow[bColumn] = this.objectiveRow[bColumn].subtract(this.objectivePerturbation);
+		this.perturbation = null;
+		this.objectivePerturbation = null;
+		this.context.getLog().writeln(SimLog.LogLevel.STEP, "The perturbation of the B column was removed");
+	}
+
+	/*
+	 * Check if all the basis variables are non negative.
+	 */
+	public Boolean primalFeasible() {
+		for(int rI = 0; rI < this.matrix.length; rI++) {
+			if(this.matrix[rI][this.bColumnIndex()].signum() < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * Perform one dual simplex step : the row of the most negative B leaves the basis,
+	 * and the column of its negative entries with the minimal ratio of objective row entry to entry enters it
+	 * (so the objective row stays dual feasible).
+	 * Returns false when the basis is primal feasible, or when no column can enter (the problem has no solution).
+	 */
+	public Boolean performDualSimplexStep() {
+
+		SolveMetrics metrics = this.context.getMetrics();
+		metrics.enter(SolveMetrics.Phase.PRICING);
+
+		int pivotR = -1;
+		Rational mostNegative = Rational.ZERO;
+		for(int rI = 0; rI < this.matrix.length; rI++) {
+			if(this.matrix[rI][this.bColumnIndex()].compareTo(mostNegative) < 0) {
+				mostNegative = this.matrix[rI][this.bColumnIndex()];
+				pivotR = rI;
+			}
+		}
+		if(pivotR < 0) {
+			metrics.leave();
+			return false;
+		}
+
+		metrics.enter(SolveMetrics.Phase.RATIO_TEST);
+		Rational[] row = this.matrix[pivotR];
+		int inToBasis = -1;
+		BigMNumber division = null;
+		for(int cI = 0; cI < this.totalNumberOfVariables; cI++) {
+			if(row[cI].signum() < 0 && !this.currentBasis.contains(cI + 1)) {
+				BigMNumber ratio = this.objectiveRow[cI].multiply(row[cI].reciprocal());
+				if(this.problemType == Simplex.ProblemType.MAXIMUM) {
+					ratio = ratio.negative();
+				}
+				if(division == null || ratio.compareTo(division) < 0) {
+					division = ratio;
+					inToBasis = cI;
+				}
+			}
+		}
+		if(inToBasis < 0) {
+			metrics.leave();
+			return false;
+		}
+
+		this.replace(inToBasis + 1, this.currentBasis.get(pivotR));
+		return true;
+	}
+
+	/*
+	 * Replace the basis variable outFromBasis by inToBasis (1 based variables), pivoting the matrix on their cell.
+	 */
+	public void pivot(Integer inToBasis, Integer outFromBasis) {
+		int pivotR = this.currentBasis.indexOf(outFromBasis);
+		int pivotC = inToBasis - 1;
+		Rational pivot = this.matrix[pivotR][pivotC];
+
+		/*
+		 * The matrix is updated in place, only the pivot column has to be saved
+		 * because it is overwritten while the other rows still need it.
+		 * The pivot row itself is normalized first and then used by all the other rows.
+		 */
+		Rational[] pivotRow = this.matrix[pivotR];
+		Rational[] pivotColumn = new Rational[this.matrix.length];
+		for(int rI = 0; rI < this.matrix.length; rI++) {
+			pivotColumn[rI] = this.matrix[rI][pivotC];
+		}
+
+		for(int cI = 0; cI < pivotRow.length; cI++) {
+			if(!pivotRow[cI].isZero()) {
+				pivotRow[cI] = pivotRow[cI].divide(pivot);
+			}
+		}
+		final Rational[] perturbation = this.perturbation;
+		if(perturbation != null) {
+			perturbation[pivotR] = perturbation[pivotR].divide(pivot);
+		}
+
+		final Rational[][] matrix = this.matrix;
+		final int pivotRowIndex = pivotR;
+		this.elimination.forEachRow(matrix.length, pivotRow.length, (rI) -> {
+			Rational factor = pivotColumn[rI];
+			/*
+			 * Rows with zero at the pivot column stay the same.
+			 */
+			if(rI == pivotRowIndex || factor.isZero()) {
+				return;
+			}
+			Rational[] row = matrix[rI];
+			for(int cI = 0; cI < row.length; cI++) {
+				if(!pivotRow[cI].isZero()) {
+					row[cI] = row[cI].subtract(pivotRow[cI].multiply(factor));
+				}
+			}
+			if(perturbation != null && !perturbation[pivotRowIndex].isZero()) {
+				perturbation[rI] = perturbation[rI].subtract(perturbation[pivotRowIndex].multiply(factor));
+			}
+		});
+
+		BigMNumber objectiveFactor = this.objectiveRow[pivotC];
+		if(!objectiveFactor.isZero()) {
+			for(int cI = 0; cI < pivotRow.length; cI++) {
+				if(!pivotRow[cI].isZero()) {
+					this.objectiveRow[cI] = this.objectiveRow[cI].subtract(objectiveFactor.multiply(pivotRow[cI]));
+				}
+			}
+			if(perturbation != null) {
+				this.objectivePerturbation = this.objectivePerturbation.subtract(objectiveFactor.multiply(perturbation[pivotR]));
+			}
+		}
+
+		this.currentBasis.set(pivotR, inToBasis);
+	}
+
+	/*
+	 * Find basis replacement : the variable chosen by the pricing rule (or by Bland's rule against cycling)
+	 * and the minimal division of the B column by the positive entries of its column, ties are broken by the anti-cycling mode.
+	 */
+	private Integer[] findBasisReplacement() {
+		Integer[] basisReplacement = new Integer[2];
+
+		int direction = (this.problemType == Simplex.ProblemType.MAXIMUM) ? (-1) : (1);
+		boolean mOnly = this.twoPhase && this.artificialVariablesExists;
+		Integer inToBasis = (this.antiCycling.bland()) ? (PricingRule.first(this.objectiveRow, this.totalNumberOfVariables, direction, mOnly)) : (this.pricingRule.choose(this.objectiveRow, this.totalNumberOfVariables, direction, mOnly));
+		Boolean dominantFound = inToBasis >= 0;
+		if(!dominantFound) {
+			this.dominantAtCpjFound = this.relevantDivisionFound = false;
+			return null;
+		}
+		basisReplacement[0] = inToBasis + 1;
+
+		this.context.getMetrics().enter(SolveMetrics.Phase.RATIO_TEST);
+		Rational division = null;
+		Integer outFromBasis = 0;
+		int pivotR = -1;
+		Boolean divisionFound = false;
+		for(Integer rI = 0; rI < this.currentBasis.size(); rI++) {
+			Rational[] row = this.matrix[rI];
+			if(row[inToBasis].signum() > 0 && row[row.length - 1].signum() >= 0) {
+				Rational ratio = row[row.length - 1].divide(row[inToBasis]);
+				int comparison = (division == null) ? (-1) : (ratio.compareTo(division));
+				if(comparison == 0 && this.antiCycling.isActive()) {
+					comparison = this.compareTies(rI, pivotR, inToBasis);
+				}
+				if(comparison < 0) {
+					division = ratio;
+					outFromBasis = this.currentBasis.get(rI);
+					pivotR = rI;
+					divisionFound = true;
+				}
+			}
+		}
+		basisReplacement[1] = outFromBasis;
+
+		if(!(dominantFound && divisionFound)) {
+			basisReplacement = null;
+		}
+
+		this.dominantAtCpjFound = dominantFound;
+		this.relevantDivisionFound = divisionFound;
+
+		return basisReplacement;
+	}
+
+	/*
+	 * Order of the rows that tie at the ratio test of given column by the anti-cycling mode : Bland's rule prefers
+	 * the smallest basis variable, the lexicographic one the smallest row divided by its pivot column entry.
+	 */
+	private int compareTies(int rI, int sI, int inToBasis) {
+		if(this.antiCycling.bland()) {
+			return this.currentBasis.get(rI).compareTo(this.currentBasis.get(sI));
+		}
+		return AntiCycling.compareRows((r, c) -> this.matrix[r][c], rI, sI, inToBasis, this.initialBasis, this.totalNumberOfVariables);
+	}
+
+}
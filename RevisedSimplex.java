@@ -0,0 +1,482 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+
+/*
+ * Revised simplex engine, works with primitive doubles.
+ * The constraints matrix (A) stays untouched, only the basis is factored (see BasisFactorization),
+ * and each step calculates just the C'j values (pricing) and the column of the entering variable.
+ */
+public class RevisedSimplex implements SimplexEngine {
+
+	/*
+	 * The linear programming problem type - minimum or maximum.
+	 */
+	private Simplex.ProblemType problemType;
+
+	/*
+	 * Rows (constraints) and columns (variables) count.
+	 */
+	private int m;
+	private int n;
+
+	/*
+	 * The constraints matrix kept by compressed columns (rows and values of the non zero entries),
+	 * and the constraints bounds.
+	 */
+	private int[][] columnRows;
+	private double[][] columnValues;
+	private double[] b;
+
+	/*
+	 * Objective coefficients, the real part and the big M part (artificial variables).
+	 */
+	private double[] realCosts;
+	private double[] artificialCosts;
+
+	/*
+	 * Indication for artificial variables in the problem.
+	 */
+	private Boolean artificialVariablesExists;
+
+	/*
+	 * The columns of the variables in the basis, and their values (B^-1 * b).
+	 */
+	private int[] basis;
+	private boolean[] inBasis;
+	private double[] basicValues;
+
+	private BasisFactorization factorization;
+
+	private FloatingPointPricing pricing;
+
+	/*
+	 * Anti-cycling of the steps.
+	 */
+	private AntiCycling antiCycling;
+
+	private double feasibilityTolerance;
+	private double pivotTolerance;
+
+	/*
+	 * Indications for :
+	 *  1. An in to base candidate has been found.
+	 *  2. An out of base cadidate has been found.
+	 */
+	private Boolean dominantAtCpjFound;
+	private Boolean relevantDivisionFound;
+
+	/*
+	 * Aliases and log of the solve.
+	 */
+	private SolveContext context;
+
+	public RevisedSimplex(ArrayList<Constraint> constraints, ObjectiveFunction objectiveFunction, Simplex.ProblemType problemType, Boolean artificialVariablesExists, Integer totalNumberOfVariables, FloatingPointTolerances tolerances, SolveContext context) {
+		this.problemType = problemType;
+		this.context = context;
+		this.artificialVariablesExists = artificialVariablesExists;
+		this.m = constraints.size();
+		this.n = totalNumberOfVariables;
+		this.feasibilityTolerance = tolerances.getFeasibility();
+		this.pivotTolerance = tolerances.getPivot();
+		this.pricing = new FloatingPointPricing(problemType, tolerances.getOptimality());
+		this.antiCycling = AntiCycling.none();
+		this.dominantAtCpjFound = this.relevantDivisionFound = false;
+
+		this.b = new double[this.m];
+		this.basis = new int[this.m];
+		this.inBasis = new boolean[this.n];
+		int[] columnSizes = new int[this.n];
+		for(int rI = 0; rI < this.m; rI++) {
+			ArrayList<Rational> coeffs = constraints.get(rI).getCoefficients();
+			for(int cI = 0; cI < coeffs.size(); cI++) {
+				if(!coeffs.get(cI).isZero()) {
+					columnSizes[cI]++;
+				}
+			}
+		}
+		this.columnRows = new int[this.n][];
+		this.columnValues = new double[this.n][];
+		for(int cI = 0; cI < this.n; cI++) {
+			this.columnRows[cI] = new int[columnSizes[cI]];
+			this.columnValues[cI] = new double[columnSizes[cI]];
+			columnSizes[cI] = 0;
+		}
+		for(int rI = 0; rI < this.m; rI++) {
+			ArrayList<Rational> coeffs = constraints.get(rI).getCoefficients();
+			for(int cI = 0; cI < coeffs.size(); cI++) {
+				if(!coeffs.get(cI).isZero()) {
+					this.columnRows[cI][columnSizes[cI]] = rI;
+					this.columnValues[cI][columnSizes[cI]] = coeffs.get(cI).doubleValue();
+					columnSizes[cI]++;
+				}
+			}
+			this.b[rI] = constraints.get(rI).getBound().doubleValue();
+			// the last variable of each constraint is its slake/artificial variable
+			this.basis[rI] = coeffs.size() - 1;
+			this.inBasis[coeffs.size() - 1] = true;
+		}
+
+		this.realCosts = new double[this.n];
+		this.artificialCosts = new double[this.n];
+		ArrayList<BigMNumber> coeffs = objectiveFunction.getCoefficients();
+		for(int cI = 0; cI < this.n && cI < coeffs.size(); cI++) {
+			this.realCosts[cI] = coeffs.get(cI).getReal().doubleValue();
+			this.artificialCosts[cI] = coeffs.get(cI).getM().doubleValue();
+		}
+
+		this.factorization = new BasisFactorization(this.m, BasisFactorization.DEFAULT_REFACTORIZATION_FREQUENCY, this.pivotTolerance);
+		this.refactor();
+	}
+
+	/*
+	 * Factor the current basis and recalculate the values of the basic variables.
+	 */
+	private void refactor() {
+		double[][] basisColumns = new double[this.m][];
+		for(int rI = 0; rI < this.m; rI++) {
+			basisColumns[rI] = this.denseColumn(this.basis[rI]);
+		}
+		if(!this.factorization.factor(basisColumns)) {
+			throw new IllegalStateException("Singular basis");
+		}
+		this.basicValues = this.factorization.ftran(this.b);
+	}
+
+	/*
+	 * Scatter compressed column of the constraints matrix.
+	 */
+	private double[] denseColumn(int cI) {
+		double[] column = new double[this.m];
+		int[] rows = this.columnRows[cI];
+		double[] values = this.columnValues[cI];
+		for(int k = 0; k < rows.length; k++) {
+			column[rows[k]] = values[k];
+		}
+		return column;
+	}
+
+	/*
+	 * Simplex multipliers of given costs : y = cB * B^-1.
+	 */
+	private double[] multipliers(double[] costs) {
+		double[] basicCosts = new double[this.m];
+		for(int rI = 0; rI < this.m; rI++) {
+			basicCosts[rI] = costs[this.basis[rI]];
+		}
+		return this.factorization.btran(basicCosts);
+	}
+
+	/*
+	 * C'j values (zj - cj) of given costs, zero for the basic variables.
+	 */
+	private double[] reducedCosts(double[] costs) {
+		double[] y = this.multipliers(costs);
+		double[] cpj = new double[this.n];
+		for(int cI = 0; cI < this.n; cI++) {
+			if(this.inBasis[cI]) {
+				continue;
+			}
+			int[] rows = this.columnRows[cI];
+			double[] values = this.columnValues[cI];
+			double zj = 0;
+			for(int k = 0; k < rows.length; k++) {
+				zj += y[rows[k]] * values[k];
+			}
+			cpj[cI] = zj - costs[cI];
+		}
+		return cpj;
+	}
+
+	/*
+	 * Objective value of given costs at the current basis.
+	 */
+	private double objectiveValue(double[] costs) {
+		double z = 0;
+		for(int rI = 0; rI < this.m; rI++) {
+			z += costs[this.basis[rI]] * this.basicValues[rI];
+		}
+		return z;
+	}
+
+	@Override
+	public Boolean performSimplexStep() {
+
+		SolveMetrics metrics = this.context.getMetrics();
+		metrics.enter(SolveMetrics.Phase.PRICING);
+		double[] cpjRealRow = this.reducedCosts(this.realCosts);
+		double[] cpjArtificialRow = (this.artificialVariablesExists) ? (this.reducedCosts(this.artificialCosts)) : (null);
+		// against cycling Bland's rule is used in every mode, since the ratio ties are within the tolerance
+		int inToBasis = (this.antiCycling.isActive()) ? (this.pricing.findFirstInToBasis(cpjRealRow, cpjArtificialRow, this.n)) : (this.pricing.findInToBasis(cpjRealRow, cpjArtificialRow, this.n));
+
+		metrics.enter(SolveMetrics.Phase.RATIO_TEST);
+		double[] enteringColumn = null;
+		int pivotR = -1;
+		if(inToBasis >= 0) {
+			enteringColumn = this.factorization.ftran(this.denseColumn(inToBasis));
+			pivotR = this.findOutFromBasisRow(enteringColumn);
+		}
+		metrics.leave();
+
+		this.dominantAtCpjFound = inToBasis >= 0;
+		this.relevantDivisionFound = pivotR >= 0;
+
+		if(!(this.dominantAtCpjFound && this.relevantDivisionFound)) {
+			return false;
+		}
+
+		this.replace(pivotR, inToBasis, enteringColumn);
+		return true;
+	}
+
+	/*
+	 * Perform the basis replacement of a step at given row, with the (B^-1 * A) column of the entering variable :
+	 * update the basic values and the factorization, count, trace and log it.
+	 */
+	private void replace(int pivotR, int inToBasis, double[] enteringColumn) {
+
+		SolveMetrics metrics = this.context.getMetrics();
+
+		if(this.context.getLog().isEnabled(SimLog.LogLevel.STEP)) {
+			this.context.getLog().writeln(SimLog.LogLevel.STEP, "Basis replacement : in -> " + this.context.getAlias(inToBasis + 1) + ", out -> " + this.context.getAlias(this.basis[pivotR] + 1) + ", pivot = " + FloatingPointTableau.format(enteringColumn[pivotR]));
+		}
+
+		boolean degenerate = this.basicValues[pivotR] <= this.feasibilityTolerance;
+		metrics.enter(SolveMetrics.Phase.PIVOT_UPDATE);
+
+		double theta = Math.max(this.basicValues[pivotR], 0) / enteringColumn[pivotR];
+		DoubleKernels.axpy(this.basicValues, theta, enteringColumn);
+		this.basicValues[pivotR] = theta;
+
+		int outFromBasis = this.basis[pivotR];
+		this.inBasis[outFromBasis] = false;
+		this.inBasis[inToBasis] = true;
+		this.basis[pivotR] = inToBasis;
+
+		this.factorization.update(pivotR, enteringColumn);
+		if(this.factorization.refactorizationNeeded()) {
+			this.refactor();
+		}
+		metrics.leave();
+		metrics.pivot(inToBasis + 1, outFromBasis + 1, enteringColumn[pivotR], degenerate);
+		this.antiCycling.pivoted(degenerate, metrics);
+
+		if(this.context.getTrace() != null) {
+			this.context.getTrace().step(this.context.getOriginalVariable(inToBasis + 1), this.context.getOriginalVariable(outFromBasis + 1), enteringColumn[pivotR], this.objectiveValue(this.realCosts), this.objectiveValue(this.artificialCosts));
+		}
+
+		this.context.getLog().writeln(SimLog.LogLevel.TRACE, "Performing simplex step. Basis is now :");
+		this.context.getLog().write(SimLog.LogLevel.TRACE, this::toMatrixString);
+	}
+
+	@Override
+	public void setTwoPhase(Boolean twoPhase) {
+		this.pricing.setTwoPhase(twoPhase);
+	}
+
+	@Override
+	public void setAntiCycling(AntiCycling antiCycling) {
+		this.antiCycling = antiCycling;
+	}
+
+	/*
+	 * The revised engine has no IW row, the artificial columns and the constraints made redundant are dropped from A,
+	 * and the basis is factored again.
+	 */
+	@Override
+	public void dropArtificialVariables(boolean[] artificialColumns) {
+		boolean[] redundantRows = new boolean[this.m];
+		boolean[] droppedPositions = new boolean[this.m];
+		for(int rI = 0; rI < this.m; rI++) {
+			if(!artificialColumns[this.basis[rI]]) {
+				continue;
+			}
+			// row of B^-1 * A at the artificial variable, the non artificial column with its largest entry enters
+			double[] unit = new double[this.m];
+			unit[rI] = 1;
+			double[] rowMultipliers = this.factorization.btran(unit);
+			int inToBasis = -1;
+			double largest = this.pivotTolerance;
+			for(int cI = 0; cI < this.n; cI++) {
+				if(artificialColumns[cI] || this.inBasis[cI]) {
+					continue;
+				}
+				double value = 0;
+				for(int k = 0; k < this.columnRows[cI].length; k++) {
+					value += rowMultipliers[this.columnRows[cI][k]] * this.columnValues[cI][k];
+				}
+				if(Math.abs(value) > largest) {
+					largest = Math.abs(value);
+					inToBasis = cI;
+				}
+			}
+			if(inToBasis >= 0) {
+				this.replace(rI, inToBasis, this.factorization.ftran(this.denseColumn(inToBasis)));
+			}
+			else {
+				// the constraint of the artificial variable is a combination of the others
+				redundantRows[this.columnRows[this.basis[rI]][0]] = true;
+				droppedPositions[rI] = true;
+			}
+		}
+
+		int[] columns = this.context.dropVariables(artificialColumns);
+		int[] rows = new int[this.m];
+		int m = 0;
+		for(int rI = 0; rI < this.m; rI++) {
+			rows[rI] = (redundantRows[rI]) ? (-1) : (m++);
+		}
+		int n = 0;
+		for(int cI = 0; cI < this.n; cI++) {
+			if(columns[cI] < 0) {
+				continue;
+			}
+			int size = 0;
+			for(int k = 0; k < this.columnRows[cI].length; k++) {
+				size += (rows[this.columnRows[cI][k]] >= 0) ? (1) : (0);
+			}
+			int[] columnRows = new int[size];
+			double[] columnValues = new double[size];
+			size = 0;
+			for(int k = 0; k < this.columnRows[cI].length; k++) {
+				if(rows[this.columnRows[cI][k]] >= 0) {
+					columnRows[size] = rows[this.columnRows[cI][k]];
+					columnValues[size] = this.columnValues[cI][k];
+					size++;
+				}
+			}
+			this.columnRows[n] = columnRows;
+			this.columnValues[n] = columnValues;
+			this.realCosts[n] = this.realCosts[cI];
+			n++;
+		}
+		double[] b = new double[m];
+		int[] basis = new int[m];
+		boolean[] inBasis = new boolean[n];
+		int position = 0;
+		for(int rI = 0; rI < this.m; rI++) {
+			if(rows[rI] >= 0) {
+				b[rows[rI]] = this.b[rI];
+			}
+			if(!droppedPositions[rI]) {
+				basis[position++] = columns[this.basis[rI]];
+				inBasis[columns[this.basis[rI]]] = true;
+			}
+		}
+
+		this.m = m;
+		this.n = n;
+		this.columnRows = Arrays.copyOf(this.columnRows, n);
+		this.columnValues = Arrays.copyOf(this.columnValues, n);
+		this.realCosts = Arrays.copyOf(this.realCosts, n);
+		this.artificialCosts = new double[n];
+		this.b = b;
+		this.basis = basis;
+		this.inBasis = inBasis;
+		this.artificialVariablesExists = false;
+		this.factorization = new BasisFactorization(this.m, BasisFactorization.DEFAULT_REFACTORIZATION_FREQUENCY, this.pivotTolerance);
+		this.refactor();
+	}
+
+	/*
+	 * Find the row of the variable that should leave the basis (ratio test), -1 if there is no such one.
+	 */
+	private int findOutFromBasisRow(double[] enteringColumn) {
+		if(this.antiCycling.isActive()) {
+			return DoubleKernels.blandRatioTest(this.basicValues, enteringColumn, this.m, this.basis, this.feasibilityTolerance, this.pivotTolerance);
+		}
+		return DoubleKernels.ratioTest(this.basicValues, enteringColumn, this.m, this.feasibilityTolerance, this.pivotTolerance);
+	}
+
+	@Override
+	public Boolean getDominantAtCpjFound() {
+		return this.dominantAtCpjFound;
+	}
+
+	@Override
+	public Boolean getRelevantDivisionFound() {
+		return this.relevantDivisionFound;
+	}
+
+	@Override
+	public Boolean artificialWeightRemains() {
+		return Math.abs(this.objectiveValue(this.artificialCosts)) > this.feasibilityTolerance;
+	}
+
+	@Override
+	public Boolean notInBaseCoefficientZero() {
+		double[] cpjRealRow = this.reducedCosts(this.realCosts);
+		double[] cpjArtificialRow = (this.artificialVariablesExists) ? (this.reducedCosts(this.artificialCosts)) : (null);
+		for(int cI = 0; cI < this.n; cI++) {
+			if(!this.inBasis[cI] && this.pricing.zero(cpjRealRow[cI]) && (cpjArtificialRow == null || this.pricing.zero(cpjArtificialRow[cI])) && !this.stepBlocked(cI)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * Check if a basic variable at zero (within the feasibility tolerance) has positive entry at the (B^-1 * A) column
+	 * of given variable, so the variable can enter only with a zero step.
+	 */
+	private boolean stepBlocked(int cI) {
+		double[] column = this.factorization.ftran(this.denseColumn(cI));
+		for(int rI = 0; rI < this.m; rI++) {
+			if(Math.abs(this.basicValues[rI]) <= this.feasibilityTolerance && column[rI] > this.pivotTolerance) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public ArrayList<Integer> getCurrentBasis() {
+		ArrayList<Integer> currentBasis = new ArrayList<Integer>();
+		for(int rI = 0; rI < this.m; rI++) {
+			currentBasis.add(this.basis[rI] + 1);
+		}
+		return currentBasis;
+	}
+
+	@Override
+	public String toSolutionsString() {
+		StringBuilder sb = new StringBuilder();
+		for(int rI = 0; rI < this.m; rI++) {
+			sb.append("X" + this.context.getOriginalVariable(this.basis[rI] + 1) + " = " + FloatingPointTableau.format(this.basicValues[rI]) + "; ");
+		}
+		sb.append("Z = ");
+		if(this.artificialVariablesExists) {
+			double mz = this.objectiveValue(this.artificialCosts);
+			if(Math.abs(mz) > this.feasibilityTolerance) {
+				sb.append(FloatingPointTableau.format(mz) + "M ");
+			}
+		}
+		sb.append(FloatingPointTableau.format(this.objectiveValue(this.realCosts)));
+		return sb.toString();
+	}
+
+	@Override
+	public Number getBasisValue(Integer rI) {
+		return this.basicValues[rI];
+	}
+
+	@Override
+	public Number getObjectiveValue() {
+		return this.objectiveValue(this.realCosts);
+	}
+
+	/*
+	 * The revised engine doesn't keep the simplex matrix, so only the basis and its values are written.
+	 */
+	@Override
+	public String toMatrixString() {
+		StringBuilder sb = new StringBuilder();
+		for(int rI = 0; rI < this.m; rI++) {
+			sb.append(String.format("%10s|", this.context.getAlias(this.basis[rI] + 1)));
+			sb.append(String.format("%10s", FloatingPointTableau.format(this.basicValues[rI])));
+			sb.append("\n");
+		}
+		return sb.toString();
+	}
+
+}
@@ -1,8 +1,20 @@
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.function.Supplier;
 
 
+/*
+ * Log of the simulation and the solve.
+ * Each message has a level, and only the messages up to the level of the log are written :
+ *  SUMMARY - the problem and its final solution.
+ *  STEP - the normalized problem and each basis replacement.
+ *  TRACE - the simplex matrix after each step.
+ * The checks are cheap, so the callers of the hot path check isEnabled (or supply the message lazily)
+ * and build nothing when the level is off.
+ * The file log is written asynchronously (see AsyncLogSink), so the solve doesn't wait for the disk.
+ */
 public class SimLog {
 	
 	enum LogStreamType {
@@ -10,35 +22,144 @@ public class SimLog {
 		SYS_OUT_STREAM
 	}
 	
-	private static LogStreamType streamType = LogStreamType.FILE_STREAM;
+	enum LogLevel {
+		OFF,
+		SUMMARY,
+		STEP,
+		TRACE
+	}
+	
+	private LogStreamType streamType;
+	
+	private PrintStream writer;
 	
-	private static PrintStream writer = null;
+	/*
+	 * Asynchronous destination, used instead of the writer when not null.
+	 */
+	private AsyncLogSink sink;
 	
-	public static void setStreamType(LogStreamType streamType) {
+	private LogLevel level;
+	
+	public SimLog(LogStreamType streamType) {
 		if(streamType == LogStreamType.FILE_STREAM) {
 			try {
-				SimLog.writer = new PrintStream(new FileOutputStream("SimLog.txt"));
-			} catch (FileNotFoundException e) {
+				this.sink = new AsyncLogSink(Paths.get("SimLog.txt"), AsyncLogSink.DEFAULT_CAPACITY, AsyncLogSink.OverflowPolicy.BLOCK);
+			} catch (IOException e) {
 				e.printStackTrace();
+				this.writer = new PrintStream(OutputStream.nullOutputStream());
 			}
 		}
 		else if(streamType == LogStreamType.SYS_OUT_STREAM) {
-			SimLog.writer = new PrintStream(System.out);
+			this.writer = new PrintStream(System.out);
+		}
+		this.streamType = streamType;
+		this.level = LogLevel.TRACE;
+	}
+	
+	/*
+	 * Log on given stream, the stream is closed with the log.
+	 */
+	public SimLog(PrintStream writer) {
+		this.writer = writer;
+		this.streamType = LogStreamType.FILE_STREAM;
+		this.level = LogLevel.TRACE;
+	}
+	
+	/*
+	 * Log on given asynchronous sink, the sink is closed with the log.
+	 */
+	public SimLog(AsyncLogSink sink) {
+		this.sink = sink;
+		this.streamType = LogStreamType.FILE_STREAM;
+		this.level = LogLevel.TRACE;
+	}
+	
+	/*
+	 * Log that discards its output.
+	 */
+	public static SimLog discarding() {
+		SimLog log = new SimLog(new PrintStream(OutputStream.nullOutputStream()));
+		log.setLevel(LogLevel.OFF);
+		return log;
+	}
+	
+	public LogLevel getLevel() {
+		return this.level;
+	}
+	
+	public void setLevel(LogLevel level) {
+		this.level = level;
+	}
+	
+	/*
+	 * Check if the messages of given level are written.
+	 */
+	public boolean isEnabled(LogLevel level) {
+		return level != LogLevel.OFF && level.compareTo(this.level) <= 0;
+	}
+	
+	/*
+	 * Messages without level are summary messages.
+	 */
+	public void write(String text) {
+		this.write(LogLevel.SUMMARY, text);
+	}
+	
+	public void writeln(String text) {
+		this.writeln(LogLevel.SUMMARY, text);
+	}
+	
+	public void write(LogLevel level, String text) {
+		if(this.isEnabled(level)) {
+			this.print(text, false);
+		}
+	}
+	
+	public void writeln(LogLevel level, String text) {
+		if(this.isEnabled(level)) {
+			this.print(text, true);
+		}
+	}
+	
+	/*
+	 * Lazy messages, the supplier is called only if the level is enabled.
+	 */
+	public void write(LogLevel level, Supplier<String> text) {
+		if(this.isEnabled(level)) {
+			this.print(text.get(), false);
 		}
-		SimLog.streamType = streamType;
 	}
-			
-	public static void write(String text) {
-		SimLog.writer.print(text);
+	
+	public void writeln(LogLevel level, Supplier<String> text) {
+		if(this.isEnabled(level)) {
+			this.print(text.get(), true);
+		}
 	}
 	
-	public static void writeln(String text) {
-		SimLog.writer.println(text);
+	private void print(String text, boolean newLine) {
+		if(this.sink != null) {
+			this.sink.offer(text, newLine);
+		}
+		else if(newLine) {
+			this.writer.println(text);
+		}
+		else {
+			this.writer.print(text);
+		}
 	}
 	
-	public static void close() {
-		if(SimLog.streamType == LogStreamType.FILE_STREAM) {
-			SimLog.writer.close();
+	/*
+	 * Close the log, all the messages are written before it returns.
+	 */
+	public void close() {
+		if(this.sink != null) {
+			this.sink.close();
+		}
+		else if(this.streamType == LogStreamType.FILE_STREAM) {
+			this.writer.close();
+		}
+		else {
+			this.writer.flush();
 		}
 	}
 	
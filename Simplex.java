@@ -1,5 +1,7 @@
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.function.BooleanSupplier;
 
 
 
@@ -10,12 +12,35 @@ public class Simplex {
 		MAXIMUM
 	}
 
+	enum EngineType {
+		EXACT,
+		FLOATING,
+		SPARSE,
+		REVISED
+	}
+
+	/*
+	 * Handling of the artificial variables :
+	 *  BIG_M - single phase, the big M weights are kept in the IW row which dominates the C'j row.
+	 *  TWO_PHASE - the first phase minimizes the artificial variables sum (the IW row) alone,
+	 *              then their columns and the IW row are dropped and the second phase goes on with the C'j row.
+	 */
+	enum ArtificialVariablesMethod {
+		BIG_M,
+		TWO_PHASE
+	}
+
+	/*
+	 * LIMIT_REACHED - the solve was stopped by its limits or cancellation (see SolveLimits), at its current basis.
+	 * It follows UNKNOWN so the types recorded in traces keep their values.
+	 */
 	enum SolutionType {
 		SINGLE,
 		INFINIT,
 		UNBOUND,
 		NONE,
-		UNKNOWN
+		UNKNOWN,
+		LIMIT_REACHED
 	}
 
 	private static String[] solutionTypesStrings = 
@@ -23,20 +48,21 @@ public class Simplex {
 		"The problem ended with single solution",
 		"The problem ended with infinit solution",
 		"The problem ended with unbound solution",
-		"The problem ended with no solution"
+		"The problem ended with no solution",
+		"The problem ended with unknown solution",
+		"The problem was stopped by its limits"
 		};
 
-	private static HashMap<Integer, String> variablesAliases;
-	public static HashMap<Integer, String> getAliases() {
-		return Simplex.variablesAliases;
-	}
-	private static Boolean constraintsProcessed;
-	public static Boolean getConstraintsProcessed() {
-		return Simplex.constraintsProcessed;
-	}
+	/*
+	 * The constraints and objective function of the linear programming problem as it was given (and changed by
+	 * addConstraint/changeBound), the solves don't change them.
+	 */
+	private ArrayList<Constraint> problemConstraints;
+	private ObjectiveFunction problemObjectiveFunction;
 
 	/*
-	 * The constraints and objective function of the linear programming problem.
+	 * The constraints and objective function of the current solve : copies of the problem,
+	 * presolved and completed with the slake/artificial variables.
 	 */
 	private ArrayList<Constraint> constraints;
 	private ObjectiveFunction objectiveFunction;
@@ -56,6 +82,11 @@ public class Simplex {
 	 */
 	private Integer totalNumberOfVariables;
 
+	/*
+	 * Number of the original variables of the problem.
+	 */
+	private Integer originalNumberOfVariables;
+
 	/*
 	 * The current indices of the variables in the basis.
 	 */
@@ -67,26 +98,112 @@ public class Simplex {
 	private Boolean artificialVariablesExists;
 
 	/*
-	 * Indications for :
-	 *  1. An in to base candidate has been found.
-	 *  2. An out of base cadidate has been found.
+	 * The engine which performs the simplex steps on the matrix.
+	 */
+	private SimplexEngine engine;
+
+	/*
+	 * Handling of the artificial variables.
+	 */
+	private ArtificialVariablesMethod artificialVariablesMethod;
+
+	/*
+	 * Tolerances of the floating point engines.
+	 */
+	private FloatingPointTolerances tolerances;
+
+	/*
+	 * Pricing rule of the exact engines.
+	 */
+	private PricingRule.Type pricingRule;
+
+	/*
+	 * Anti-cycling mode, the consecutive degenerate pivots that switch it on, and perturbation of the exact engine.
+	 */
+	private AntiCycling.Mode antiCyclingMode;
+	private Integer degeneratePivotsLimit;
+	private Boolean perturbation;
+
+	/*
+	 * Runner of the rows update of the full matrix engines.
+	 */
+	private ParallelElimination elimination;
+
+	/*
+	 * Aliases, processed state and log of this solver.
+	 */
+	private SolveContext context;
+
+	/*
+	 * Presolve the problem before solving, and the presolve of the last solve (null when it wasn't presolved).
+	 */
+	private Boolean presolveEnabled;
+	private Presolve presolve;
+
+	/*
+	 * Detail of the metrics of each solve.
 	 */
-	private Boolean dominantAtCpjFound;
-	private Boolean relevantDivisionFound;
+	private SolveMetrics.Detail metricsDetail;
 
 	/*
-	 * Initialize simplex solver.
+	 * Limits and cancellation of the solves, the deadline of the current solve on the System.nanoTime scale
+	 * (null when there is none) and the reason the last solve was stopped (null when it wasn't).
+	 */
+	private SolveLimits limits;
+	private CancellationToken cancellationToken;
+	private Long deadlineNanos;
+	private SolveLimits.Reason limitReason;
+
+	/*
+	 * Classification of the last solve (UNKNOWN before solving).
+	 */
+	private SolutionType solutionType;
+
+	/*
+	 * Indication that the last solve can be warm started (see reoptimize).
+	 */
+	private Boolean warmStartAvailable;
+
+	/*
+	 * Initialize simplex solver which logs to the standard output.
 	 */
 	public Simplex(ArrayList<Constraint> constraints, ObjectiveFunction objectiveFunction) {
-		this.constraints = constraints;
-		this.objectiveFunction = objectiveFunction;
+		this(constraints, objectiveFunction, new SimLog(SimLog.LogStreamType.SYS_OUT_STREAM));
+	}
+
+	/*
+	 * Initialize simplex solver with given log.
+	 * The solver works on its own copies of the constraints and objective function,
+	 * so the same problem objects can be handed to several solvers.
+	 */
+	public Simplex(ArrayList<Constraint> constraints, ObjectiveFunction objectiveFunction, SimLog log) {
+		this.problemConstraints = new ArrayList<Constraint>();
+		for(Constraint c : constraints) {
+			this.problemConstraints.add(new Constraint(c));
+		}
+		this.problemObjectiveFunction = new ObjectiveFunction(objectiveFunction);
+		this.constraints = this.problemConstraints;
+		this.objectiveFunction = this.problemObjectiveFunction;
 		this.matrix = null;
 		this.problameType = null;
 		this.artificialVariablesExists = false;
-		this.dominantAtCpjFound = this.relevantDivisionFound = false;
-
-		Simplex.constraintsProcessed = false;
-		Simplex.variablesAliases = new HashMap<Integer, String>();
+		this.engine = null;
+		this.artificialVariablesMethod = ArtificialVariablesMethod.BIG_M;
+		this.tolerances = new FloatingPointTolerances();
+		this.pricingRule = PricingRule.Type.DANTZIG;
+		this.antiCyclingMode = AntiCycling.Mode.BLAND;
+		this.degeneratePivotsLimit = AntiCycling.DEFAULT_LIMIT;
+		this.perturbation = false;
+		this.elimination = ParallelElimination.SERIAL;
+		this.context = new SolveContext(log);
+		this.presolveEnabled = false;
+		this.presolve = null;
+		this.metricsDetail = SolveMetrics.Detail.BASIC;
+		this.limits = SolveLimits.NONE;
+		this.cancellationToken = null;
+		this.limitReason = null;
+		this.solutionType = SolutionType.UNKNOWN;
+		this.warmStartAvailable = false;
 	}
 
 	private Integer bColumnIndex() {
@@ -105,447 +222,631 @@ public class Simplex {
 		return (this.matrix.length - 1);
 	}
 
+	public SolveContext getContext() {
+		return this.context;
+	}
+
+	public SolutionType getSolutionType() {
+		return this.solutionType;
+	}
+
 	/*
-	 * Main procedure which performs all the steps of simplex solving.
+	 * The final solutions string of the engine (in the original variables when presolved), null before solving.
 	 */
-	public void solve() {
+	public String getSolutionsString() {
+		if(this.presolve != null) {
+			return this.presolve.toSolutionsString(this.engine);
+		}
+		return (this.engine != null) ? (this.engine.toSolutionsString()) : (null);
+	}
 
-		/*
-		 * 1. Complete the constraints with the appropriate slake/artificial variables.
-		 */
-		this.addSlakeArtificialVariables();
+	/*
+	 * Set the handling of the artificial variables (big M by default).
+	 */
+	public void setArtificialVariablesMethod(ArtificialVariablesMethod artificialVariablesMethod) {
+		this.artificialVariablesMethod = artificialVariablesMethod;
+	}
 
-		/*
-		 * 2. Move the linear programming problem to its suitable simplex matrix.
-		 */
-		this.matrixTransformation();
+	public void setTolerances(FloatingPointTolerances tolerances) {
+		this.tolerances = tolerances;
+	}
 
-		/*
-		 * 3. Perform on the matrix simplex steps until basis change can't be achieved. 
-		 */
-		while(this.performSimplexStep());
+	/*
+	 * Set the pricing rule of the exact engines (Dantzig's rule by default).
+	 */
+	public void setPricingRule(PricingRule.Type pricingRule) {
+		this.pricingRule = pricingRule;
+	}
 
-		/*
-		 * 4. Catalog the solution type according to the last state of the simplex matrix.
-		 */
-		SimLog.writeln(Simplex.solutionTypesStrings[this.classifySolution().ordinal()]);
+	/*
+	 * Set the anti-cycling of the steps (see AntiCycling) : the mode switched on after given number of consecutive
+	 * degenerate pivots, and the perturbation of the B column by the exact engine (Bland's rule after 50 pivots,
+	 * without perturbation, by default).
+	 */
+	public void setAntiCycling(AntiCycling.Mode antiCyclingMode, Integer degeneratePivotsLimit, Boolean perturbation) {
+		if(degeneratePivotsLimit < 1) {
+			throw new IllegalArgumentException("The degenerate pivots limit must be positive");
+		}
+		this.antiCyclingMode = antiCyclingMode;
+		this.degeneratePivotsLimit = degeneratePivotsLimit;
+		this.perturbation = perturbation;
+	}
 
-		/*
-		 * 5. Output stream off the final solutions 
-		 */
-		SimLog.writeln(this.toSolutionsString());
+	/*
+	 * Anti-cycling of a solve, which counts the degenerate pivots from zero.
+	 */
+	private AntiCycling antiCycling() {
+		this.context.getMetrics().setAntiCyclingMode(this.antiCyclingMode);
+		return new AntiCycling(this.antiCyclingMode, this.degeneratePivotsLimit, this.perturbation);
 	}
 
 	/*
-	 * Get solutions string of the current step solutions.
+	 * Set the runner of the rows update, for parallel elimination on the exact and floating engines.
 	 */
-	private String toSolutionsString() {
-		StringBuilder sb = new StringBuilder();
-		for(Integer rI = 0; rI < this.currentBasis.size(); rI++) {
-			sb.append("X" + this.currentBasis.get(rI) + " = " + this.matrix[rI][this.bColumnIndex()] + "; ");
-		}
-		if(this.artificialVariablesExists) {
-			Rational z = this.matrix[this.cpjRealRowIndex()][this.bColumnIndex()];
-			Rational mz = this.matrix[this.cpjArtificialRowIndex()][this.bColumnIndex()];
-			sb.append("Z = ");
-			if(!mz.equals(new Rational(0))) {
-				sb.append(mz + "M ");
-			}
-			sb.append(z);
-		}
-		else {
-			Rational z = this.matrix[this.cpjRealRowIndex()][this.bColumnIndex()];
-			sb.append("Z = " + z);
-		}
-		return sb.toString();
+	public void setElimination(ParallelElimination elimination) {
+		this.elimination = elimination;
 	}
 
 	/*
-	 * Check if there is a variable that it currently out of base and its coefficient is zero.
+	 * Record the solve in given binary trace (see PivotTrace), the trace is left open.
 	 */
-	private Boolean notInBaseCoefficientZero() {
-		Boolean result = false;
+	public void setTrace(PivotTrace trace) {
+		this.context.setTrace(trace);
+	}
 
-		Rational[] cpjRealRow = this.matrix[this.cpjRealRowIndex()];
-		Rational[] cpjArtificialRow = null;
-		if(this.artificialVariablesExists) {
-			cpjArtificialRow = this.matrix[this.cpjArtificialRowIndex()];
-		}
+	/*
+	 * Presolve the problem before the next solves (see Presolve), off by default.
+	 */
+	public void setPresolve(Boolean presolveEnabled) {
+		this.presolveEnabled = presolveEnabled;
+	}
 
-		for(Integer cI = 0; cI < this.matrixRowSize() - 1; cI++) {
-			if(!this.currentBasis.contains(cI + 1)) {
-				if(this.artificialVariablesExists) {
+	/*
+	 * Presolve of the last solve, null when it wasn't presolved.
+	 */
+	public Presolve getPresolve() {
+		return this.presolve;
+	}
 
-					if(cpjArtificialRow[cI].equals(new Rational(0)) && cpjRealRow[cI].equals(new Rational(0))) {
-						result = true;
-					}
+	/*
+	 * Set what the metrics of the next solves measure (see SolveMetrics).
+	 */
+	public void setMetricsDetail(SolveMetrics.Detail metricsDetail) {
+		this.metricsDetail = metricsDetail;
+	}
 
-				}
-				else if(cpjRealRow[cI].equals(new Rational(0))) {
-					result = true;
-				}
-			}
-		}
-		return result;
+	/*
+	 * Set the limits of the next solves (none by default).
+	 */
+	public void setLimits(SolveLimits limits) {
+		this.limits = limits;
 	}
 
 	/*
-	 * Classify the simplex solution according to the current matrix.
+	 * Set the token that cancels the next solves (null for none).
 	 */
-	private SolutionType classifySolution() {
+	public void setCancellationToken(CancellationToken cancellationToken) {
+		this.cancellationToken = cancellationToken;
+	}
 
-		SolutionType solutionType = SolutionType.UNKNOWN;
+	/*
+	 * The reason the last solve was stopped with LIMIT_REACHED, null if it wasn't.
+	 */
+	public SolveLimits.Reason getLimitReason() {
+		return this.limitReason;
+	}
 
-		/*
-		 * Check if the problem with artificial variables.
-		 */
-		if(this.artificialVariablesExists) {
+	/*
+	 * Metrics of the last solve.
+	 */
+	public SolveMetrics getMetrics() {
+		return this.context.getMetrics();
+	}
+
+	/*
+	 * Solve the problem with exact fractions.
+	 */
+	public SimplexResult solve() {
+		return this.solve(EngineType.EXACT);
+	}
+
+	/*
+	 * Main procedure which performs all the steps of simplex solving.
+	 * The exact and floating engines work on the full simplex matrix,
+	 * the sparse (exact) and revised engines work on the constraints directly.
+	 * Returns the result of the solve (which holds its metrics).
+	 */
+	public SimplexResult solve(EngineType engineType) {
+
+		SolveEvent solveEvent = new SolveEvent();
+		solveEvent.begin();
+		int constraintsCount = this.problemConstraints.size();
+		int variablesCount = (this.problemObjectiveFunction.getCoefficients() != null) ? (this.problemObjectiveFunction.getCoefficients().size()) : (0);
 
+		try {
 			/*
-			 * No one to insert to basis.
+			 * 1-2. Build the engine of the requested type on the initial simplex matrix.
 			 */
-			if(!this.dominantAtCpjFound) {
-				/*
-				 * Big M still inside the solution.
-				 */
-				if(!this.matrix[this.cpjArtificialRowIndex()][this.matrix[this.cpjArtificialRowIndex()].length - 1].equals(new Rational(0))) {
-					solutionType = SolutionType.NONE;
-				}
-				else {
-				solutionType = SolutionType.SINGLE;
-				}
-			}
+			this.startLimits();
+			this.prepare(engineType);
+
 			/*
-			 * There is a candidate to insert to the basis.
+			 * The presolve may decide the solution by itself (infeasible or nothing left to solve).
 			 */
-			else {
-				/*
-				 * But no one to put out from it.
-				 */
-				if(!this.relevantDivisionFound) {
-					solutionType = SolutionType.UNBOUND;
-				}
+			if(this.engine == null) {
+				this.solutionType = this.presolve.getSolutionType();
+				this.context.getLog().writeln(Simplex.solutionTypesStrings[this.solutionType.ordinal()]);
+				this.context.getLog().writeln(SimLog.LogLevel.SUMMARY, this::getSolutionsString);
+				return this.result();
 			}
-		}
-		else {
-			if(!this.dominantAtCpjFound) {
-				if(this.notInBaseCoefficientZero()) {
-					solutionType = SolutionType.INFINIT;
-				}
-				else {
-					solutionType = SolutionType.SINGLE;
-				}
+
+			/*
+			 * 3. Perform on the matrix simplex steps until basis change can't be achieved. 
+			 */
+			this.performSimplexSteps();
+
+			/*
+			 * In two-phase mode the steps stopped at the end of the first phase,
+			 * when the artificial variables were zeroed the second phase goes on without them.
+			 */
+			boolean artificialVariablesDropped = false;
+			if(this.artificialVariablesMethod == ArtificialVariablesMethod.TWO_PHASE && this.artificialVariablesExists && this.limitReason == null
+					&& !this.engine.getDominantAtCpjFound() && !this.engine.artificialWeightRemains()) {
+				this.engine.dropArtificialVariables(this.artificialColumns());
+				artificialVariablesDropped = true;
+				this.artificialVariablesExists = false;
+				this.context.getLog().writeln(SimLog.LogLevel.STEP, "Phase 1 ended, the artificial variables were dropped. Suitable matrix is now :");
+				this.context.getLog().write(SimLog.LogLevel.STEP, this.engine::toMatrixString);
+				this.performSimplexSteps();
 			}
-			else {
-				if(!this.relevantDivisionFound) {
-					solutionType = SolutionType.UNBOUND;
-				}
+
+			/*
+			 * 4. Catalog the solution type according to the last state of the simplex matrix.
+			 */
+			this.solutionType = (this.limitReason != null) ? (this.stoppedByLimits()) : (this.classifySolution());
+			this.context.getLog().writeln(Simplex.solutionTypesStrings[this.solutionType.ordinal()]);
+			if(this.context.getTrace() != null) {
+				this.context.getTrace().end(this.solutionType);
 			}
-		}
 
-		return solutionType;
+			// the rows of the exact tableau still match the constraints unless presolved or dropped by the second phase
+			this.warmStartAvailable = this.engine instanceof RationalTableau && this.presolve == null && !artificialVariablesDropped
+					&& (this.solutionType == SolutionType.SINGLE || this.solutionType == SolutionType.INFINIT);
 
+			/*
+			 * 5. Output stream off the final solutions 
+			 */
+			this.context.getLog().writeln(SimLog.LogLevel.SUMMARY, this::getSolutionsString);
+
+			return this.result();
+		}
+		finally {
+			// also on failure, so the thread doesn't keep counting operations
+			this.context.getMetrics().stop();
+			solveEvent.commit(engineType, constraintsCount, variablesCount, (this.totalNumberOfVariables != null) ? (this.totalNumberOfVariables) : (0), this.solutionType, this.context.getMetrics());
+		}
 	}
 
 	/*
-	 * Problem to matrix transformation for all problems types.
+	 * The exact tableau of the last solve for warm start, which needs an optimal solve with the exact engine,
+	 * without presolve and without artificial variables dropped by the two-phase method.
 	 */
-	private void matrixTransformation() {
-		if(this.artificialVariablesExists) {
-			this.matrixTransformationWithArtificialVariables();
-		}
-		else {
-			this.matrixTransformationWithoutArtificialVariables();
+	private RationalTableau warmStartTableau() {
+		if(!this.warmStartAvailable) {
+			throw new IllegalStateException("Warm start needs an optimal exact solve without presolve and dropped artificial variables");
 		}
+		return (RationalTableau)this.engine;
 	}
 
 	/*
-	 * Perform one simplex step on the matrix.
+	 * Add an inequality constraint of the original variables to the solved problem (see reoptimize),
+	 * it is completed with a new slake variable which is its basis variable.
 	 */
-	private Boolean performSimplexStep() {
-
-		Integer[] basisReplacement = null;
-		if(this.artificialVariablesExists) {
-			basisReplacement = this.findBasisReplacementWithArtificialVariables();
+	public void addConstraint(Constraint constraint) {
+		RationalTableau tableau = this.warmStartTableau();
+		if(constraint.getCurrentEqualityType() == 0) {
+			throw new IllegalArgumentException("Only inequality constraints can be added to a solved problem");
 		}
-		else {
-			basisReplacement = this.findBasisReplacementWithoutArtificialVariables();
+		if(constraint.getCoefficients().size() > this.originalNumberOfVariables) {
+			throw new IllegalArgumentException("The constraint has variables which aren't in the problem");
 		}
-		Boolean anyActionDone = false;
-
-		if(basisReplacement != null) {
 
-			anyActionDone = true;
-
-			Rational[][] afterMatrix = new Rational[this.matrix.length][];
+		/*
+		 * The slake variable of <= constraint is added, and of >= constraint is subtracted,
+		 * in that case the tableau row is negated so the slake variable can be its basis variable.
+		 */
+		Constraint c = new Constraint(constraint);
+		Rational sign = (c.getCurrentEqualityType() == -1) ? (Rational.ONE) : (Rational.ONE.negative());
+		Rational[] row = new Rational[this.totalNumberOfVariables];
+		while(c.getCoefficients().size() < this.totalNumberOfVariables) {
+			c.getCoefficients().add(Rational.ZERO);
+		}
+		for(Integer cI = 0; cI < this.totalNumberOfVariables; cI++) {
+			row[cI] = c.getCoefficients().get(cI).multiply(sign);
+		}
+		c.getCoefficients().add(sign);
+		c.setEquality(0);
+		tableau.addRow(row, c.getBound().multiply(sign));
+
+		this.constraints.add(c);
+		this.objectiveFunction.getCoefficients().add(BigMNumber.ZERO);
+		this.totalNumberOfVariables++;
+		this.problemConstraints.add(new Constraint(constraint));
+
+		// register alias of the slake variable
+		Integer slakesCounter = 0;
+		for(String alias : this.context.getAliases().values()) {
+			slakesCounter += (alias.startsWith("X")) ? (1) : (0);
+		}
+		this.context.getAliases().put(this.totalNumberOfVariables, "X" + (slakesCounter + 1));
+	}
 
-			for(Integer rI = 0; rI < afterMatrix.length; rI++) {
+	/*
+	 * Change the bound of the constraint at given index (in the order of the constraints, then the added ones)
+	 * of the solved problem (see reoptimize), the bound is of the constraint as it was given.
+	 */
+	public void changeBound(Integer constraintIndex, Rational bound) {
+		RationalTableau tableau = this.warmStartTableau();
+		Constraint c = this.constraints.get(constraintIndex);
+		Rational normalizedBound = (c.getNegated()) ? (bound.negative()) : (bound);
+
+		// the initial basis variable of the row is its last variable, its coefficient is negative when the tableau row is negated
+		ArrayList<Rational> coeffs = c.getCoefficients();
+		Rational sign = coeffs.get(coeffs.size() - 1);
+		tableau.changeBound(coeffs.size(), this.objectiveFunction.getCoefficients().get(coeffs.size() - 1), normalizedBound.subtract(c.getBound()).multiply(sign));
+		c.setBound(normalizedBound);
+		this.problemConstraints.get(constraintIndex).setBound(normalizedBound);
+	}
 
-				afterMatrix[rI] = new Rational[this.matrix[rI].length];
-				System.arraycopy(this.matrix[rI], 0, afterMatrix[rI], 0, afterMatrix[rI].length);
+	/*
+	 * Solve the problem again after constraints were added or bounds were changed, from the final basis of the last solve :
+	 * dual simplex steps until the basis is feasible (or the problem is found with no solution),
+	 * then simplex steps as usual. The trace isn't recorded, since it doesn't hold the changes.
+	 * Returns the result of the solve (which holds its metrics).
+	 */
+	public SimplexResult reoptimize() {
+		RationalTableau tableau = this.warmStartTableau();
+
+		SolveEvent solveEvent = new SolveEvent();
+		solveEvent.begin();
+		SolveMetrics metrics = new SolveMetrics(this.metricsDetail, EngineType.EXACT);
+		this.context.setMetrics(metrics);
+		metrics.start();
+		this.startLimits();
+		tableau.setAntiCycling(this.antiCycling());
+		PivotTrace trace = this.context.getTrace();
+		this.context.setTrace(null);
+
+		try {
+			this.context.getLog().writeln(SimLog.LogLevel.STEP, "Dual simplex steps from the last basis. Suitable matrix :");
+			this.context.getLog().write(SimLog.LogLevel.STEP, tableau::toMatrixString);
+			this.performSteps(tableau::performDualSimplexStep);
+
+			if(this.limitReason == null && tableau.primalFeasible()) {
+				this.performSimplexSteps();
 			}
-
-
-			Integer inToBasis = basisReplacement[0];
-			Integer outFromBasis = basisReplacement[1];
-			Integer pivotR = this.currentBasis.indexOf(outFromBasis);
-			Integer pivotC = inToBasis - 1;
-			Rational pivot = this.matrix[pivotR][pivotC];
-
-//			SimLog.writeln("Basis replacement : in = " + inToBasis + ", out = " + outFromBasis + ", pivot = " + pivot);
-			SimLog.writeln("Basis replacement : in -> " + Simplex.variablesAliases.get(inToBasis) + ", out -> " + Simplex.variablesAliases.get(outFromBasis) + ", pivot = " + pivot);
-
-			for(Integer cI = 0; cI < afterMatrix[pivotR].length; cI++) {
-				afterMatrix[pivotR][cI] =  afterMatrix[pivotR][cI].divide(pivot);
+			if(this.limitReason != null) {
+				this.solutionType = this.stoppedByLimits();
 			}
-
-			for(Integer rI = 0; rI < pivotR; rI++) {
-				for(Integer cI = 0; cI < afterMatrix[rI].length; cI++) {
-					afterMatrix[rI][cI] = this.matrix[rI][cI].subtract((this.matrix[pivotR][cI].multiply(this.matrix[rI][pivotC])).divide(pivot));
-				}
+			else if(tableau.primalFeasible()) {
+				this.solutionType = this.classifySolution();
 			}
-
-			for(Integer rI = pivotR + 1; rI < afterMatrix.length; rI++) {
-
-				for(Integer cI = 0; cI < afterMatrix[rI].length; cI++) {
-					afterMatrix[rI][cI] = this.matrix[rI][cI].subtract((this.matrix[pivotR][cI].multiply(this.matrix[rI][pivotC])).divide(pivot));
-				}
+			else {
+				this.solutionType = SolutionType.NONE;
 			}
+			this.warmStartAvailable = this.solutionType == SolutionType.SINGLE || this.solutionType == SolutionType.INFINIT;
 
-			this.currentBasis.set(pivotR, inToBasis);
+			this.context.getLog().writeln(Simplex.solutionTypesStrings[this.solutionType.ordinal()]);
+			this.context.getLog().writeln(SimLog.LogLevel.SUMMARY, this::getSolutionsString);
 
-
-			this.matrix = afterMatrix;
-			SimLog.writeln("Performing simplex step. Suitable matrix is now :");
-			SimLog.write(this.toMatrixString());
+			return this.result();
+		}
+		finally {
+			this.context.setTrace(trace);
+			metrics.stop();
+			solveEvent.commit(EngineType.EXACT, this.constraints.size(), this.originalNumberOfVariables, this.totalNumberOfVariables, this.solutionType, metrics);
 		}
-
-		return anyActionDone;
 	}
 
 	/*
-	 * Find basis replacement for problem with artificial variables (negative b's).
+	 * Result of the last solve at the current basis of the engine : the values of the original variables
+	 * (mapped back by the presolve when it was presolved), the objective value and the basis variables
+	 * (by their index before the artificial variables were dropped).
 	 */
-	private Integer[] findBasisReplacementWithArtificialVariables() {
-		Integer[] basisReplacement = new Integer[2];
-
-		ArrayList<Integer> maxArtColIndices = new ArrayList<Integer>();
-
-		Boolean dominantAtCpjFound = false;
-		Integer inToBasis = 0;
-
-		// find dominant artificial weight
-		Rational dominantArtificialWeight = new Rational(0);
-		Rational[] artificialRow = this.matrix[this.cpjArtificialRowIndex()];
-		for(Integer cI = 0; cI < artificialRow.length - 1; cI++) {
-			if(this.problameType == ProblemType.MAXIMUM) {
-				if(artificialRow[cI].compareTo(new Rational(0)) < 0 && dominantArtificialWeight.compareTo(artificialRow[cI]) > 0) {
-					dominantArtificialWeight = artificialRow[cI];
-					inToBasis = cI;
-					dominantAtCpjFound = true;
-				}
-			}
-			else if(this.problameType == ProblemType.MINIMUM) {
-				if(artificialRow[cI].compareTo(new Rational(0)) > 0 && dominantArtificialWeight.compareTo(artificialRow[cI]) < 0) {
-					dominantArtificialWeight = artificialRow[cI];
-					inToBasis = cI;
-					dominantAtCpjFound = true;
-				}
-			}
-		}
-		// find suitable artificial indices
-		for(Integer cI = 0; cI < artificialRow.length - 1; cI++) {
-			if(artificialRow[cI] == dominantArtificialWeight) {
-				maxArtColIndices.add(cI);
-			}
-		}
-		// find dominant weight around the artificial indices
-		Rational[] dominantsRow = this.matrix[this.cpjRealRowIndex()];
-		Rational dominant = new Rational(0);
-		if(dominantAtCpjFound) {
-			for(Integer cI = 0; cI < maxArtColIndices.size(); cI++) {
-				if(this.problameType == ProblemType.MAXIMUM) {
-					if(dominantsRow[maxArtColIndices.get(cI)].compareTo(new Rational(0)) < 0 && dominant.compareTo(dominantsRow[maxArtColIndices.get(cI)]) > 0) {
-						dominant = dominantsRow[maxArtColIndices.get(cI)];
-						inToBasis = maxArtColIndices.get(cI);
-					}
-				}
-				else if(this.problameType == ProblemType.MINIMUM) {
-					if(dominantsRow[maxArtColIndices.get(cI)].compareTo(new Rational(0)) > 0 && dominant.compareTo(dominantsRow[maxArtColIndices.get(cI)]) < 0) {
-						dominant = dominantsRow[maxArtColIndices.get(cI)];
-						inToBasis = maxArtColIndices.get(cI);
-					}
-				}
-			}
+	private SimplexResult result() {
+		Number[] values;
+		Number objectiveValue;
+		if(this.presolve != null) {
+			values = this.presolve.postsolve(this.engine);
+			objectiveValue = this.presolve.postsolveObjective(this.engine);
 		}
 		else {
-			for(Integer cI = 0; cI < dominantsRow.length - 1; cI++) {
-				if(this.problameType == ProblemType.MAXIMUM) {
-					if(dominantsRow[cI].compareTo(new Rational(0)) < 0 && dominant.compareTo(dominantsRow[cI]) > 0) {
-						if(artificialRow[cI].compareTo(new Rational(0)) == 0) {
-							dominant = dominantsRow[cI];
-							inToBasis = cI;
-							dominantAtCpjFound = true;
-						}
-					}
-				}
-				else if(this.problameType == ProblemType.MINIMUM) {
-					if(dominantsRow[cI].compareTo(new Rational(0)) > 0 && dominant.compareTo(dominantsRow[cI]) < 0) {
-						if(artificialRow[cI].compareTo(new Rational(0)) == 0) {
-							dominant = dominantsRow[cI];
-							inToBasis = cI;
-							dominantAtCpjFound = true;
-						}
-					}
+			objectiveValue = this.engine.getObjectiveValue();
+			values = new Number[this.originalNumberOfVariables];
+			Arrays.fill(values, (objectiveValue instanceof Rational) ? (Rational.ZERO) : ((Number)0.0));
+			ArrayList<Integer> currentBasis = this.engine.getCurrentBasis();
+			for(int rI = 0; rI < currentBasis.size(); rI++) {
+				// the variables after the original ones are slake/artificial variables
+				int variable = this.context.getOriginalVariable(currentBasis.get(rI));
+				if(variable <= this.originalNumberOfVariables) {
+					values[variable - 1] = this.engine.getBasisValue(rI);
 				}
 			}
 		}
-		basisReplacement[0] = inToBasis + 1;
-
-		// find division
-		Rational division = Rational.infinity();
-		Integer outFromBasis = 0;
-		Boolean divisionFound = false;
-		for(Integer rI = 0; rI < this.currentBasis.size(); rI++) {
-			if(this.matrix[rI][inToBasis].compareTo(new Rational(0)) > 0 && this.matrix[rI][this.matrix[rI].length - 1].compareTo(new Rational(0)) >= 0) {
-				if(this.matrix[rI][this.matrix[rI].length - 1].divide(this.matrix[rI][inToBasis]).compareTo(division) < 0) {
-					division = this.matrix[rI][this.matrix[rI].length - 1].divide(this.matrix[rI][inToBasis]);
-					outFromBasis = this.currentBasis.get(rI);
-					divisionFound = true;
-				}
-			}
+
+		int[] basis = new int[(this.engine != null) ? (this.engine.getCurrentBasis().size()) : (0)];
+		for(int rI = 0; rI < basis.length; rI++) {
+			basis[rI] = this.context.getOriginalVariable(this.engine.getCurrentBasis().get(rI));
 		}
-		basisReplacement[1] = outFromBasis;
+		return new SimplexResult(this.solutionType, this.limitReason, values, objectiveValue, basis, this.context.getMetrics());
+	}
 
-		if(!(dominantAtCpjFound && divisionFound)) {
-			basisReplacement = null;
+	/*
+	 * Perform simplex steps until basis change can't be achieved.
+	 */
+	private void performSimplexSteps() {
+		this.performSteps(this.engine::performSimplexStep);
+	}
+
+	/*
+	 * Perform given steps until they return false or a limit is reached, each one is a pivot event.
+	 */
+	private void performSteps(BooleanSupplier step) {
+		PivotEvent pivotEvent = new PivotEvent();
+		// checked once, so a disabled event costs nothing in the steps loop
+		boolean pivotEventEnabled = pivotEvent.isEnabled();
+		pivotEvent.begin();
+		while(!this.limitReached() && step.getAsBoolean()) {
+			if(pivotEventEnabled) {
+				pivotEvent.commit(this.context.getMetrics());
+				pivotEvent = new PivotEvent();
+				pivotEvent.begin();
+			}
 		}
+		this.context.getMetrics().leave();
+	}
 
-		this.dominantAtCpjFound = dominantAtCpjFound;
-		this.relevantDivisionFound = divisionFound;
+	/*
+	 * Start the limits of a solve : its deadline is taken now, and no limit was reached yet.
+	 */
+	private void startLimits() {
+		this.deadlineNanos = this.limits.deadlineNanos();
+		this.limitReason = null;
+	}
 
-		return basisReplacement;
+	/*
+	 * Check the limits before the next step (the iterations are the pivots of the solve),
+	 * the reason of a reached limit is kept.
+	 */
+	private boolean limitReached() {
+		if(this.context.getMetrics().getPivots() >= this.limits.getMaxIterations()) {
+			this.limitReason = SolveLimits.Reason.ITERATIONS;
+		}
+		else if(this.deadlineNanos != null && System.nanoTime() - this.deadlineNanos >= 0) {
+			this.limitReason = SolveLimits.Reason.DEADLINE;
+		}
+		else if(this.cancellationToken != null && this.cancellationToken.isCancelled()) {
+			this.limitReason = SolveLimits.Reason.CANCELLED;
+		}
+		return this.limitReason != null;
 	}
 
 	/*
-	 * Find basis replacement for problem without artificial variables (no negative b's).
+	 * The solution type of a solve stopped by its limits. The exact engine drops its perturbation of the B column,
+	 * so the current basis values are exact (and may be slightly infeasible).
 	 */
-	private Integer[] findBasisReplacementWithoutArtificialVariables() {
-		Integer[] basisReplacement = new Integer[2];
+	private SolutionType stoppedByLimits() {
+		if(this.engine instanceof RationalTableau) {
+			((RationalTableau)this.engine).removePerturbation();
+		}
+		this.context.getLog().writeln(SimLog.LogLevel.STEP, "Limit reached : " + this.limitReason);
+		return SolutionType.LIMIT_REACHED;
+	}
 
-		Rational dominant = new Rational(0);
-		Integer inToBasis = 0;
-		Boolean dominantFound = false;
+	/*
+	 * The (0 based) columns of the artificial variables, those with big M weight in the objective function.
+	 */
+	private boolean[] artificialColumns() {
+		boolean[] artificialColumns = new boolean[this.totalNumberOfVariables];
+		ArrayList<BigMNumber> coeffs = this.objectiveFunction.getCoefficients();
+		for(int cI = 0; cI < this.totalNumberOfVariables && cI < coeffs.size(); cI++) {
+			artificialColumns[cI] = !coeffs.get(cI).isReal();
+		}
+		return artificialColumns;
+	}
 
-		Rational[] dominantsRow = this.matrix[this.cpjRealRowIndex()];
+	/*
+	 * Build the engine of given type at the initial simplex matrix, without performing steps
+	 * (solve uses it, and the benchmarks use it to measure single steps).
+	 * The metrics of the solve start here.
+	 * Returns null when the presolve decided the solution, so there is nothing to solve.
+	 */
+	SimplexEngine prepare(EngineType engineType) {
 
-		for(Integer cI = 0; cI < dominantsRow.length - 1; cI++) {
-			if(this.problameType == ProblemType.MAXIMUM) {
-				if(dominantsRow[cI].compareTo(new Rational(0)) < 0 && dominant.compareTo(dominantsRow[cI]) > 0) {
-					dominant = dominantsRow[cI];
-					inToBasis = cI;
-					dominantFound = true;
-				}
-			}
-			else if(this.problameType == ProblemType.MINIMUM) {
-				if(dominantsRow[cI].compareTo(new Rational(0)) > 0 && dominant.compareTo(dominantsRow[cI]) < 0) {
-					dominant = dominantsRow[cI];
-					inToBasis = cI;
-					dominantFound = true;
-				}
-			}
+		SolveMetrics metrics = new SolveMetrics(this.metricsDetail, engineType);
+		this.context.setMetrics(metrics);
+		metrics.start();
+		this.engine = null;
+		this.warmStartAvailable = false;
+
+		/*
+		 * Each solve starts from fresh copies of the problem, the next steps change them.
+		 */
+		this.constraints = new ArrayList<Constraint>();
+		for(Constraint c : this.problemConstraints) {
+			this.constraints.add(new Constraint(c));
 		}
-		basisReplacement[0] = inToBasis + 1;
-
-		Rational division = Rational.infinity();
-		Integer outFromBasis = 0;
-		Boolean divisionFound = false;
-		for(Integer rI = 0; rI < this.currentBasis.size(); rI++) {
-			if(this.matrix[rI][inToBasis].compareTo(new Rational(0)) > 0 && this.matrix[rI][this.matrix[rI].length - 1].compareTo(new Rational(0)) >= 0) {
-				if(this.matrix[rI][this.matrix[rI].length - 1].divide(this.matrix[rI][inToBasis]).compareTo(division) < 0) {
-					division = this.matrix[rI][this.matrix[rI].length - 1].divide(this.matrix[rI][inToBasis]);
-					outFromBasis = this.currentBasis.get(rI);
-					divisionFound = true;
-				}
+		this.objectiveFunction = new ObjectiveFunction(this.problemObjectiveFunction);
+		this.matrix = null;
+		this.artificialVariablesExists = false;
+
+		/*
+		 * 0. Presolve, the next steps work on the reduced problem.
+		 */
+		this.presolve = null;
+		if(this.presolveEnabled) {
+			metrics.enter(SolveMetrics.Phase.PRESOLVE);
+			this.presolve = new Presolve(this.constraints, this.objectiveFunction);
+			this.presolve.run();
+			metrics.leave();
+			this.context.getLog().writeln(SimLog.LogLevel.STEP, this.presolve::toString);
+			if(this.presolve.getSolutionType() != null) {
+				return null;
 			}
+			this.constraints = this.presolve.getConstraints();
+			this.objectiveFunction = this.presolve.getObjectiveFunction();
 		}
-		basisReplacement[1] = outFromBasis;
 
+		/*
+		 * 1. Complete the constraints with the appropriate slake/artificial variables.
+		 */
+		metrics.enter(SolveMetrics.Phase.NORMALIZATION);
+		this.addSlakeArtificialVariables();
+		metrics.leave();
 
-		if(!(dominantFound && divisionFound)) {
-			basisReplacement = null;
+		/*
+		 * The trace starts with the initial simplex matrix, it is built for that also for the engines that don't use it.
+		 */
+		metrics.enter(SolveMetrics.Phase.MATRIX_TRANSFORMATION);
+		PivotTrace trace = this.context.getTrace();
+		if(trace != null) {
+			this.matrixTransformation();
+			trace.begin(this.problameType, this.artificialVariablesExists, this.totalNumberOfVariables, this.context.getAliases(), this.currentBasis, this.matrix);
 		}
 
-		this.dominantAtCpjFound = dominantFound;
-		this.relevantDivisionFound = divisionFound;
+		/*
+		 * 2. Move the linear programming problem to its suitable simplex matrix,
+		 *    and hand it to the engine of the requested type.
+		 */
+		if(engineType == EngineType.REVISED) {
+			this.engine = new RevisedSimplex(this.constraints, this.objectiveFunction, this.problameType, this.artificialVariablesExists, this.totalNumberOfVariables, this.tolerances, this.context);
+			this.matrix = null;
+		}
+		else if(engineType == EngineType.SPARSE) {
+			SparseRationalTableau tableau = new SparseRationalTableau(this.constraints, this.objectiveFunction, this.problameType, this.artificialVariablesExists, this.totalNumberOfVariables, this.context);
+			tableau.setPricingRule(PricingRule.create(this.pricingRule));
+			this.engine = tableau;
+			this.matrix = null;
+		}
+		else {
+			if(this.matrix == null) {
+				this.matrixTransformation();
+			}
+			Tableau tableau = null;
+			if(engineType == EngineType.FLOATING) {
+				tableau = new FloatingPointTableau(this.matrix, this.currentBasis, this.problameType, this.artificialVariablesExists, this.totalNumberOfVariables, this.tolerances, this.context);
+			}
+			else {
+				RationalTableau rationalTableau = new RationalTableau(this.matrix, this.currentBasis, this.problameType, this.artificialVariablesExists, this.totalNumberOfVariables, this.context);
+				rationalTableau.setPricingRule(PricingRule.create(this.pricingRule));
+				tableau = rationalTableau;
+			}
+			tableau.setElimination(this.elimination);
+			this.engine = tableau;
+			this.matrix = null;
+		}
+		this.engine.setTwoPhase(this.artificialVariablesMethod == ArtificialVariablesMethod.TWO_PHASE);
+		this.engine.setAntiCycling(this.antiCycling());
+		metrics.leave();
 
-		return basisReplacement;
+		this.context.getLog().writeln(SimLog.LogLevel.TRACE, "Suitable matrix :");
+		this.context.getLog().write(SimLog.LogLevel.TRACE, this.engine::toMatrixString);
+
+		return this.engine;
 	}
 
 	/*
-	 * Problem transformation to matrix for regular problem.
+	 * Classify the simplex solution according to the last state of the engine.
 	 */
-	private void matrixTransformationWithoutArtificialVariables() {
-
-		SimLog.writeln("1 objective function + " + this.constraints.size() + " constraints => " + (this.constraints.size() + 1) + " rows in matrix.");
-		this.currentBasis = new ArrayList<Integer>();
+	private SolutionType classifySolution() {
 
-		this.matrix = new Rational[this.constraints.size() + 1][];
+		SolutionType solutionType = SolutionType.UNKNOWN;
 
-		for(Integer rI = 0; rI < this.matrix.length - 1; rI++) {
+		/*
+		 * Check if the problem with artificial variables.
+		 */
+		if(this.artificialVariablesExists) {
 
-			this.matrix[rI] = new Rational[this.matrixRowSize()];
-			ArrayList<Rational> coeffs = this.constraints.get(rI).getCoefficients();
-			for(Integer cI = 0; cI < this.matrix[rI].length; cI++) {
-				if(cI < coeffs.size()) {
-					this.matrix[rI][cI] = coeffs.get(cI);
+			/*
+			 * No one to insert to basis.
+			 */
+			if(!this.engine.getDominantAtCpjFound()) {
+				/*
+				 * Big M still inside the solution.
+				 */
+				if(this.engine.artificialWeightRemains()) {
+					solutionType = SolutionType.NONE;
+				}
+				/*
+				 * The artificial columns have M coefficients, so like the two-phase method
+				 * the zero coefficients are of the other variables.
+				 */
+				else if(this.engine.notInBaseCoefficientZero()) {
+					solutionType = SolutionType.INFINIT;
 				}
 				else {
-					this.matrix[rI][cI] = new Rational(0);
+					solutionType = SolutionType.SINGLE;
+				}
+			}
+			/*
+			 * There is a candidate to insert to the basis.
+			 */
+			else {
+				/*
+				 * But no one to put out from it.
+				 */
+				if(!this.engine.getRelevantDivisionFound()) {
+					solutionType = SolutionType.UNBOUND;
 				}
 			}
-			this.matrix[rI][this.matrix[rI].length - 1] = this.constraints.get(rI).getBound();
-			this.currentBasis.add(coeffs.size());
 		}
-
-		this.matrix[this.cpjRealRowIndex()] = new Rational[this.matrixRowSize()];
-
-		ArrayList<Rational> coeffs = this.objectiveFunction.getCoefficients();
-		for(Integer cI = 0; cI < this.totalNumberOfVariables; cI++) {
-			if(cI < coeffs.size()) {
-
-				if(!coeffs.get(cI).equals(Rational.infinity())) {
-					this.matrix[this.cpjRealRowIndex()][cI] = coeffs.get(cI).negative();
+		else {
+			if(!this.engine.getDominantAtCpjFound()) {
+				if(this.engine.notInBaseCoefficientZero()) {
+					solutionType = SolutionType.INFINIT;
 				}
 				else {
-					this.matrix[this.cpjRealRowIndex()][cI] = new Rational(1);
+					solutionType = SolutionType.SINGLE;
 				}
 			}
 			else {
-
-				this.matrix[this.cpjRealRowIndex()][cI] = new Rational(0);
+				if(!this.engine.getRelevantDivisionFound()) {
+					solutionType = SolutionType.UNBOUND;
+				}
 			}
 		}
 
-		this.matrix[this.cpjRealRowIndex()][this.bColumnIndex()] = new Rational(0);
+		return solutionType;
 
-		SimLog.writeln("Suitable matrix :");
-		SimLog.write(this.toMatrixString());
 	}
 
-
 	/*
-	 * Problem to matrix transformation for problem with artificial variables.
+	 * Problem to matrix transformation for all problems types.
+	 * The constraints rows are followed by the objective row zj - cj, where the zj are of the initial basis
+	 * (the last variable of each constraint). The objective row is calculated in Big-M numbers,
+	 * and split into the C'j row (real part) and the IW row (M part, only with artificial variables).
 	 */
-	private void matrixTransformationWithArtificialVariables() {
+	private void matrixTransformation() {
 
-		SimLog.writeln("1 objective function + " + this.constraints.size() + " constraints + artificial variables => " + (this.constraints.size() + 1 + 1) + " rows in matrix.");
+		if(this.artificialVariablesExists) {
+			this.context.getLog().writeln(SimLog.LogLevel.STEP, () -> "1 objective function + " + this.constraints.size() + " constraints + artificial variables => " + (this.constraints.size() + 1 + 1) + " rows in matrix.");
+		}
+		else {
+			this.context.getLog().writeln(SimLog.LogLevel.STEP, () -> "1 objective function + " + this.constraints.size() + " constraints => " + (this.constraints.size() + 1) + " rows in matrix.");
+		}
 
 		this.currentBasis = new ArrayList<Integer>();
 
-		this.matrix = new Rational[this.constraints.size() + 2][];
+		this.matrix = new Rational[this.constraints.size() + ((this.artificialVariablesExists) ? (2) : (1))][];
 
-		for(Integer rI = 0; rI < this.matrix.length - 2; rI++) {
+		ArrayList<BigMNumber> costs = this.objectiveFunction.getCoefficients();
+		BigMNumber[] objectiveRow = new BigMNumber[this.matrixRowSize()];
+		for(Integer cI = 0; cI < this.totalNumberOfVariables; cI++) {
+			objectiveRow[cI] = (cI < costs.size()) ? (costs.get(cI).negative()) : (BigMNumber.ZERO);
+		}
+		objectiveRow[this.bColumnIndex()] = BigMNumber.ZERO;
+
+		for(Integer rI = 0; rI < this.constraints.size(); rI++) {
 
 			this.matrix[rI] = new Rational[this.matrixRowSize()];
 			ArrayList<Rational> coeffs = this.constraints.get(rI).getCoefficients();
@@ -554,68 +855,33 @@ public class Simplex {
 					this.matrix[rI][cI] = coeffs.get(cI);
 				}
 				else {
-					this.matrix[rI][cI] = new Rational(0);
+					this.matrix[rI][cI] = Rational.ZERO;
 				}
 			}
-			this.matrix[rI][this.matrix[rI].length - 1] = this.constraints.get(rI).getBound();
+			this.matrix[rI][this.bColumnIndex()] = this.constraints.get(rI).getBound();
 			this.currentBasis.add(coeffs.size());
-		}
-
-		this.matrix[this.cpjRealRowIndex()] = new Rational[this.matrixRowSize()];
 
-		ArrayList<Rational> coeffs = this.objectiveFunction.getCoefficients();
-		for(Integer cI = 0; cI < this.totalNumberOfVariables; cI++) {
-			if(!coeffs.get(cI).equals(Rational.infinity()) && !coeffs.get(cI).equals(Rational.infinity().negative())) {
-				this.matrix[this.cpjRealRowIndex()][cI] = coeffs.get(cI).negative();
-			}
-			else {
-				this.matrix[this.cpjRealRowIndex()][cI] = new Rational(0);
-			}
-
-		}
-		this.matrix[this.cpjRealRowIndex()][this.bColumnIndex()] = new Rational(0);
-
-
-		// Artificial variables row
-		this.matrix[this.cpjArtificialRowIndex()] = new Rational[this.matrixRowSize()];
-		for(Integer cI = 0; cI < this.totalNumberOfVariables; cI++) {
-			Rational infWeight = new Rational(0);
-			for(Integer rI = 0; rI < this.constraints.size(); rI++) {
-				Constraint currentConstraint = this.constraints.get(rI);
-				if(currentConstraint.getPreviousEqualityType() == 1 || currentConstraint.getPreviousEqualityType() == 0) {
-					infWeight = infWeight.add(this.matrix[rI][cI]);
+			// zj of the basis variable of the row
+			BigMNumber basisCost = costs.get(coeffs.size() - 1);
+			if(!basisCost.isZero()) {
+				for(Integer cI = 0; cI < this.matrixRowSize(); cI++) {
+					objectiveRow[cI] = objectiveRow[cI].add(basisCost.multiply(this.matrix[rI][cI]));
 				}
 			}
+		}
 
-			if(this.problameType == ProblemType.MAXIMUM) {
-				this.matrix[this.cpjArtificialRowIndex()][cI] = infWeight.negative();
-			}
-			else if(this.problameType == ProblemType.MINIMUM) {
-				this.matrix[this.cpjArtificialRowIndex()][cI] = infWeight;
-			}
-
-			if(this.objectiveFunction.getCoefficients().get(cI).equals(Rational.infinity()) || this.objectiveFunction.getCoefficients().get(cI).equals(Rational.infinity().negative())) {
-				this.matrix[this.cpjArtificialRowIndex()][cI] = new Rational(0);
-			}
+		this.matrix[this.cpjRealRowIndex()] = new Rational[this.matrixRowSize()];
+		for(Integer cI = 0; cI < this.matrixRowSize(); cI++) {
+			this.matrix[this.cpjRealRowIndex()][cI] = objectiveRow[cI].getReal();
 		}
 
-		Rational infWeight = new Rational(0);
-		for(Integer rI = 0; rI < this.constraints.size(); rI++) {
-			Constraint currentConstraint = this.constraints.get(rI);
-			if(currentConstraint.getPreviousEqualityType() == 1) {
-				infWeight = infWeight.add(this.matrix[rI][this.bColumnIndex()]);
+		if(this.artificialVariablesExists) {
+			this.matrix[this.cpjArtificialRowIndex()] = new Rational[this.matrixRowSize()];
+			for(Integer cI = 0; cI < this.matrixRowSize(); cI++) {
+				this.matrix[this.cpjArtificialRowIndex()][cI] = objectiveRow[cI].getM();
 			}
 		}
-		if(this.problameType == ProblemType.MAXIMUM) {
-			this.matrix[this.cpjArtificialRowIndex()][this.bColumnIndex()] = infWeight.negative();
-		}
-		else if(this.problameType == ProblemType.MINIMUM) {
-			this.matrix[this.cpjArtificialRowIndex()][this.bColumnIndex()] = infWeight;
-		}
 
-
-		SimLog.writeln("Suitable matrix :");
-		SimLog.write(this.toMatrixString());
 	}
 
 
@@ -638,21 +904,35 @@ public class Simplex {
 
 		// find number of variables in problem
 		Integer currentNumberOfVariables = 0;
+		HashMap<Integer, String> variablesAliases = this.context.getAliases();
+		this.context.setConstraintsProcessed(true);
+		variablesAliases.clear();
 		for(Constraint c : this.constraints) {
 			if(c.getCoefficients().size() > currentNumberOfVariables) {
 				currentNumberOfVariables = c.getCoefficients().size();
 			}
 
 			// register aliases of original variables
-			Simplex.constraintsProcessed = true;
-			Simplex.variablesAliases.clear();
 			for(Integer cI = 0; cI < c.getCoefficients().size(); cI++) {
-				if(!Simplex.variablesAliases.containsKey(cI + 1)) {
-					Simplex.variablesAliases.put(cI + 1, "X" + (cI + 1));
+				if(!variablesAliases.containsKey(cI + 1)) {
+					variablesAliases.put(cI + 1, "X" + (cI + 1));
 				}
 			}
 		}
 
+		// variables of the objective function alone are original variables too
+		ArrayList<BigMNumber> costs = this.objectiveFunction.getCoefficients();
+		for(Integer cI = currentNumberOfVariables; cI < costs.size(); cI++) {
+			variablesAliases.put(cI + 1, "X" + (cI + 1));
+		}
+		currentNumberOfVariables = Math.max(currentNumberOfVariables, costs.size());
+		this.originalNumberOfVariables = currentNumberOfVariables;
+
+		// the objective function has a cost for each original variable, before the slake/artificial costs
+		while(costs.size() < currentNumberOfVariables) {
+			costs.add(BigMNumber.ZERO);
+		}
+
 		// register aliases of original variables
 		Integer slakesCounter = currentNumberOfVariables;
 		Integer artificialsCounter = 0;
@@ -661,19 +941,19 @@ public class Simplex {
 		for(Constraint c : this.constraints) {
 			if(c.getCurrentEqualityType() == 1) {
 				while(c.getCoefficients().size() < currentNumberOfVariables) {
-					c.getCoefficients().add(new Rational(0));
+					c.getCoefficients().add(Rational.ZERO);
 				}
-				c.getCoefficients().add(new Rational(-1));
-				c.getCoefficients().add(new Rational(1));
+				c.getCoefficients().add(Rational.ONE.negative());
+				c.getCoefficients().add(Rational.ONE);
 				c.setEquality(0);
 
-				this.objectiveFunction.getCoefficients().add(new Rational(0));
+				this.objectiveFunction.getCoefficients().add(BigMNumber.ZERO);
 				
 				if(this.problameType == ProblemType.MAXIMUM) {
-					this.objectiveFunction.getCoefficients().add(Rational.infinity().negative());
+					this.objectiveFunction.getCoefficients().add(BigMNumber.M.negative());
 				}
 				else if(this.problameType == ProblemType.MINIMUM) {
-					this.objectiveFunction.getCoefficients().add(Rational.infinity());
+					this.objectiveFunction.getCoefficients().add(BigMNumber.M);
 				}
 				
 
@@ -682,35 +962,35 @@ public class Simplex {
 				currentNumberOfVariables = c.getCoefficients().size();
 				
 				// register aliases of original variables
-				Simplex.variablesAliases.put(currentNumberOfVariables - 1, "X" + (++slakesCounter));
-				Simplex.variablesAliases.put(currentNumberOfVariables, "Y" + (++artificialsCounter));
+				variablesAliases.put(currentNumberOfVariables - 1, "X" + (++slakesCounter));
+				variablesAliases.put(currentNumberOfVariables, "Y" + (++artificialsCounter));
 			}
 			else if(c.getCurrentEqualityType() == -1) {
 				while(c.getCoefficients().size() < currentNumberOfVariables) {
-					c.getCoefficients().add(new Rational(0));
+					c.getCoefficients().add(Rational.ZERO);
 				}
-				c.getCoefficients().add(new Rational(1));
+				c.getCoefficients().add(Rational.ONE);
 				c.setEquality(0);
 
-				this.objectiveFunction.getCoefficients().add(new Rational(0));
+				this.objectiveFunction.getCoefficients().add(BigMNumber.ZERO);
 
 				currentNumberOfVariables = c.getCoefficients().size();
 				
 				// register aliases of original variables
-				Simplex.variablesAliases.put(currentNumberOfVariables, "X" + (++slakesCounter));
+				variablesAliases.put(currentNumberOfVariables, "X" + (++slakesCounter));
 			}
 			else if(c.getCurrentEqualityType() == 0) {
 				while(c.getCoefficients().size() < currentNumberOfVariables) {
-					c.getCoefficients().add(new Rational(0));
+					c.getCoefficients().add(Rational.ZERO);
 				}
-				c.getCoefficients().add(new Rational(1));
+				c.getCoefficients().add(Rational.ONE);
 				c.setEquality(0);
 
 				if(this.problameType == ProblemType.MAXIMUM) {
-					this.objectiveFunction.getCoefficients().add(Rational.infinity().negative());
+					this.objectiveFunction.getCoefficients().add(BigMNumber.M.negative());
 				}
 				else if(this.problameType == ProblemType.MINIMUM) {
-					this.objectiveFunction.getCoefficients().add(Rational.infinity());
+					this.objectiveFunction.getCoefficients().add(BigMNumber.M);
 				}
 
 				this.artificialVariablesExists = true;
@@ -718,105 +998,26 @@ public class Simplex {
 				currentNumberOfVariables = c.getCoefficients().size();
 				
 				// register aliases of original variables
-				Simplex.variablesAliases.put(currentNumberOfVariables, "X" + (++slakesCounter));
+				variablesAliases.put(currentNumberOfVariables, "X" + (++slakesCounter));
 			}
 		}
 
 		this.totalNumberOfVariables = currentNumberOfVariables;
 
-		SimLog.writeln("Problem after normalization with slake/artificial variables :");
-		SimLog.write(this.toString());
-
-	}
+		this.context.getLog().writeln(SimLog.LogLevel.STEP, "Problem after normalization with slake/artificial variables :");
+		this.context.getLog().write(SimLog.LogLevel.STEP, this::toString);
 
-	/*
-	 * Table row separator.
-	 */
-	private String separator() {
-		StringBuilder sb = new StringBuilder();
-		for(Integer cI = 0; cI < this.totalNumberOfVariables + 2; cI++) {
-			sb.append("----------|");
-		}
-		sb.append("\n");
-		return sb.toString();
 	}
 
-	private String toMatrixString() {
-		StringBuilder sb = new StringBuilder();
-
-		// first row
-		sb.append(String.format("%10s|", ""));
-		for(Integer cI = 0; cI < this.totalNumberOfVariables; cI++) {
-//			sb.append(String.format("%10s|", "X" + (cI + 1)));
-			sb.append(String.format("%10s|", Simplex.variablesAliases.get(cI + 1)));
-		}
-		sb.append(String.format("%10s", "B"));
-		sb.append("\n");
-
-		sb.append(this.separator());
-
-		// constraints rows
-		for(Integer rI = 0; rI < this.cpjRealRowIndex(); rI++) {
-
-//			sb.append(String.format("%10s|", "X" + this.currentBasis.get(rI)));
-			sb.append(String.format("%10s|", Simplex.variablesAliases.get(this.currentBasis.get(rI))));
-			for(Integer cI = 0; cI < this.matrix[rI].length; cI++) {
-				String output = this.matrix[rI][cI].toString();
-				if(output.length() > 10) {
-					output = output.substring(0, 10);
-				}
-				sb.append(String.format("%10s|", output));
-			}
-			sb.append("\n");
-			sb.append(this.separator());
-		}
-
-		sb.append(String.format("%10s|", "C'j"));
-
-		for(Integer cI = 0; cI < this.matrix[this.cpjRealRowIndex()].length - 1; cI++) {
-
-			String output = this.matrix[this.cpjRealRowIndex()][cI].toString();
-
-			if(output.length() > 10) {
-				output = output.substring(0, 10);
-			}
-			sb.append(String.format("%10s|", output));
-		}
-		sb.append(String.format("%10s", "Z = " + this.matrix[this.cpjRealRowIndex()][this.matrix[this.cpjRealRowIndex()].length - 1]) + "|");
-
-		sb.append("\n");
-		sb.append(this.separator());
-
-		if(this.artificialVariablesExists) {
-
-			sb.append(String.format("%10s|", "IW"));
-			for(Integer cI = 0; cI < this.matrix[this.cpjArtificialRowIndex()].length - 1; cI++) {
-
-				String output = this.matrix[this.cpjArtificialRowIndex()][cI].toString();
-
-				if(output.length() > 10) {
-					output = output.substring(0, 10);
-				}
-				sb.append(String.format("%10s|", output));
-			}
-			sb.append(String.format("%10s", "Z = " + this.matrix[this.cpjArtificialRowIndex()][this.matrix[this.cpjArtificialRowIndex()].length - 1]) + "|");
-
-			sb.append("\n");
-			sb.append(this.separator());
-		}
-
-		return sb.toString();
-	}
-
-
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
 		sb.append(((this.objectiveFunction.getMinMax().equals("max")) ? ("Maximum") : ("Minimum")) + " problem :\n");
-		sb.append("\t" + this.objectiveFunction + "\n");
+		HashMap<Integer, String> variablesAliases = (this.context.getConstraintsProcessed()) ? (this.context.getAliases()) : (null);
+		sb.append("\t" + this.objectiveFunction.toString(variablesAliases) + "\n");
 		sb.append("Subject to :\n");
 		for(Constraint c : this.constraints) {
-			sb.append("\t" + c + "\n");
+			sb.append("\t" + c.toString(variablesAliases) + "\n");
 		}
 		return sb.toString();
 	}
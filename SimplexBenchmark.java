@@ -0,0 +1,250 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+
+/*
+ * Benchmarks of the fractions arithmetic, the parsing, single simplex step and full solves.
+ * Each benchmark runs warmup iterations and then measured iterations of fixed time, its results are consumed by a sink,
+ * and it reports the time per operation (mean and standard deviation of the iterations) and, like the GC profiler,
+ * the allocated bytes per operation, the allocation rate and the count and time of the collections while measuring.
+ * Benchmarks with setup (single step) time and measure the allocations of each invocation apart from its setup.
+ * The step and solve problems are DENSE problems of ProblemGenerator.
+ *
+ * Usage : SimplexBenchmark [benchmark name regex]
+ *  -Dbenchmark.warmup=<iterations> (default 5)
+ *  -Dbenchmark.iterations=<iterations> (default 10)
+ *  -Dbenchmark.time=<milliseconds per iteration> (default 500)
+ */
+public class SimplexBenchmark {
+
+	/*
+	 * Problem sizes (constraints x variables) of the step and solve benchmarks.
+	 */
+	private static final int[][] SIZES = { { 5, 5 }, { 10, 20 }, { 25, 40 } };
+
+	private static final long SEED = 20240101L;
+
+	/*
+	 * Number of operands of the arithmetic benchmarks, they are used in turn.
+	 */
+	private static final int OPERANDS = 1024;
+
+	/*
+	 * Operations between checks of the iteration time.
+	 */
+	private static final int BATCH = 64;
+
+	/*
+	 * Consumer of the results, so the operations are not optimized away.
+	 */
+	private static volatile int sink;
+
+	private static com.sun.management.ThreadMXBean threadBean = null;
+
+	private String name;
+	private String param;
+
+	/*
+	 * Setup of each invocation (null if the operation has no state), and the measured operation.
+	 */
+	private Supplier<Object> setup;
+	private Function<Object, Object> operation;
+
+	private SimplexBenchmark(String name, String param, Supplier<Object> setup, Function<Object, Object> operation) {
+		this.name = name;
+		this.param = param;
+		this.setup = setup;
+		this.operation = operation;
+	}
+
+	private static Simplex simplex(ArrayList<String> problem) {
+		return new Simplex(ProblemGenerator.constraints(problem), ProblemGenerator.objectiveFunction(problem), SimLog.discarding());
+	}
+
+	private static Rational[] operands(Random random, boolean big) {
+		Rational[] operands = new Rational[SimplexBenchmark.OPERANDS];
+		for(int i = 0; i < operands.length; i++) {
+			if(big) {
+				operands[i] = new Rational(new BigInteger(96, random).add(BigInteger.ONE).multiply((random.nextBoolean()) ? (BigInteger.ONE) : (BigInteger.ONE.negate())), new BigInteger(96, random).add(BigInteger.ONE));
+			}
+			else {
+				operands[i] = new Rational(random.nextInt(2001) - 1000, random.nextInt(1000) + 1);
+			}
+		}
+		return operands;
+	}
+
+	/*
+	 * Arithmetic benchmark on pairs of operands taken in turn (the divisor is never zero).
+	 */
+	private static SimplexBenchmark arithmetic(String name, boolean big, Function<Rational[], Object> operation) {
+		Random random = new Random(SimplexBenchmark.SEED);
+		final Rational[] left = SimplexBenchmark.operands(random, big);
+		final Rational[] right = SimplexBenchmark.operands(random, big);
+		for(int i = 0; i < right.length; i++) {
+			if(right[i].isZero()) {
+				right[i] = Rational.ONE;
+			}
+		}
+		final int[] cursor = { 0 };
+		final Rational[] pair = new Rational[2];
+		return new SimplexBenchmark(name, (big) ? ("big") : ("long"), null, (state) -> {
+			int i = cursor[0] = (cursor[0] + 1) & (SimplexBenchmark.OPERANDS - 1);
+			pair[0] = left[i];
+			pair[1] = right[i];
+			return operation.apply(pair);
+		});
+	}
+
+	private static ArrayList<SimplexBenchmark> benchmarks() {
+		ArrayList<SimplexBenchmark> benchmarks = new ArrayList<SimplexBenchmark>();
+
+		for(boolean big : new boolean[] { false, true }) {
+			benchmarks.add(SimplexBenchmark.arithmetic("Rational.add", big, (pair) -> pair[0].add(pair[1])));
+			benchmarks.add(SimplexBenchmark.arithmetic("Rational.multiply", big, (pair) -> pair[0].multiply(pair[1])));
+			benchmarks.add(SimplexBenchmark.arithmetic("Rational.divide", big, (pair) -> pair[0].divide(pair[1])));
+			benchmarks.add(SimplexBenchmark.arithmetic("Rational.compareTo", big, (pair) -> pair[0].compareTo(pair[1])));
+		}
+
+		ProblemGenerator generator = new ProblemGenerator(SimplexBenchmark.SEED);
+
+		final ArrayList<String> lines = generator.lines(ProblemGenerator.Family.DENSE, 25, 40);
+		final int[] cursor = { 0 };
+		benchmarks.add(new SimplexBenchmark("Constraint.parse", "40 variables", null, (state) -> {
+			cursor[0] = (cursor[0] % (lines.size() - 1)) + 1;
+			return new Constraint(lines.get(cursor[0]));
+		}));
+		benchmarks.add(new SimplexBenchmark("ObjectiveFunction.parse", "40 variables", null, (state) -> new ObjectiveFunction(lines.get(0))));
+
+		for(Simplex.EngineType engineType : new Simplex.EngineType[] { Simplex.EngineType.EXACT, Simplex.EngineType.FLOATING }) {
+			for(int[] size : SimplexBenchmark.SIZES) {
+				final ArrayList<String> problem = generator.lines(ProblemGenerator.Family.DENSE, size[0], size[1]);
+				benchmarks.add(new SimplexBenchmark("performSimplexStep." + engineType, size[0] + "x" + size[1], () -> SimplexBenchmark.simplex(problem).prepare(engineType), (engine) -> ((SimplexEngine)engine).performSimplexStep()));
+			}
+		}
+
+		for(Simplex.EngineType engineType : Simplex.EngineType.values()) {
+			for(int[] size : SimplexBenchmark.SIZES) {
+				final ArrayList<String> problem = generator.lines(ProblemGenerator.Family.DENSE, size[0], size[1]);
+				benchmarks.add(new SimplexBenchmark("solve." + engineType, size[0] + "x" + size[1], null, (state) -> {
+					Simplex simplex = SimplexBenchmark.simplex(problem);
+					simplex.solve(engineType);
+					return simplex.getSolutionType();
+				}));
+			}
+		}
+
+		return benchmarks;
+	}
+
+	/*
+	 * Allocated bytes of the current thread, -1 if the runtime doesn't measure them.
+	 */
+	private static long allocatedBytes() {
+		return (SimplexBenchmark.threadBean != null) ? (SimplexBenchmark.threadBean.getCurrentThreadAllocatedBytes()) : (-1);
+	}
+
+	private static long[] collections() {
+		long count = 0, time = 0;
+		for(GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, gc.getCollectionCount());
+			time += Math.max(0, gc.getCollectionTime());
+		}
+		return new long[] { count, time };
+	}
+
+	/*
+	 * Run single iteration, returns the operations count, the measured nanoseconds and the allocated bytes.
+	 */
+	private long[] iteration(long iterationNanos) {
+		long operations = 0, nanos = 0, allocated = 0;
+		if(this.setup == null) {
+			allocated = SimplexBenchmark.allocatedBytes();
+			long start = System.nanoTime();
+			do {
+				for(int i = 0; i < SimplexBenchmark.BATCH; i++) {
+					SimplexBenchmark.sink += this.operation.apply(null).hashCode();
+				}
+				operations += SimplexBenchmark.BATCH;
+				nanos = System.nanoTime() - start;
+			} while(nanos < iterationNanos);
+			allocated = SimplexBenchmark.allocatedBytes() - allocated;
+		}
+		else {
+			long start = System.nanoTime();
+			while(System.nanoTime() - start < iterationNanos) {
+				Object state = this.setup.get();
+				long allocatedBefore = SimplexBenchmark.allocatedBytes();
+				long before = System.nanoTime();
+				Object result = this.operation.apply(state);
+				long after = System.nanoTime();
+				allocated += SimplexBenchmark.allocatedBytes() - allocatedBefore;
+				nanos += after - before;
+				operations++;
+				SimplexBenchmark.sink += result.hashCode();
+			}
+		}
+		return new long[] { operations, nanos, allocated };
+	}
+
+	private String run(int warmup, int iterations, long iterationNanos) {
+		for(int i = 0; i < warmup; i++) {
+			this.iteration(iterationNanos);
+		}
+		double[] scores = new double[iterations];
+		long operations = 0, nanos = 0, allocated = 0;
+		long[] collectionsBefore = SimplexBenchmark.collections();
+		for(int i = 0; i < iterations; i++) {
+			long[] result = this.iteration(iterationNanos);
+			scores[i] = (double)result[1] / result[0];
+			operations += result[0];
+			nanos += result[1];
+			allocated += result[2];
+		}
+		long[] collectionsAfter = SimplexBenchmark.collections();
+
+		double mean = 0;
+		for(double score : scores) {
+			mean += score / iterations;
+		}
+		double variance = 0;
+		for(double score : scores) {
+			variance += (score - mean) * (score - mean) / Math.max(1, iterations - 1);
+		}
+
+		String allocation = (SimplexBenchmark.threadBean == null) ? (String.format("%12s %12s", "n/a", "n/a")) :
+			(String.format("%12.1f %12.1f", (double)allocated / operations, (allocated / 1048576.0) / (nanos / 1e9)));
+		return String.format("%-32s %-14s %14.1f +- %-12.1f %s %8d %8d", this.name, this.param, mean, Math.sqrt(variance), allocation,
+				collectionsAfter[0] - collectionsBefore[0], collectionsAfter[1] - collectionsBefore[1]);
+	}
+
+	public static void main(String[] args) {
+		int warmup = Integer.getInteger("benchmark.warmup", 5);
+		int iterations = Math.max(1, Integer.getInteger("benchmark.iterations", 10));
+		long iterationNanos = Long.getLong("benchmark.time", 500) * 1000000;
+		Pattern filter = (args.length > 0) ? (Pattern.compile(args[0])) : (null);
+
+		if(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+			if(bean.isThreadAllocatedMemorySupported()) {
+				bean.setThreadAllocatedMemoryEnabled(true);
+				SimplexBenchmark.threadBean = bean;
+			}
+		}
+
+		System.out.println(String.format("%-32s %-14s %14s    %-12s %12s %12s %8s %8s", "Benchmark", "Param", "ns/op", "stdev", "alloc B/op", "alloc MB/s", "gc.count", "gc.ms"));
+		for(SimplexBenchmark benchmark : SimplexBenchmark.benchmarks()) {
+			if(filter != null && !filter.matcher(benchmark.name).find()) {
+				continue;
+			}
+			System.out.println(benchmark.run(warmup, iterations, iterationNanos));
+		}
+	}
+
+}
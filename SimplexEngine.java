@@ -0,0 +1,70 @@
+import java.util.ArrayList;
+
+
+/*
+ * Engine that performs the simplex steps on a problem which was already
+ * completed with slake/artificial variables by the Simplex solver.
+ */
+public interface SimplexEngine {
+
+	/*
+	 * Perform one simplex step, return false if basis change can't be achieved.
+	 */
+	Boolean performSimplexStep();
+
+	/*
+	 * Indications of the last step :
+	 *  1. An in to base candidate has been found.
+	 *  2. An out of base cadidate has been found.
+	 */
+	Boolean getDominantAtCpjFound();
+	Boolean getRelevantDivisionFound();
+
+	/*
+	 * Check if the artificial variables (big M) are still part of the objective value.
+	 */
+	Boolean artificialWeightRemains();
+
+	/*
+	 * Check if there is a variable that it currently out of base and its coefficient is zero,
+	 * which can enter the basis with a positive step (a zero step of a degenerate basis leads to the same solution).
+	 */
+	Boolean notInBaseCoefficientZero();
+
+	/*
+	 * The current indices of the variables in the basis.
+	 */
+	ArrayList<Integer> getCurrentBasis();
+
+	/*
+	 * Two-phase mode : the steps stop when the IW row (the artificial variables sum) can't be improved,
+	 * then dropArtificialVariables starts the second phase - the artificial variables left in the basis (at zero)
+	 * are pivoted out of it, rows where that is impossible are redundant and dropped with them,
+	 * and the artificial columns (given 0 based) and the IW row are dropped, so the steps go on with the C'j row alone.
+	 */
+	void setTwoPhase(Boolean twoPhase);
+	void dropArtificialVariables(boolean[] artificialColumns);
+
+	/*
+	 * Anti-cycling of the steps (see AntiCycling), none by default.
+	 */
+	void setAntiCycling(AntiCycling antiCycling);
+
+	/*
+	 * Value of the basis variable of given row and the objective value without its artificial (big M) part,
+	 * Rational on the exact engines and Double on the floating point engines.
+	 */
+	Number getBasisValue(Integer rI);
+	Number getObjectiveValue();
+
+	/*
+	 * Get solutions string of the current step solutions.
+	 */
+	String toSolutionsString();
+
+	/*
+	 * Get table string of the current simplex matrix.
+	 */
+	String toMatrixString();
+
+}
@@ -0,0 +1,130 @@
+import java.util.Arrays;
+
+
+/*
+ * Result of a solve : the solution type, the values of the original variables and the objective value
+ * at the final basis, the final basis itself and the number of iterations (pivots).
+ * The values are doubles on every engine, the exact engines also keep them as fractions.
+ * The result is immutable (its arrays are copied on the way out), and is formatted only by toString.
+ */
+public class SimplexResult {
+
+	private Simplex.SolutionType solutionType;
+
+	/*
+	 * The reason a solve stopped with LIMIT_REACHED (null when it didn't).
+	 */
+	private SolveLimits.Reason limitReason;
+
+	/*
+	 * Values of the original variables (0 based) and the objective value without its big M part,
+	 * the exact ones are null on the floating point engines.
+	 */
+	private double[] values;
+	private double objectiveValue;
+	private Rational[] exactValues;
+	private Rational exactObjectiveValue;
+
+	/*
+	 * The basis variable of each constraint row (1 based, slake/artificial variables follow the problem variables),
+	 * of the reduced problem when the problem was presolved.
+	 */
+	private int[] basis;
+
+	private long iterations;
+
+	private SolveMetrics metrics;
+
+	/*
+	 * The values are Rational on the exact engines and Double on the floating point engines.
+	 */
+	SimplexResult(Simplex.SolutionType solutionType, SolveLimits.Reason limitReason, Number[] values, Number objectiveValue, int[] basis, SolveMetrics metrics) {
+		this.solutionType = solutionType;
+		this.limitReason = limitReason;
+		boolean exact = objectiveValue instanceof Rational;
+		this.values = new double[values.length];
+		this.exactValues = (exact) ? (new Rational[values.length]) : (null);
+		for(int vI = 0; vI < values.length; vI++) {
+			this.values[vI] = values[vI].doubleValue();
+			if(exact) {
+				this.exactValues[vI] = (Rational)values[vI];
+			}
+		}
+		this.objectiveValue = objectiveValue.doubleValue();
+		this.exactObjectiveValue = (exact) ? ((Rational)objectiveValue) : (null);
+		this.basis = basis;
+		this.iterations = metrics.getPivots();
+		this.metrics = metrics;
+	}
+
+	public Simplex.SolutionType getSolutionType() {
+		return this.solutionType;
+	}
+
+	public SolveLimits.Reason getLimitReason() {
+		return this.limitReason;
+	}
+
+	/*
+	 * Number of the original variables.
+	 */
+	public int getVariablesCount() {
+		return this.values.length;
+	}
+
+	/*
+	 * Value of given original variable (0 based).
+	 */
+	public double getValue(int variable) {
+		return this.values[variable];
+	}
+
+	public double[] getValues() {
+		return Arrays.copyOf(this.values, this.values.length);
+	}
+
+	public double getObjectiveValue() {
+		return this.objectiveValue;
+	}
+
+	/*
+	 * Exact value of given original variable (0 based), null on the floating point engines.
+	 */
+	public Rational getExactValue(int variable) {
+		return (this.exactValues != null) ? (this.exactValues[variable]) : (null);
+	}
+
+	public Rational getExactObjectiveValue() {
+		return this.exactObjectiveValue;
+	}
+
+	public int[] getBasis() {
+		return Arrays.copyOf(this.basis, this.basis.length);
+	}
+
+	public long getIterations() {
+		return this.iterations;
+	}
+
+	public SolveMetrics getMetrics() {
+		return this.metrics;
+	}
+
+	/*
+	 * The solution type, the non zero original variables and the objective value,
+	 * like the solutions string of the log : "SINGLE X1 = +2; X3 = +1/2; Z = +5".
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(this.solutionType + " ");
+		for(int vI = 0; vI < this.values.length; vI++) {
+			if(this.values[vI] != 0) {
+				sb.append("X" + (vI + 1) + " = " + ((this.exactValues != null) ? (this.exactValues[vI].toString()) : (FloatingPointTableau.format(this.values[vI]))) + "; ");
+			}
+		}
+		sb.append("Z = " + ((this.exactObjectiveValue != null) ? (this.exactObjectiveValue.toString()) : (FloatingPointTableau.format(this.objectiveValue))));
+		return sb.toString();
+	}
+
+}
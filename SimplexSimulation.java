@@ -1,3 +1,4 @@
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Scanner;
 
@@ -15,6 +16,11 @@ public class SimplexSimulation {
 	 */
 	private static Scanner scanner = new Scanner(System.in);
 	
+	/*
+	 * Log of the simulation and the solve.
+	 */
+	private static SimLog log = null;
+	
 	/*
 	 * Main function that responsible for the simplex simulation.
 	 */
@@ -35,27 +41,30 @@ public class SimplexSimulation {
 		}
 		
 		if(outputMethodCode.equals(2)) {
-			SimLog.setStreamType(SimLog.LogStreamType.FILE_STREAM);
+			SimplexSimulation.log = new SimLog(SimLog.LogStreamType.FILE_STREAM);
 		}
 		else {
-			SimLog.setStreamType(SimLog.LogStreamType.SYS_OUT_STREAM);
+			SimplexSimulation.log = new SimLog(SimLog.LogStreamType.SYS_OUT_STREAM);
 		}
 		
-		SimLog.writeln("Starting linear programming problem data reception :");
+		// the log level can be lowered (e.g. -Dsimplex.logLevel=SUMMARY) for big problems
+		SimplexSimulation.log.setLevel(SimLog.LogLevel.valueOf(System.getProperty("simplex.logLevel", SimLog.LogLevel.TRACE.name())));
+		
+		SimplexSimulation.log.writeln("Starting linear programming problem data reception :");
 		
 		SimplexSimulation.constraintsInput();
 		
-		SimLog.writeln("Problem reception ended.");
+		SimplexSimulation.log.writeln("Problem reception ended.");
 		
-		SimLog.writeln("The problem is:\n" + SimplexSimulation.simplex);
+		SimplexSimulation.log.writeln(SimLog.LogLevel.SUMMARY, () -> "The problem is:\n" + SimplexSimulation.simplex);
 		
-		SimLog.writeln("Starting simplex solution :");
+		SimplexSimulation.log.writeln("Starting simplex solution :");
 		
 		SimplexSimulation.solveSimplex();
 		
-		SimLog.writeln("Simplex solved !");
+		SimplexSimulation.log.writeln("Simplex solved !");
 		
-		SimLog.close();
+		SimplexSimulation.log.close();
 		
 		System.out.println("Done!");
 	}
@@ -64,7 +73,13 @@ public class SimplexSimulation {
 	 * Perform simplex method on given problem.
 	 */
 	private static void solveSimplex() {
-		SimplexSimulation.simplex.solve();
+		SimplexSimulation.simplex.setPresolve(Boolean.getBoolean("simplex.presolve"));
+		SimplexSimulation.simplex.setArtificialVariablesMethod(Simplex.ArtificialVariablesMethod.valueOf(System.getProperty("simplex.artificialVariables", Simplex.ArtificialVariablesMethod.BIG_M.name())));
+		SimplexSimulation.simplex.setPricingRule(PricingRule.Type.valueOf(System.getProperty("simplex.pricing", PricingRule.Type.DANTZIG.name())));
+		SimplexSimulation.simplex.setAntiCycling(AntiCycling.Mode.valueOf(System.getProperty("simplex.antiCycling", AntiCycling.Mode.BLAND.name())), Integer.getInteger("simplex.degeneratePivotsLimit", AntiCycling.DEFAULT_LIMIT), Boolean.getBoolean("simplex.perturbation"));
+		Long timeout = Long.getLong("simplex.timeoutMillis");
+		SimplexSimulation.simplex.setLimits(SolveLimits.of(Long.getLong("simplex.maxIterations", Long.MAX_VALUE), (timeout != null) ? (Duration.ofMillis(timeout)) : (null)));
+		SimplexSimulation.simplex.solve(Simplex.EngineType.valueOf(System.getProperty("simplex.engine", Simplex.EngineType.EXACT.name())));
 	}
 	
 	/*
@@ -84,15 +99,15 @@ public class SimplexSimulation {
 		while(!done) {
 			String input = SimplexSimulation.scanner.nextLine();
 			if(input.equals("exit")) {
-				SimLog.writeln("Process stoped!");
+				SimplexSimulation.log.writeln("Process stoped!");
 				done = true;
-				SimLog.close();
+				SimplexSimulation.log.close();
 				System.exit(0);
 			}
 			else {
 				objFunc = new ObjectiveFunction(input);
 				if(!objFunc.getValid()) {
-					System.out.println("Invalid objective function, try again :");
+					System.out.println("Invalid objective function (" + objFunc.getParseError() + "), try again :");
 				}
 				else {
 					done = true;
@@ -112,9 +127,9 @@ public class SimplexSimulation {
 		while(!done) {
 			String input = SimplexSimulation.scanner.nextLine();
 			if(input.equals("exit")) {
-				SimLog.writeln("Process stoped!");
+				SimplexSimulation.log.writeln("Process stoped!");
 				done = true;
-				SimLog.close();
+				SimplexSimulation.log.close();
 				System.exit(0);
 			}
 			else if(input.equals("") && constraintsCounter > 0) {
@@ -124,7 +139,7 @@ public class SimplexSimulation {
 			else {
 				Constraint constraint = new Constraint(input);
 				if(!constraint.getValid()) {
-					System.out.println("Invalid constraint, try again :");
+					System.out.println("Invalid constraint (" + constraint.getParseError() + "), try again :");
 				}
 				else {
 					constraintsCounter++;
@@ -134,7 +149,7 @@ public class SimplexSimulation {
 		}
 		
 		if(simplexCanBeBuilt) {
-			SimplexSimulation.simplex = new Simplex(constraints, objFunc);
+			SimplexSimulation.simplex = new Simplex(constraints, objFunc, SimplexSimulation.log);
 		}
 		
 	}
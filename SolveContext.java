@@ -0,0 +1,112 @@
+import java.util.Arrays;
+import java.util.HashMap;
+
+
+/*
+ * State of a single solve : the aliases of the variables (X - original/slake, Y - artificial),
+ * the indication that the constraints were completed with slake/artificial variables,
+ * the log of the solve and its metrics.
+ * Each Simplex instance holds its own context, so several instances can be solved concurrently.
+ */
+public class SolveContext {
+
+	private HashMap<Integer, String> variablesAliases;
+
+	private Boolean constraintsProcessed;
+
+	private SimLog log;
+
+	/*
+	 * Binary trace of the pivots, null when the solve isn't traced.
+	 */
+	private PivotTrace trace;
+
+	/*
+	 * Metrics of the current solve.
+	 */
+	private SolveMetrics metrics;
+
+	/*
+	 * Original (1 based) index of each variable once variables were dropped (two-phase), null while none was dropped.
+	 */
+	private int[] originalVariables;
+
+	public SolveContext(SimLog log) {
+		this.variablesAliases = new HashMap<Integer, String>();
+		this.constraintsProcessed = false;
+		this.log = log;
+		this.metrics = new SolveMetrics(SolveMetrics.Detail.BASIC, Simplex.EngineType.EXACT);
+	}
+
+	public HashMap<Integer, String> getAliases() {
+		return this.variablesAliases;
+	}
+
+	/*
+	 * Alias of the variable at given (1 based) index.
+	 */
+	public String getAlias(Integer variable) {
+		return this.variablesAliases.get(variable);
+	}
+
+	public Boolean getConstraintsProcessed() {
+		return this.constraintsProcessed;
+	}
+
+	public void setConstraintsProcessed(Boolean constraintsProcessed) {
+		this.constraintsProcessed = constraintsProcessed;
+	}
+
+	public SimLog getLog() {
+		return this.log;
+	}
+
+	public PivotTrace getTrace() {
+		return this.trace;
+	}
+
+	public void setTrace(PivotTrace trace) {
+		this.trace = trace;
+	}
+
+	/*
+	 * Drop the variables of given (0 based) columns, the next variables move down with their aliases.
+	 * Returns the new column of each column, -1 for the dropped ones.
+	 */
+	public int[] dropVariables(boolean[] droppedColumns) {
+		int[] columns = new int[droppedColumns.length];
+		HashMap<Integer, String> variablesAliases = new HashMap<Integer, String>();
+		int[] originalVariables = new int[droppedColumns.length];
+		int kept = 0;
+		for(int cI = 0; cI < droppedColumns.length; cI++) {
+			if(droppedColumns[cI]) {
+				columns[cI] = -1;
+				continue;
+			}
+			columns[cI] = kept;
+			variablesAliases.put(kept + 1, this.variablesAliases.get(cI + 1));
+			originalVariables[kept] = this.getOriginalVariable(cI + 1);
+			kept++;
+		}
+		this.variablesAliases.clear();
+		this.variablesAliases.putAll(variablesAliases);
+		this.originalVariables = Arrays.copyOf(originalVariables, kept);
+		return columns;
+	}
+
+	/*
+	 * Index of given (1 based) variable before variables were dropped (the trace records the original indices).
+	 */
+	public int getOriginalVariable(int variable) {
+		return (this.originalVariables != null) ? (this.originalVariables[variable - 1]) : (variable);
+	}
+
+	public SolveMetrics getMetrics() {
+		return this.metrics;
+	}
+
+	public void setMetrics(SolveMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+}
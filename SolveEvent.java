@@ -0,0 +1,61 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+
+/*
+ * Flight recorder event of a whole solve (see Simplex.solve).
+ * Enabled by default, it can be configured as any JFR event by its name (e.g. simplex.Solve#threshold=10 ms).
+ */
+@Name("simplex.Solve")
+@Label("Simplex Solve")
+@Category({ "Simplex" })
+@Description("Solve of a linear programming problem")
+@Threshold("0 ns")
+@StackTrace(false)
+public class SolveEvent extends Event {
+
+	@Label("Engine")
+	String engine;
+
+	@Label("Constraints")
+	int constraints;
+
+	@Label("Variables")
+	@Description("Number of variables of the problem, before the slake/artificial variables")
+	int variables;
+
+	@Label("Total Variables")
+	@Description("Number of variables with the slake/artificial variables")
+	int totalVariables;
+
+	@Label("Solution Type")
+	String solutionType;
+
+	@Label("Pivots")
+	long pivots;
+
+	@Label("Degenerate Pivots")
+	long degeneratePivots;
+
+	/*
+	 * Commit the event (if enabled and over its threshold) with the solve details.
+	 */
+	void commit(Simplex.EngineType engineType, int constraints, int variables, int totalVariables, Simplex.SolutionType solutionType, SolveMetrics metrics) {
+		if(this.shouldCommit()) {
+			this.engine = engineType.name();
+			this.constraints = constraints;
+			this.variables = variables;
+			this.totalVariables = totalVariables;
+			this.solutionType = (solutionType != null) ? (solutionType.name()) : (null);
+			this.pivots = metrics.getPivots();
+			this.degeneratePivots = metrics.getDegeneratePivots();
+			this.commit();
+		}
+	}
+
+}
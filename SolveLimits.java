@@ -0,0 +1,70 @@
+import java.time.Duration;
+import java.time.Instant;
+
+
+/*
+ * Limits of a solve, checked between the pivots : the number of iterations (pivots) and the wall clock deadline.
+ * A solve that reaches a limit, or whose CancellationToken is cancelled, stops with LIMIT_REACHED
+ * and keeps its current basis and objective value.
+ */
+public class SolveLimits {
+
+	enum Reason {
+		ITERATIONS,
+		DEADLINE,
+		CANCELLED
+	}
+
+	/*
+	 * No limits (the default of the solver).
+	 */
+	public static final SolveLimits NONE = new SolveLimits(Long.MAX_VALUE, null);
+
+	/*
+	 * Maximal number of iterations, and the deadline (null when there is none).
+	 */
+	private long maxIterations;
+	private Instant deadline;
+
+	public SolveLimits(long maxIterations, Instant deadline) {
+		if(maxIterations < 0) {
+			throw new IllegalArgumentException("The iterations limit can't be negative");
+		}
+		this.maxIterations = maxIterations;
+		this.deadline = deadline;
+	}
+
+	/*
+	 * Limits of given iterations and time from now (null for no time limit).
+	 */
+	public static SolveLimits of(long maxIterations, Duration timeout) {
+		return new SolveLimits(maxIterations, (timeout != null) ? (Instant.now().plus(timeout)) : (null));
+	}
+
+	public long getMaxIterations() {
+		return this.maxIterations;
+	}
+
+	public Instant getDeadline() {
+		return this.deadline;
+	}
+
+	/*
+	 * The deadline on the System.nanoTime scale (which is checked between the pivots, since it is cheaper than the clock),
+	 * or null when there is none. Far deadlines are cut to about seventy years.
+	 */
+	Long deadlineNanos() {
+		if(this.deadline == null) {
+			return null;
+		}
+		long remaining = Duration.between(Instant.now(), this.deadline).toMillis();
+		long nanos = (remaining <= 0) ? (0) : (Math.min(remaining, Long.MAX_VALUE / 4_000_000) * 1_000_000);
+		return System.nanoTime() + nanos;
+	}
+
+	@Override
+	public String toString() {
+		return "iterations " + ((this.maxIterations == Long.MAX_VALUE) ? ("unlimited") : (String.valueOf(this.maxIterations))) + ", deadline " + ((this.deadline != null) ? (this.deadline.toString()) : ("none"));
+	}
+
+}
@@ -0,0 +1,381 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+
+/*
+ * Metrics of a single solve : wall and CPU time of the whole solve and of its phases,
+ * number of pivots (and degenerate ones - pivots on a zero B row, which don't improve the objective),
+ * the anti-cycling mode with its switches, pivots and perturbations (see AntiCycling),
+ * fractions operations counts and the bytes allocated by the solving thread.
+ * The detail decides what is measured, since the per step measurements have their own cost :
+ *  BASIC - totals, pivots, allocations, and the presolve, normalization and matrix transformation phases.
+ *  PHASES - also the pricing, ratio test and pivot update phases of each step.
+ *  ARITHMETIC - also the Rational operations counts of the solving thread (exact engines).
+ * The times and allocations are of the solving thread, work of ParallelElimination pools isn't included.
+ */
+public class SolveMetrics {
+
+	enum Phase {
+		PRESOLVE,
+		NORMALIZATION,
+		MATRIX_TRANSFORMATION,
+		PRICING,
+		RATIO_TEST,
+		PIVOT_UPDATE
+	}
+
+	enum Detail {
+		BASIC,
+		PHASES,
+		ARITHMETIC
+	}
+
+	/*
+	 * Destination of the metrics in a meters registry (e.g. adapter of Micrometer MeterRegistry),
+	 * the tags are key, value pairs.
+	 */
+	public interface Registry {
+		void counter(String name, double amount, String... tags);
+		void timer(String name, long nanos, String... tags);
+	}
+
+	private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+	private Detail detail;
+	private Simplex.EngineType engineType;
+
+	private long wallNanos;
+	private long cpuNanos;
+	private long allocatedBytes;
+
+	private long[] phaseWallNanos;
+	private long[] phaseCpuNanos;
+
+	/*
+	 * The measured phase and the time it was entered (null when no phase is measured).
+	 */
+	private Phase currentPhase;
+	private long phaseStartWall;
+	private long phaseStartCpu;
+
+	private long pivots;
+	private long degeneratePivots;
+
+	/*
+	 * The anti-cycling mode, the times it was switched on, the pivots made in it and the perturbations of the B column.
+	 */
+	private AntiCycling.Mode antiCyclingMode;
+	private long antiCyclingSwitches;
+	private long antiCyclingPivots;
+	private long perturbations;
+
+	/*
+	 * The last pivot : entering and leaving variables (1 based), the pivot value (exact or floating) and its degeneracy.
+	 */
+	private int lastEntering;
+	private int lastLeaving;
+	private Rational lastExactPivot;
+	private double lastPivot;
+	private boolean lastPivotDegenerate;
+
+	/*
+	 * Counts of the Rational operations, indexed by Rational.Operation ordinal.
+	 */
+	private long[] operationCounts;
+
+	private Boolean running;
+
+	public SolveMetrics(Detail detail, Simplex.EngineType engineType) {
+		this.detail = detail;
+		this.engineType = engineType;
+		this.phaseWallNanos = new long[Phase.values().length];
+		this.phaseCpuNanos = new long[Phase.values().length];
+		this.operationCounts = new long[Rational.Operation.values().length];
+		this.currentPhase = null;
+		this.pivots = this.degeneratePivots = 0;
+		this.antiCyclingMode = AntiCycling.Mode.NONE;
+		this.antiCyclingSwitches = this.antiCyclingPivots = this.perturbations = 0;
+		this.running = false;
+	}
+
+	/*
+	 * CPU time of the current thread, -1 if the runtime doesn't measure it.
+	 */
+	public static long currentThreadCpuTime() {
+		return (SolveMetrics.threadBean.isCurrentThreadCpuTimeSupported()) ? (SolveMetrics.threadBean.getCurrentThreadCpuTime()) : (-1);
+	}
+
+	/*
+	 * Bytes allocated by the current thread, -1 if the runtime doesn't measure them.
+	 */
+	public static long currentThreadAllocatedBytes() {
+		if(SolveMetrics.threadBean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean)SolveMetrics.threadBean;
+			if(bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+				return bean.getCurrentThreadAllocatedBytes();
+			}
+		}
+		return -1;
+	}
+
+	/*
+	 * Start measuring on the solving thread.
+	 */
+	void start() {
+		this.running = true;
+		this.wallNanos = System.nanoTime();
+		this.cpuNanos = SolveMetrics.currentThreadCpuTime();
+		this.allocatedBytes = SolveMetrics.currentThreadAllocatedBytes();
+		if(this.detail == Detail.ARITHMETIC) {
+			Rational.startCounting(this.operationCounts);
+		}
+	}
+
+	/*
+	 * Stop measuring, the totals become the differences from start.
+	 */
+	void stop() {
+		if(!this.running) {
+			return;
+		}
+		this.leave();
+		if(this.detail == Detail.ARITHMETIC) {
+			Rational.stopCounting();
+		}
+		this.wallNanos = System.nanoTime() - this.wallNanos;
+		this.cpuNanos = (this.cpuNanos < 0) ? (-1) : (SolveMetrics.currentThreadCpuTime() - this.cpuNanos);
+		this.allocatedBytes = (this.allocatedBytes < 0) ? (-1) : (SolveMetrics.currentThreadAllocatedBytes() - this.allocatedBytes);
+		this.running = false;
+	}
+
+	/*
+	 * Check if given phase is measured in this detail (the step phases are measured from PHASES).
+	 */
+	private boolean measures(Phase phase) {
+		return phase == Phase.PRESOLVE || phase == Phase.NORMALIZATION || phase == Phase.MATRIX_TRANSFORMATION || this.detail != Detail.BASIC;
+	}
+
+	/*
+	 * Start measuring given phase, the measured phase (if any) ends.
+	 */
+	public void enter(Phase phase) {
+		if(!this.running || !this.measures(phase)) {
+			return;
+		}
+		long wall = System.nanoTime();
+		long cpu = SolveMetrics.currentThreadCpuTime();
+		this.charge(wall, cpu);
+		this.currentPhase = phase;
+		this.phaseStartWall = wall;
+		this.phaseStartCpu = cpu;
+	}
+
+	/*
+	 * End the measured phase.
+	 */
+	public void leave() {
+		if(this.currentPhase == null) {
+			return;
+		}
+		this.charge(System.nanoTime(), SolveMetrics.currentThreadCpuTime());
+		this.currentPhase = null;
+	}
+
+	private void charge(long wall, long cpu) {
+		if(this.currentPhase != null) {
+			this.phaseWallNanos[this.currentPhase.ordinal()] += wall - this.phaseStartWall;
+			this.phaseCpuNanos[this.currentPhase.ordinal()] += cpu - this.phaseStartCpu;
+		}
+	}
+
+	/*
+	 * Count a pivot of the exact engines (the variables are 1 based).
+	 */
+	public void pivot(int entering, int leaving, Rational pivot, boolean degenerate) {
+		this.lastExactPivot = pivot;
+		this.count(entering, leaving, degenerate);
+	}
+
+	/*
+	 * Count a pivot of the floating point engines (the variables are 1 based).
+	 */
+	public void pivot(int entering, int leaving, double pivot, boolean degenerate) {
+		this.lastExactPivot = null;
+		this.lastPivot = pivot;
+		this.count(entering, leaving, degenerate);
+	}
+
+	private void count(int entering, int leaving, boolean degenerate) {
+		this.lastEntering = entering;
+		this.lastLeaving = leaving;
+		this.lastPivotDegenerate = degenerate;
+		this.pivots++;
+		if(degenerate) {
+			this.degeneratePivots++;
+		}
+	}
+
+	void setAntiCyclingMode(AntiCycling.Mode antiCyclingMode) {
+		this.antiCyclingMode = antiCyclingMode;
+	}
+
+	/*
+	 * Count a switch of the anti-cycling mode, a pivot made in it and a perturbation of the B column.
+	 */
+	public void antiCyclingSwitch() {
+		this.antiCyclingSwitches++;
+	}
+
+	public void antiCyclingPivot() {
+		this.antiCyclingPivots++;
+	}
+
+	public void perturbation() {
+		this.perturbations++;
+	}
+
+	public Detail getDetail() {
+		return this.detail;
+	}
+
+	public Simplex.EngineType getEngineType() {
+		return this.engineType;
+	}
+
+	public long getWallNanos() {
+		return this.wallNanos;
+	}
+
+	public long getCpuNanos() {
+		return this.cpuNanos;
+	}
+
+	public long getAllocatedBytes() {
+		return this.allocatedBytes;
+	}
+
+	public long getPhaseWallNanos(Phase phase) {
+		return this.phaseWallNanos[phase.ordinal()];
+	}
+
+	public long getPhaseCpuNanos(Phase phase) {
+		return this.phaseCpuNanos[phase.ordinal()];
+	}
+
+	public long getPivots() {
+		return this.pivots;
+	}
+
+	public long getDegeneratePivots() {
+		return this.degeneratePivots;
+	}
+
+	public AntiCycling.Mode getAntiCyclingMode() {
+		return this.antiCyclingMode;
+	}
+
+	public long getAntiCyclingSwitches() {
+		return this.antiCyclingSwitches;
+	}
+
+	public long getAntiCyclingPivots() {
+		return this.antiCyclingPivots;
+	}
+
+	public long getPerturbations() {
+		return this.perturbations;
+	}
+
+	public int getLastEntering() {
+		return this.lastEntering;
+	}
+
+	public int getLastLeaving() {
+		return this.lastLeaving;
+	}
+
+	public double getLastPivotMagnitude() {
+		return Math.abs((this.lastExactPivot != null) ? (this.lastExactPivot.doubleValue()) : (this.lastPivot));
+	}
+
+	public boolean getLastPivotDegenerate() {
+		return this.lastPivotDegenerate;
+	}
+
+	public long getOperationCount(Rational.Operation operation) {
+		return this.operationCounts[operation.ordinal()];
+	}
+
+	private static String lowerCase(Enum<?> value) {
+		return value.name().toLowerCase();
+	}
+
+	/*
+	 * The metrics as JSON object (the phases and operations are present only when measured in this detail).
+	 */
+	public String toJson() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\"engine\":\"" + this.engineType + "\",\"detail\":\"" + this.detail + "\"");
+		sb.append(",\"wallNanos\":" + this.wallNanos + ",\"cpuNanos\":" + this.cpuNanos + ",\"allocatedBytes\":" + this.allocatedBytes);
+		sb.append(",\"pivots\":" + this.pivots + ",\"degeneratePivots\":" + this.degeneratePivots);
+		sb.append(",\"antiCycling\":{\"mode\":\"" + this.antiCyclingMode + "\",\"switches\":" + this.antiCyclingSwitches + ",\"pivots\":" + this.antiCyclingPivots + ",\"perturbations\":" + this.perturbations + "}");
+		sb.append(",\"phases\":{");
+		String separator = "";
+		for(Phase phase : Phase.values()) {
+			if(this.measures(phase)) {
+				sb.append(separator + "\"" + SolveMetrics.lowerCase(phase) + "\":{\"wallNanos\":" + this.getPhaseWallNanos(phase) + ",\"cpuNanos\":" + ((this.cpuNanos < 0) ? (-1) : (this.getPhaseCpuNanos(phase))) + "}");
+				separator = ",";
+			}
+		}
+		sb.append("}");
+		if(this.detail == Detail.ARITHMETIC) {
+			sb.append(",\"rationalOperations\":{");
+			separator = "";
+			for(Rational.Operation operation : Rational.Operation.values()) {
+				sb.append(separator + "\"" + SolveMetrics.lowerCase(operation) + "\":" + this.getOperationCount(operation));
+				separator = ",";
+			}
+			sb.append("}");
+		}
+		return sb.append("}").toString();
+	}
+
+	/*
+	 * Record the metrics in given registry, all the meters are tagged with the engine :
+	 *  simplex.solve (timer), simplex.solve.cpu (timer), simplex.phase (timer, tag phase),
+	 *  simplex.pivots, simplex.pivots.degenerate, simplex.allocated.bytes, simplex.rational.operations (counters, tag operation),
+	 *  simplex.anticycling.switches, simplex.anticycling.pivots, simplex.anticycling.perturbations (counters, tag mode).
+	 */
+	public void publish(Registry registry) {
+		String engine = this.engineType.name();
+		registry.timer("simplex.solve", this.wallNanos, "engine", engine);
+		if(this.cpuNanos >= 0) {
+			registry.timer("simplex.solve.cpu", this.cpuNanos, "engine", engine);
+		}
+		for(Phase phase : Phase.values()) {
+			if(this.measures(phase)) {
+				registry.timer("simplex.phase", this.getPhaseWallNanos(phase), "engine", engine, "phase", SolveMetrics.lowerCase(phase));
+			}
+		}
+		registry.counter("simplex.pivots", this.pivots, "engine", engine);
+		registry.counter("simplex.pivots.degenerate", this.degeneratePivots, "engine", engine);
+		String mode = SolveMetrics.lowerCase(this.antiCyclingMode);
+		registry.counter("simplex.anticycling.switches", this.antiCyclingSwitches, "engine", engine, "mode", mode);
+		registry.counter("simplex.anticycling.pivots", this.antiCyclingPivots, "engine", engine, "mode", mode);
+		registry.counter("simplex.anticycling.perturbations", this.perturbations, "engine", engine, "mode", mode);
+		if(this.allocatedBytes >= 0) {
+			registry.counter("simplex.allocated.bytes", this.allocatedBytes, "engine", engine);
+		}
+		if(this.detail == Detail.ARITHMETIC) {
+			for(Rational.Operation operation : Rational.Operation.values()) {
+				registry.counter("simplex.rational.operations", this.getOperationCount(operation), "engine", engine, "operation", SolveMetrics.lowerCase(operation));
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return this.toJson();
+	}
+
+}
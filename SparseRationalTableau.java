@@ -0,0 +1,486 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+
+/*
+ * Simplex engine that works with exact fractions, where the simplex matrix rows are kept compressed :
+ * each row holds only its non zero entries (sorted by column), and the B column is kept aside.
+ * The matrix is built directly from the constraints, so memory scales with the non zero entries,
+ * and the ratio test and pivot update only visit non zero entries.
+ * The C'j and IW rows are kept as a single dense objective row of Big-M numbers (C'j + IW * M).
+ */
+public class SparseRationalTableau extends Tableau implements PricingRule.Columns {
+
+	/*
+	 * Columns and values of the non zero entries of each row, and the number of entries in use.
+	 */
+	private int[][] rowColumns;
+	private Rational[][] rowValues;
+	private int[] rowSizes;
+
+	/*
+	 * The B column.
+	 */
+	private Rational[] bColumn;
+
+	/*
+	 * The objective row, its last entry is the objective value.
+	 */
+	private BigMNumber[] objectiveRow;
+
+	/*
+	 * Choice of the variable that enters the basis (Dantzig's rule by default).
+	 */
+	private PricingRule pricingRule;
+
+	/*
+	 * The variables of the initial basis (1 based), their columns lead the lexicographic ratio test.
+	 */
+	private ArrayList<Integer> initialBasis;
+
+	/*
+	 * Work space of the pivot update.
+	 */
+	private int[] mergedColumns;
+	private Rational[] mergedValues;
+
+	public SparseRationalTableau(ArrayList<Constraint> constraints, ObjectiveFunction objectiveFunction, Simplex.ProblemType problemType, Boolean artificialVariablesExists, Integer totalNumberOfVariables, SolveContext context) {
+		super(new ArrayList<Integer>(), problemType, artificialVariablesExists, totalNumberOfVariables, context);
+
+		int rows = constraints.size();
+		this.rowColumns = new int[rows][];
+		this.rowValues = new Rational[rows][];
+		this.rowSizes = new int[rows];
+		this.bColumn = new Rational[rows];
+		this.mergedColumns = new int[totalNumberOfVariables];
+		this.mergedValues = new Rational[totalNumberOfVariables];
+
+		/*
+		 * The objective row is zj - cj, where the zj are of the initial basis (the last variable of each constraint).
+		 */
+		ArrayList<BigMNumber> costs = objectiveFunction.getCoefficients();
+		this.objectiveRow = new BigMNumber[totalNumberOfVariables + 1];
+		for(int cI = 0; cI < totalNumberOfVariables; cI++) {
+			this.objectiveRow[cI] = (cI < costs.size()) ? (costs.get(cI).negative()) : (BigMNumber.ZERO);
+		}
+		this.objectiveRow[totalNumberOfVariables] = BigMNumber.ZERO;
+
+		for(int rI = 0; rI < rows; rI++) {
+			ArrayList<Rational> coeffs = constraints.get(rI).getCoefficients();
+			this.setRow(rI, coeffs.toArray(new Rational[coeffs.size()]));
+			this.bColumn[rI] = constraints.get(rI).getBound();
+			this.currentBasis.add(coeffs.size());
+
+			BigMNumber basisCost = costs.get(coeffs.size() - 1);
+			if(!basisCost.isZero()) {
+				for(int k = 0; k < this.rowSizes[rI]; k++) {
+					int cI = this.rowColumns[rI][k];
+					this.objectiveRow[cI] = this.objectiveRow[cI].add(basisCost.multiply(this.rowValues[rI][k]));
+				}
+				this.objectiveRow[totalNumberOfVariables] = this.objectiveRow[totalNumberOfVariables].add(basisCost.multiply(this.bColumn[rI]));
+			}
+		}
+		this.setPricingRule(PricingRule.create(PricingRule.Type.DANTZIG));
+		this.initialBasis = new ArrayList<Integer>(this.currentBasis);
+	}
+
+	public void setPricingRule(PricingRule pricingRule) {
+		this.pricingRule = pricingRule;
+		this.pricingRule.reset(this, this.totalNumberOfVariables);
+	}
+
+	@Override
+	public void squaredNorms(double[] norms) {
+		Arrays.fill(norms, 0);
+		for(int rI = 0; rI < this.rowColumns.length; rI++) {
+			for(int k = 0; k < this.rowSizes[rI]; k++) {
+				double value = this.rowValues[rI][k].doubleValue();
+				norms[this.rowColumns[rI][k]] += value * value;
+			}
+		}
+	}
+
+	@Override
+	public int constraintsCount() {
+		return this.rowColumns.length;
+	}
+
+	@Override
+	public void row(int rI, double[] values) {
+		Arrays.fill(values, 0);
+		for(int k = 0; k < this.rowSizes[rI]; k++) {
+			values[this.rowColumns[rI][k]] = this.rowValues[rI][k].doubleValue();
+		}
+	}
+
+	@Override
+	public void column(int cI, double[] values) {
+		for(int rI = 0; rI < this.rowColumns.length; rI++) {
+			int k = Arrays.binarySearch(this.rowColumns[rI], 0, this.rowSizes[rI], cI);
+			values[rI] = (k >= 0) ? (this.rowValues[rI][k].doubleValue()) : (0);
+		}
+	}
+
+	@Override
+	public void combination(double[] multipliers, double[] values) {
+		Arrays.fill(values, 0);
+		for(int rI = 0; rI < this.rowColumns.length; rI++) {
+			if(multipliers[rI] != 0) {
+				for(int k = 0; k < this.rowSizes[rI]; k++) {
+					values[this.rowColumns[rI][k]] += multipliers[rI] * this.rowValues[rI][k].doubleValue();
+				}
+			}
+		}
+	}
+
+	/*
+	 * Compress given dense row into the matrix.
+	 */
+	private void setRow(int rI, Rational[] dense) {
+		int size = 0;
+		for(Rational value : dense) {
+			if(!value.isZero()) {
+				size++;
+			}
+		}
+		int[] columns = new int[size];
+		Rational[] values = new Rational[size];
+		int k = 0;
+		for(int cI = 0; cI < dense.length; cI++) {
+			if(!dense[cI].isZero()) {
+				columns[k] = cI;
+				values[k] = dense[cI];
+				k++;
+			}
+		}
+		this.rowColumns[rI] = columns;
+		this.rowValues[rI] = values;
+		this.rowSizes[rI] = size;
+	}
+
+	/*
+	 * Get matrix entry (zero if it isn't kept).
+	 */
+	private Rational get(int rI, int cI) {
+		int k = Arrays.binarySearch(this.rowColumns[rI], 0, this.rowSizes[rI], cI);
+		return (k >= 0) ? (this.rowValues[rI][k]) : (Rational.ZERO);
+	}
+
+	@Override
+	protected Integer rowsCount() {
+		return this.rowColumns.length + ((this.artificialVariablesExists) ? (2) : (1));
+	}
+
+	@Override
+	protected String cellString(Integer rI, Integer cI) {
+		if(rI >= this.rowColumns.length) {
+			return (rI.equals(this.cpjRealRowIndex())) ? (this.objectiveRow[cI].getReal().toString()) : (this.objectiveRow[cI].getM().toString());
+		}
+		if(cI.equals(this.bColumnIndex())) {
+			return this.bColumn[rI].toString();
+		}
+		return this.get(rI, cI).toString();
+	}
+
+	@Override
+	public Boolean artificialWeightRemains() {
+		return !this.objectiveRow[this.bColumnIndex()].isReal();
+	}
+
+	@Override
+	public String toSolutionsString() {
+		StringBuilder sb = new StringBuilder();
+		for(Integer rI = 0; rI < this.currentBasis.size(); rI++) {
+			sb.append("X" + this.context.getOriginalVariable(this.currentBasis.get(rI)) + " = " + this.bColumn[rI] + "; ");
+		}
+		BigMNumber z = this.objectiveRow[this.bColumnIndex()];
+		sb.append("Z = ");
+		if(this.artificialVariablesExists && !z.isReal()) {
+			sb.append(z.getM() + "M ");
+		}
+		sb.append(z.getReal());
+		return sb.toString();
+	}
+
+	@Override
+	public Number getBasisValue(Integer rI) {
+		return this.bColumn[rI];
+	}
+
+	@Override
+	public Number getObjectiveValue() {
+		return this.objectiveRow[this.bColumnIndex()].getReal();
+	}
+
+	/*
+	 * Zero coefficients count only when no row with zero B blocks the step of their variable.
+	 */
+	@Override
+	public Boolean notInBaseCoefficientZero() {
+		for(int cI = 0; cI < this.totalNumberOfVariables; cI++) {
+			if(!this.currentBasis.contains(cI + 1)) {
+				if(this.objectiveRow[cI].isZero() && !this.stepBlocked(cI)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * Check if a row with zero B has positive entry at given column, so the variable can enter only with a zero step.
+	 */
+	private boolean stepBlocked(int cI) {
+		for(int rI = 0; rI < this.rowColumns.length; rI++) {
+			if(this.bColumn[rI].isZero() && this.get(rI, cI).signum() > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * Find the column of the variable that should enter the basis (by the pricing rule, or by Bland's rule against cycling),
+	 * -1 if there is no such one.
+	 */
+	private int findInToBasis() {
+		int direction = (this.problemType == Simplex.ProblemType.MAXIMUM) ? (-1) : (1);
+		boolean mOnly = this.twoPhase && this.artificialVariablesExists;
+		if(this.antiCycling.bland()) {
+			return PricingRule.first(this.objectiveRow, this.totalNumberOfVariables, direction, mOnly);
+		}
+		return this.pricingRule.choose(this.objectiveRow, this.totalNumberOfVariables, direction, mOnly);
+	}
+
+	/*
+	 * Find the row of the variable that should leave the basis (ratio test), -1 if there is no such one.
+	 * Ties are broken by the anti-cycling mode : Bland's rule prefers the smallest basis variable,
+	 * the lexicographic one the smallest row divided by its pivot column entry.
+	 */
+	private int findOutFromBasisRow(int inToBasis) {
+		Rational division = null;
+		int pivotR = -1;
+		for(int rI = 0; rI < this.currentBasis.size(); rI++) {
+			Rational value = this.get(rI, inToBasis);
+			if(value.signum() > 0 && this.bColumn[rI].signum() >= 0) {
+				Rational ratio = this.bColumn[rI].divide(value);
+				int comparison = (division == null) ? (-1) : (ratio.compareTo(division));
+				if(comparison == 0 && this.antiCycling.bland()) {
+					comparison = this.currentBasis.get(rI).compareTo(this.currentBasis.get(pivotR));
+				}
+				else if(comparison == 0 && this.antiCycling.lexicographic()) {
+					comparison = AntiCycling.compareRows(this::get, rI, pivotR, inToBasis, this.initialBasis, this.totalNumberOfVariables);
+				}
+				if(comparison < 0) {
+					division = ratio;
+					pivotR = rI;
+				}
+			}
+		}
+		return pivotR;
+	}
+
+	@Override
+	public Boolean performSimplexStep() {
+
+		SolveMetrics metrics = this.context.getMetrics();
+		metrics.enter(SolveMetrics.Phase.PRICING);
+		int inToBasis = this.findInToBasis();
+		metrics.enter(SolveMetrics.Phase.RATIO_TEST);
+		int pivotR = (inToBasis >= 0) ? (this.findOutFromBasisRow(inToBasis)) : (-1);
+		metrics.leave();
+
+		this.dominantAtCpjFound = inToBasis >= 0;
+		this.relevantDivisionFound = pivotR >= 0;
+
+		if(!(this.dominantAtCpjFound && this.relevantDivisionFound)) {
+			return false;
+		}
+
+		this.replace(pivotR, inToBasis);
+		return true;
+	}
+
+	/*
+	 * Perform the basis replacement of a step at given row and column : pivot, count, trace and log it.
+	 */
+	private void replace(int pivotR, int pivotC) {
+
+		SolveMetrics metrics = this.context.getMetrics();
+		Rational pivot = this.get(pivotR, pivotC);
+
+		if(this.context.getLog().isEnabled(SimLog.LogLevel.STEP)) {
+			this.context.getLog().writeln(SimLog.LogLevel.STEP, "Basis replacement : in -> " + this.context.getAlias(pivotC + 1) + ", out -> " + this.context.getAlias(this.currentBasis.get(pivotR)) + ", pivot = " + pivot);
+		}
+
+		boolean degenerate = this.bColumn[pivotR].isZero();
+		metrics.enter(SolveMetrics.Phase.PIVOT_UPDATE);
+
+		int[] pivotColumns = this.rowColumns[pivotR];
+		Rational[] pivotValues = this.rowValues[pivotR];
+		int pivotSize = this.rowSizes[pivotR];
+		for(int k = 0; k < pivotSize; k++) {
+			pivotValues[k] = pivotValues[k].divide(pivot);
+		}
+		this.bColumn[pivotR] = this.bColumn[pivotR].divide(pivot);
+
+		/*
+		 * Merge of the pivot row into each row with non zero at the pivot column,
+		 * entries which become zero are dropped (including the pivot column itself).
+		 */
+		int[] mergedColumns = this.mergedColumns;
+		Rational[] mergedValues = this.mergedValues;
+		for(int rI = 0; rI < this.rowColumns.length; rI++) {
+			if(rI == pivotR) {
+				continue;
+			}
+			Rational factor = this.get(rI, pivotC);
+			if(factor.isZero()) {
+				continue;
+			}
+			int[] columns = this.rowColumns[rI];
+			Rational[] values = this.rowValues[rI];
+			int size = this.rowSizes[rI];
+			int merged = 0;
+			int i = 0;
+			int j = 0;
+			while(i < size || j < pivotSize) {
+				int column;
+				Rational value;
+				if(j >= pivotSize || (i < size && columns[i] < pivotColumns[j])) {
+					column = columns[i];
+					value = values[i++];
+				}
+				else if(i >= size || pivotColumns[j] < columns[i]) {
+					column = pivotColumns[j];
+					value = pivotValues[j++].multiply(factor).negative();
+				}
+				else {
+					column = columns[i];
+					value = values[i++].subtract(pivotValues[j++].multiply(factor));
+				}
+				if(!value.isZero()) {
+					mergedColumns[merged] = column;
+					mergedValues[merged] = value;
+					merged++;
+				}
+			}
+			if(merged > columns.length) {
+				this.rowColumns[rI] = Arrays.copyOf(mergedColumns, merged);
+				this.rowValues[rI] = Arrays.copyOf(mergedValues, merged);
+			}
+			else {
+				System.arraycopy(mergedColumns, 0, columns, 0, merged);
+				System.arraycopy(mergedValues, 0, values, 0, merged);
+				if(merged < size) {
+					Arrays.fill(values, merged, size, null);
+				}
+			}
+			this.rowSizes[rI] = merged;
+			this.bColumn[rI] = this.bColumn[rI].subtract(this.bColumn[pivotR].multiply(factor));
+		}
+
+		BigMNumber objectiveFactor = this.objectiveRow[pivotC];
+		if(!objectiveFactor.isZero()) {
+			for(int k = 0; k < pivotSize; k++) {
+				int cI = pivotColumns[k];
+				this.objectiveRow[cI] = this.objectiveRow[cI].subtract(objectiveFactor.multiply(pivotValues[k]));
+			}
+			this.objectiveRow[this.bColumnIndex()] = this.objectiveRow[this.bColumnIndex()].subtract(objectiveFactor.multiply(this.bColumn[pivotR]));
+		}
+
+		Integer outFromBasis = this.currentBasis.set(pivotR, pivotC + 1);
+		metrics.enter(SolveMetrics.Phase.PRICING);
+		this.pricingRule.update(this, pivotR, pivotC, outFromBasis - 1);
+		metrics.leave();
+		metrics.pivot(pivotC + 1, outFromBasis, pivot, degenerate);
+		this.antiCycling.pivoted(degenerate, metrics);
+
+		if(this.context.getTrace() != null) {
+			BigMNumber z = this.objectiveRow[this.bColumnIndex()];
+			this.context.getTrace().step(this.context.getOriginalVariable(pivotC + 1), this.context.getOriginalVariable(outFromBasis), pivot, z.getReal(), z.getM());
+		}
+
+		this.context.getLog().writeln(SimLog.LogLevel.TRACE, "Performing simplex step. Suitable matrix is now :");
+		this.context.getLog().write(SimLog.LogLevel.TRACE, this::toMatrixString);
+	}
+
+	@Override
+	public void dropArtificialVariables(boolean[] artificialColumns) {
+		boolean[] redundantRows = new boolean[this.currentBasis.size()];
+		for(int rI = 0; rI < this.currentBasis.size(); rI++) {
+			if(!artificialColumns[this.currentBasis.get(rI) - 1]) {
+				continue;
+			}
+			// the basis columns are zero at this row, so any non artificial column kept in the row can enter
+			int inToBasis = -1;
+			for(int k = 0; k < this.rowSizes[rI] && inToBasis < 0; k++) {
+				if(!artificialColumns[this.rowColumns[rI][k]]) {
+					inToBasis = this.rowColumns[rI][k];
+				}
+			}
+			if(inToBasis >= 0) {
+				this.replace(rI, inToBasis);
+			}
+			else {
+				redundantRows[rI] = true;
+			}
+		}
+
+		int[] columns = this.context.dropVariables(artificialColumns);
+		int columnsCount = 0;
+		for(boolean artificial : artificialColumns) {
+			columnsCount += (artificial) ? (0) : (1);
+		}
+		int rows = 0;
+		ArrayList<Integer> currentBasis = new ArrayList<Integer>();
+		for(int rI = 0; rI < this.rowColumns.length; rI++) {
+			if(redundantRows[rI]) {
+				continue;
+			}
+			// the columns keep their order, so the kept entries stay sorted
+			int size = 0;
+			for(int k = 0; k < this.rowSizes[rI]; k++) {
+				int cI = this.rowColumns[rI][k];
+				if(columns[cI] >= 0) {
+					this.rowColumns[rI][size] = columns[cI];
+					this.rowValues[rI][size] = this.rowValues[rI][k];
+					size++;
+				}
+			}
+			Arrays.fill(this.rowValues[rI], size, this.rowSizes[rI], null);
+			this.rowColumns[rows] = this.rowColumns[rI];
+			this.rowValues[rows] = this.rowValues[rI];
+			this.rowSizes[rows] = size;
+			this.bColumn[rows] = this.bColumn[rI];
+			rows++;
+			currentBasis.add(columns[this.currentBasis.get(rI) - 1] + 1);
+		}
+		// the second phase objective is the real part only
+		BigMNumber[] objectiveRow = new BigMNumber[columnsCount + 1];
+		for(int cI = 0; cI < this.totalNumberOfVariables; cI++) {
+			if(columns[cI] >= 0) {
+				objectiveRow[columns[cI]] = BigMNumber.valueOf(this.objectiveRow[cI].getReal());
+			}
+		}
+		objectiveRow[columnsCount] = BigMNumber.valueOf(this.objectiveRow[this.bColumnIndex()].getReal());
+		ArrayList<Integer> initialBasis = new ArrayList<Integer>();
+		for(Integer variable : this.initialBasis) {
+			if(columns[variable - 1] >= 0) {
+				initialBasis.add(columns[variable - 1] + 1);
+			}
+		}
+		this.objectiveRow = objectiveRow;
+		this.initialBasis = initialBasis;
+		this.rowColumns = Arrays.copyOf(this.rowColumns, rows);
+		this.rowValues = Arrays.copyOf(this.rowValues, rows);
+		this.rowSizes = Arrays.copyOf(this.rowSizes, rows);
+		this.bColumn = Arrays.copyOf(this.bColumn, rows);
+		this.currentBasis.clear();
+		this.currentBasis.addAll(currentBasis);
+		this.totalNumberOfVariables = columnsCount;
+		this.artificialVariablesExists = false;
+		this.pricingRule.reset(this, this.totalNumberOfVariables);
+	}
+
+}
@@ -0,0 +1,199 @@
+import java.util.ArrayList;
+
+
+/*
+ * Common state and printing of the simplex engines that keep the full simplex matrix.
+ * The matrix rows are the constraints, followed by the C'j row and (with artificial variables) the IW row.
+ * The last column of each row is the B column.
+ */
+public abstract class Tableau implements SimplexEngine {
+
+	/*
+	 * The linear programming problem type - minimum or maximum.
+	 */
+	protected Simplex.ProblemType problemType;
+
+	/*
+	 * Total number of variables in the problem (after addition of slake/artificial variables).
+	 */
+	protected Integer totalNumberOfVariables;
+
+	/*
+	 * The current indices of the variables in the basis.
+	 */
+	protected ArrayList<Integer> currentBasis;
+
+	/*
+	 * Indication for artificial variables in the problem.
+	 */
+	protected Boolean artificialVariablesExists;
+
+	/*
+	 * Indications for :
+	 *  1. An in to base candidate has been found.
+	 *  2. An out of base cadidate has been found.
+	 */
+	protected Boolean dominantAtCpjFound;
+	protected Boolean relevantDivisionFound;
+
+	/*
+	 * Two-phase mode, the steps of the first phase stop when the IW row can't be improved.
+	 */
+	protected Boolean twoPhase;
+
+	/*
+	 * Anti-cycling of the steps.
+	 */
+	protected AntiCycling antiCycling;
+
+	/*
+	 * Runner of the rows update of each pivot step.
+	 */
+	protected ParallelElimination elimination;
+
+	/*
+	 * Aliases and log of the solve.
+	 */
+	protected SolveContext context;
+
+	protected Tableau(ArrayList<Integer> currentBasis, Simplex.ProblemType problemType, Boolean artificialVariablesExists, Integer totalNumberOfVariables, SolveContext context) {
+		this.currentBasis = currentBasis;
+		this.problemType = problemType;
+		this.artificialVariablesExists = artificialVariablesExists;
+		this.totalNumberOfVariables = totalNumberOfVariables;
+		this.dominantAtCpjFound = this.relevantDivisionFound = false;
+		this.twoPhase = false;
+		this.antiCycling = AntiCycling.none();
+		this.elimination = ParallelElimination.SERIAL;
+		this.context = context;
+	}
+
+	public void setElimination(ParallelElimination elimination) {
+		this.elimination = elimination;
+	}
+
+	@Override
+	public void setTwoPhase(Boolean twoPhase) {
+		this.twoPhase = twoPhase;
+	}
+
+	@Override
+	public void setAntiCycling(AntiCycling antiCycling) {
+		this.antiCycling = antiCycling;
+	}
+
+	/*
+	 * Number of rows in the matrix (constraints + C'j row + IW row).
+	 */
+	protected abstract Integer rowsCount();
+
+	/*
+	 * String representation of a single matrix cell.
+	 */
+	protected abstract String cellString(Integer rI, Integer cI);
+
+	protected Integer bColumnIndex() {
+		return this.totalNumberOfVariables;
+	}
+
+	protected Integer matrixRowSize() {
+		return this.totalNumberOfVariables + 1;
+	}
+
+	protected Integer cpjRealRowIndex() {
+		return ((this.artificialVariablesExists) ? (this.rowsCount() - 2) : (this.rowsCount() - 1));
+	}
+
+	protected Integer cpjArtificialRowIndex() {
+		return (this.rowsCount() - 1);
+	}
+
+	@Override
+	public Boolean getDominantAtCpjFound() {
+		return this.dominantAtCpjFound;
+	}
+
+	@Override
+	public Boolean getRelevantDivisionFound() {
+		return this.relevantDivisionFound;
+	}
+
+	@Override
+	public ArrayList<Integer> getCurrentBasis() {
+		return this.currentBasis;
+	}
+
+	/*
+	 * Table row separator.
+	 */
+	private String separator() {
+		StringBuilder sb = new StringBuilder();
+		for(Integer cI = 0; cI < this.totalNumberOfVariables + 2; cI++) {
+			sb.append("----------|");
+		}
+		sb.append("\n");
+		return sb.toString();
+	}
+
+	/*
+	 * Cell string cut to the table column width.
+	 */
+	private String limitedCellString(Integer rI, Integer cI) {
+		String output = this.cellString(rI, cI);
+		if(output.length() > 10) {
+			output = output.substring(0, 10);
+		}
+		return output;
+	}
+
+	@Override
+	public String toMatrixString() {
+		StringBuilder sb = new StringBuilder();
+
+		// first row
+		sb.append(String.format("%10s|", ""));
+		for(Integer cI = 0; cI < this.totalNumberOfVariables; cI++) {
+			sb.append(String.format("%10s|", this.context.getAlias(cI + 1)));
+		}
+		sb.append(String.format("%10s", "B"));
+		sb.append("\n");
+
+		sb.append(this.separator());
+
+		// constraints rows
+		for(Integer rI = 0; rI < this.cpjRealRowIndex(); rI++) {
+
+			sb.append(String.format("%10s|", this.context.getAlias(this.currentBasis.get(rI))));
+			for(Integer cI = 0; cI < this.matrixRowSize(); cI++) {
+				sb.append(String.format("%10s|", this.limitedCellString(rI, cI)));
+			}
+			sb.append("\n");
+			sb.append(this.separator());
+		}
+
+		sb.append(String.format("%10s|", "C'j"));
+
+		for(Integer cI = 0; cI < this.matrixRowSize() - 1; cI++) {
+			sb.append(String.format("%10s|", this.limitedCellString(this.cpjRealRowIndex(), cI)));
+		}
+		sb.append(String.format("%10s", "Z = " + this.cellString(this.cpjRealRowIndex(), this.bColumnIndex())) + "|");
+
+		sb.append("\n");
+		sb.append(this.separator());
+
+		if(this.artificialVariablesExists) {
+
+			sb.append(String.format("%10s|", "IW"));
+			for(Integer cI = 0; cI < this.matrixRowSize() - 1; cI++) {
+				sb.append(String.format("%10s|", this.limitedCellString(this.cpjArtificialRowIndex(), cI)));
+			}
+			sb.append(String.format("%10s", "Z = " + this.cellString(this.cpjArtificialRowIndex(), this.bColumnIndex())) + "|");
+
+			sb.append("\n");
+			sb.append(this.separator());
+		}
+
+		return sb.toString();
+	}
+
+}
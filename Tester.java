@@ -127,6 +127,22 @@ x1-x2-x3>=-2
 -x1+4x2+3x3>=3
 2x1+8x3>=-2
 
+question 9 :
+------------
+
+objective without all the constraints variables (x3 costs zero) :
+
+maxz=x1+2x2
+x1+x2<=4
+x3<=5
+
+question 10 :
+-------------
+
+floating point Bland's rule on a degenerate problem (the ratio ties must keep the basis feasible, z = 976.83) :
+
+(echo 1; java ProblemGenerator DEGENERATE 33 44 6; echo) | java -Dsimplex.engine=REVISED -Dsimplex.antiCycling=BLAND -Dsimplex.degeneratePivotsLimit=3 -Dsimplex.logLevel=SUMMARY Tester
+
 		 */
 		SimplexSimulation.simulate();
 	}